@@ -0,0 +1,80 @@
+package tech.kirouski.parser.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Корпус HTML для бенчмарков. Небольшие страницы лежат в resources/fixtures как есть,
+ * каталоги размером в мегабайты собираются из шаблона карточки товара при загрузке,
+ * чтобы не хранить их в репозитории. Содержимое каталогов детерминировано.
+ */
+public final class Fixtures {
+
+    /**
+     * Небольшой лендинг (~8 КБ)
+     */
+    public static final String LANDING = "landing";
+    /**
+     * Страница контактов с меню, schema.org и встроенным JSON состояния (~60 КБ)
+     */
+    public static final String CONTACTS = "contacts";
+    /**
+     * Страница ошибки 403
+     */
+    public static final String FORBIDDEN = "forbidden";
+    /**
+     * Каталог товаров, 1 МБ
+     */
+    public static final String CATALOG_1MB = "catalog-1mb";
+    /**
+     * Каталог товаров, 8 МБ
+     */
+    public static final String CATALOG_8MB = "catalog-8mb";
+
+    private static final String ITEMS_PLACEHOLDER = "<!--ITEMS-->";
+
+    private Fixtures() {
+    }
+
+    public static String load(String name) {
+        return switch (name) {
+            case CATALOG_1MB -> catalog(1 << 20);
+            case CATALOG_8MB -> catalog(8 << 20);
+            default -> resource(name + ".html");
+        };
+    }
+
+    private static String catalog(int chars) {
+        String page = resource("catalog.html");
+        String card = resource("catalog-item.html");
+        Random random = new Random(42);
+        StringBuilder items = new StringBuilder(chars);
+        for (int sku = 100000; items.length() + page.length() < chars; sku++) {
+            int price = 10 + random.nextInt(5000);
+            items.append(card
+                    .replace("{sku}", Integer.toString(sku))
+                    .replace("{model}", Integer.toString(random.nextInt(1000)))
+                    .replace("{warranty}", Integer.toString(6 + random.nextInt(30)))
+                    .replace("{weight}", random.nextInt(40) + "." + random.nextInt(10))
+                    .replace("{price}", Integer.toString(price))
+                    .replace("{old}", Integer.toString(price + random.nextInt(500)))
+                    .replace("{day}", Integer.toString(1 + random.nextInt(28)))
+                    .replace("{month:02d}", String.format("%02d", 1 + random.nextInt(12))));
+        }
+        return page.replace(ITEMS_PLACEHOLDER, items);
+    }
+
+    private static String resource(String name) {
+        try (InputStream input = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (input == null) {
+                throw new IllegalArgumentException("Нет фикстуры: " + name);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
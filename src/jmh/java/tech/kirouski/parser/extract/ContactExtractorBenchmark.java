@@ -0,0 +1,100 @@
+package tech.kirouski.parser.extract;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tech.kirouski.parser.benchmark.Fixtures;
+import tech.kirouski.parser.config.ExtractProperties;
+import tech.kirouski.parser.dto.ContactInfo;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Извлечение контактов целиком и по этапам: разбор HTML, раскладка элементов по правилам,
+ * поиск телефонов, email, адресов и времени работы. Для сравнения — потоковый разбор той же страницы.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ContactExtractorBenchmark {
+
+    @Param({Fixtures.LANDING, Fixtures.CONTACTS, Fixtures.CATALOG_1MB, Fixtures.CATALOG_8MB})
+    public String fixture;
+
+    private final ContactExtractor contactExtractor = new ContactExtractor();
+    private final StreamingContactExtractor streamingContactExtractor = new StreamingContactExtractor(new ExtractProperties());
+
+    private String html;
+    private Document doc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        html = Fixtures.load(fixture);
+        doc = Jsoup.parse(html);
+    }
+
+    /**
+     * Элементы, разложенные по правилам. Создаются заново перед каждым вызовом, потому что
+     * в них кэшируется текст элементов и повторный вызов этапа не строил бы его.
+     */
+    @State(Scope.Thread)
+    public static class Nodes {
+        ContactExtractor.ContactNodes nodes;
+
+        @Setup(Level.Invocation)
+        public void setUp(ContactExtractorBenchmark benchmark) {
+            nodes = ContactExtractor.ContactNodes.collect(benchmark.doc);
+        }
+    }
+
+    @Benchmark
+    public ContactInfo extract() {
+        return contactExtractor.extract(html);
+    }
+
+    @Benchmark
+    public ContactInfo extractStreaming() throws IOException {
+        return streamingContactExtractor.extract(new StringReader(html), (type, value) -> { });
+    }
+
+    @Benchmark
+    public Document parse() {
+        return Jsoup.parse(html);
+    }
+
+    @Benchmark
+    public ContactExtractor.ContactNodes collect() {
+        return ContactExtractor.ContactNodes.collect(doc);
+    }
+
+    @Benchmark
+    public List<String> extractPhones(Nodes state) {
+        return contactExtractor.extractPhones(html, state.nodes);
+    }
+
+    @Benchmark
+    public List<String> extractEmails(Nodes state) {
+        return contactExtractor.extractEmails(html, state.nodes);
+    }
+
+    @Benchmark
+    public List<String> extractAddresses(Nodes state) {
+        return contactExtractor.extractAddresses(state.nodes);
+    }
+
+    @Benchmark
+    public String extractWorkingHours(Nodes state) {
+        return contactExtractor.extractWorkingHours(doc, state.nodes);
+    }
+}
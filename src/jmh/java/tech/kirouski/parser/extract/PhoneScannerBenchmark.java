@@ -0,0 +1,40 @@
+package tech.kirouski.parser.extract;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нормализация найденных номеров телефонов
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhoneScannerBenchmark {
+
+    private static final String[] PHONES = {
+            "+375 (29) 123-45-67",
+            "8 (029) 765-43-21",
+            "+375291234567",
+            "+7 495 123-45-67",
+            "8 800 555-35-35",
+            "(212) 555-0199",
+            "+1.212.555.0199",
+            "7788"
+    };
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void normalizePhone(Blackhole blackhole) {
+        for (String phone : PHONES) {
+            blackhole.consume(PhoneScanner.normalize(phone));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package tech.kirouski.parser.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tech.kirouski.parser.benchmark.Fixtures;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка страницы на ответ 403. На обычных страницах признаков нет, и проверка проходит весь HTML.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class Is403ErrorBenchmark {
+
+    @Param({Fixtures.FORBIDDEN, Fixtures.LANDING, Fixtures.CONTACTS, Fixtures.CATALOG_8MB})
+    public String fixture;
+
+    private String html;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        html = Fixtures.load(fixture);
+    }
+
+    @Benchmark
+    public boolean is403Error() {
+        return HtmlParserService.isForbiddenPage(html);
+    }
+}
@@ -0,0 +1,158 @@
+package tech.kirouski.parser.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Локальный веб-сервер с тестовыми сайтами, чтобы нагрузочный тест не зависел от сети
+ */
+class FixtureServer implements AutoCloseable {
+
+    /**
+     * static — готовая страница с контактами;
+     * js — контакты появляются после запроса данных скриптом;
+     * slow — сервер отвечает с задержкой;
+     * mutating — скрипт меняет DOM бесконечно, страница никогда не успокаивается;
+     * forbidden — ответ 403;
+     * huge — страница в несколько мегабайт
+     */
+    static final List<String> SITES = List.of("static", "js", "slow", "mutating", "forbidden", "huge");
+
+    private static final String CONTACTS = """
+            <footer class="footer contacts">
+              <p>ООО «Тест», г. Минск, ул. Немига, д. 5, офис 12</p>
+              <p class="phone">Телефон: <a href="tel:+375291234567">+375 (29) 123-45-67</a></p>
+              <p class="email">Email: <a href="mailto:info@fixture.by">info@fixture.by</a></p>
+              <p class="hours">Пн-Пт 9:00-18:00</p>
+            </footer>
+            """;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "fixture-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long slowMs;
+    private final byte[] staticPage;
+    private final byte[] jsPage;
+    private final byte[] mutatingPage;
+    private final byte[] forbiddenPage;
+    private final byte[] hugePage;
+
+    FixtureServer(long slowMs, int hugeBytes) throws IOException {
+        this.slowMs = slowMs;
+        this.staticPage = page("Статическая страница", paragraphs(40) + CONTACTS, "");
+        this.jsPage = page("Страница на JavaScript", "<div id=\"app\">Загрузка...</div>", """
+                <script>
+                  fetch('/data.json').then(r => r.json()).then(data => {
+                    document.getElementById('app').innerHTML = data.html;
+                  });
+                </script>
+                """);
+        this.mutatingPage = page("Бесконечные изменения DOM", paragraphs(10) + CONTACTS + "<ul id=\"feed\"></ul>", """
+                <script>
+                  let n = 0;
+                  setInterval(() => {
+                    const feed = document.getElementById('feed');
+                    const item = document.createElement('li');
+                    item.textContent = 'Новость ' + (++n);
+                    feed.prepend(item);
+                    if (feed.children.length > 50) feed.lastElementChild.remove();
+                  }, 100);
+                </script>
+                """);
+        this.forbiddenPage = page("403 Forbidden", "<h1>403 Forbidden</h1><p>Access denied.</p>", "");
+        this.hugePage = hugePage(hugeBytes);
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Адрес сайта; query делает URL каждого запроса уникальным
+     */
+    String url(String site, long sequence) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/" + site + "?n=" + sequence;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            switch (exchange.getRequestURI().getPath()) {
+                case "/", "/static" -> send(exchange, 200, "text/html", staticPage);
+                case "/js" -> send(exchange, 200, "text/html", jsPage);
+                case "/data.json" -> {
+                    sleep(300);
+                    String html = (paragraphs(20) + CONTACTS).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+                    send(exchange, 200, "application/json", ("{\"html\": \"" + html + "\"}").getBytes(StandardCharsets.UTF_8));
+                }
+                case "/slow" -> {
+                    sleep(slowMs);
+                    send(exchange, 200, "text/html", staticPage);
+                }
+                case "/mutating" -> send(exchange, 200, "text/html", mutatingPage);
+                case "/forbidden" -> send(exchange, 403, "text/html", forbiddenPage);
+                case "/huge" -> send(exchange, 200, "text/html", hugePage);
+                default -> send(exchange, 404, "text/plain", "Not found".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] page(String title, String body, String scripts) {
+        return ("<!DOCTYPE html>\n<html lang=\"ru\">\n<head>\n<meta charset=\"utf-8\">\n<title>" + title + "</title>\n</head>\n"
+                + "<body>\n<h1>" + title + "</h1>\n" + body + scripts + "</body>\n</html>\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String paragraphs(int count) {
+        StringBuilder html = new StringBuilder();
+        for (int i = 1; i <= count; i++) {
+            html.append("<p>Абзац ").append(i)
+                    .append(": описание услуг компании, условия доставки и оплаты, ответы на частые вопросы.</p>\n");
+        }
+        return html.toString();
+    }
+
+    private static byte[] hugePage(int bytes) {
+        StringBuilder body = new StringBuilder(bytes);
+        for (int i = 1; body.length() < bytes; i++) {
+            body.append("<article class=\"product-card\"><h3><a href=\"/product/").append(i).append("\">Товар ").append(i)
+                    .append("</a></h3><p>Артикул ").append(100000 + i).append(", цена ").append(i % 997 + 10)
+                    .append(" руб.</p><button>В корзину</button></article>\n");
+        }
+        return page("Большой каталог", body + CONTACTS, "");
+    }
+}
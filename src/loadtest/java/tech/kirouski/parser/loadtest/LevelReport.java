@@ -0,0 +1,99 @@
+package tech.kirouski.parser.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Результат прогона на одном уровне параллелизма
+ */
+record LevelReport(int concurrency,
+                   double rate,
+                   long durationMs,
+                   long requests,
+                   double throughput,
+                   Latency latency,
+                   double errorRate,
+                   Map<String, Long> statuses,
+                   Map<String, SiteReport> sites,
+                   long maxHeapBytes,
+                   long maxChromeBytes,
+                   int maxChromeProcesses) {
+
+    /**
+     * Ответ на один запрос. status = -1 — запрос не выполнен (таймаут, обрыв соединения).
+     */
+    record Sample(String site, int status, long latencyNanos, long bytes) {
+    }
+
+    record Latency(double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        static Latency of(List<Sample> samples) {
+            long[] nanos = samples.stream().mapToLong(Sample::latencyNanos).sorted().toArray();
+            return new Latency(percentile(nanos, 0.50), percentile(nanos, 0.95), percentile(nanos, 0.99),
+                    nanos.length == 0 ? 0 : nanos[nanos.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+    }
+
+    record SiteReport(long requests, double errorRate, Latency latency, Map<String, Long> statuses, long avgBytes) {
+    }
+
+    static LevelReport of(int concurrency, double rate, long durationMs, List<Sample> samples, MemorySampler memory) {
+        Map<String, List<Sample>> bySite = new LinkedHashMap<>();
+        for (Sample sample : samples) {
+            bySite.computeIfAbsent(sample.site(), site -> new ArrayList<>()).add(sample);
+        }
+        Map<String, SiteReport> sites = new LinkedHashMap<>();
+        bySite.forEach((site, siteSamples) -> sites.put(site, new SiteReport(siteSamples.size(), errorRate(siteSamples),
+                Latency.of(siteSamples), statuses(siteSamples),
+                (long) siteSamples.stream().mapToLong(Sample::bytes).average().orElse(0))));
+        return new LevelReport(concurrency, rate, durationMs, samples.size(), samples.size() * 1000.0 / durationMs,
+                Latency.of(samples), errorRate(samples), statuses(samples), sites,
+                memory.getMaxHeapBytes(), memory.getMaxChromeBytes(), memory.getMaxChromeProcesses());
+    }
+
+    private static double errorRate(List<Sample> samples) {
+        return samples.isEmpty() ? 0 : samples.stream().filter(sample -> sample.status() != 200).count() / (double) samples.size();
+    }
+
+    private static Map<String, Long> statuses(List<Sample> samples) {
+        Map<String, Long> statuses = new TreeMap<>();
+        for (Sample sample : samples) {
+            statuses.merge(sample.status() < 0 ? "failed" : Integer.toString(sample.status()), 1L, Long::sum);
+        }
+        return statuses;
+    }
+
+    /**
+     * Таблица результатов для вывода в консоль
+     */
+    static String table(List<LevelReport> reports) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-6s %-6s %8s %8s %9s %9s %9s %9s %7s %10s %10s%n",
+                "conc", "rate", "requests", "rps", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors", "heap MB", "chrome MB"));
+        for (LevelReport report : reports) {
+            out.append(String.format("%-6d %-6s %8d %8.2f %9.0f %9.0f %9.0f %9.0f %6.1f%% %10s %10s%n",
+                    report.concurrency, report.rate > 0 ? String.format("%.1f", report.rate) : "max", report.requests,
+                    report.throughput, report.latency.p50Ms, report.latency.p95Ms, report.latency.p99Ms, report.latency.maxMs,
+                    report.errorRate * 100, megabytes(report.maxHeapBytes), megabytes(report.maxChromeBytes)));
+            report.sites.forEach((site, siteReport) -> out.append(String.format("    %-10s %8d %9.0f %9.0f %9.0f %6.1f%%  %s%n",
+                    site, siteReport.requests(), siteReport.latency().p50Ms, siteReport.latency().p95Ms,
+                    siteReport.latency().p99Ms, siteReport.errorRate() * 100, siteReport.statuses())));
+        }
+        return out.toString();
+    }
+
+    private static String megabytes(long bytes) {
+        return bytes < 0 ? "-" : Long.toString(bytes >> 20);
+    }
+}
@@ -0,0 +1,134 @@
+package tech.kirouski.parser.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import tech.kirouski.parser.dto.CacheOptions;
+import tech.kirouski.parser.dto.FetchHtmlRequest;
+import tech.kirouski.parser.dto.FetchMode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Отправляет запросы в /api/fetch-html с заданным параллелизмом и частотой.
+ * При заданной частоте запросы запускаются по расписанию, и задержка считается от запланированного
+ * момента отправки: если все места заняты, ожидание свободного места тоже входит в задержку.
+ */
+class LoadDriver {
+
+    private final String target;
+    private final FixtureServer fixtures;
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong sequence = new AtomicLong();
+
+    LoadDriver(String target, FixtureServer fixtures, LoadTestOptions options, HttpClient client, ObjectMapper objectMapper) {
+        this.target = target;
+        this.fixtures = fixtures;
+        this.options = options;
+        this.client = client;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Выполняет запросы в течение durationMs и возвращает ответы на них
+     */
+    List<LevelReport.Sample> run(int concurrency, double rate, long durationMs) throws InterruptedException {
+        List<LevelReport.Sample> samples = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "load-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        try {
+            if (rate > 0) {
+                runScheduled(workers, concurrency, rate, start, end, samples);
+            } else {
+                for (int i = 0; i < concurrency; i++) {
+                    workers.submit(() -> {
+                        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                            samples.add(send(System.nanoTime()));
+                        }
+                    });
+                }
+            }
+        } finally {
+            workers.shutdown();
+            // Запросы, начатые до конца прогона, дожидаемся, чтобы не терять медленные ответы
+            if (!workers.awaitTermination(options.timeoutMs + 5_000, TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        }
+        return new ArrayList<>(samples);
+    }
+
+    private void runScheduled(ExecutorService workers, int concurrency, double rate, long start, long end,
+                              List<LevelReport.Sample> samples) throws InterruptedException {
+        Semaphore slots = new Semaphore(concurrency);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                return;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            slots.acquire();
+            workers.submit(() -> {
+                try {
+                    samples.add(send(scheduled));
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    private LevelReport.Sample send(long scheduledNanos) {
+        long n = sequence.incrementAndGet();
+        String site = options.sites.get((int) (n % options.sites.size()));
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/fetch-html"))
+                    .timeout(Duration.ofMillis(options.timeoutMs))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(request(fixtures.url(site, n)))))
+                    .build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return new LevelReport.Sample(site, response.statusCode(), System.nanoTime() - scheduledNanos, response.body().length);
+        } catch (IOException e) {
+            return new LevelReport.Sample(site, -1, System.nanoTime() - scheduledNanos, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new LevelReport.Sample(site, -1, System.nanoTime() - scheduledNanos, 0);
+        }
+    }
+
+    private FetchHtmlRequest request(String url) {
+        FetchHtmlRequest request = new FetchHtmlRequest();
+        request.setUrls(List.of(url));
+        // Каждая загрузка должна дойти до браузера, а не до кэша
+        CacheOptions cache = new CacheOptions();
+        cache.setBypass(true);
+        request.setCache(cache);
+        if (options.mode != null) {
+            request.setMode(FetchMode.valueOf(options.mode.toUpperCase()));
+        }
+        return request;
+    }
+}
@@ -0,0 +1,122 @@
+package tech.kirouski.parser.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import tech.kirouski.parser.Main;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Нагрузочный тест сервиса: поднимает локальный сервер с тестовыми сайтами, при необходимости запускает
+ * сервис в этом же процессе и нагружает /api/fetch-html на каждом уровне параллелизма по очереди.
+ * Работает без доступа в интернет, нужен только Chrome.
+ */
+public class LoadTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        ConfigurableApplicationContext service = null;
+        try (FixtureServer fixtures = new FixtureServer(options.slowMs, options.hugeBytes)) {
+            String target = options.target;
+            if (target == null) {
+                service = startService(options);
+                target = "http://127.0.0.1:" + ((WebServerApplicationContext) service).getWebServer().getPort();
+            }
+            awaitHealthy(client, target);
+
+            LoadDriver driver = new LoadDriver(target, fixtures, options, client, objectMapper);
+            int maxConcurrency = options.concurrency.stream().mapToInt(Integer::intValue).max().orElse(1);
+            if (options.warmUpMs > 0) {
+                System.out.printf("Прогрев: %d мс, параллелизм %d%n", options.warmUpMs, maxConcurrency);
+                driver.run(maxConcurrency, options.rate, options.warmUpMs);
+            }
+
+            List<LevelReport> reports = new ArrayList<>();
+            for (int concurrency : options.concurrency) {
+                System.out.printf("Прогон: параллелизм %d, %s запросов/с, %d мс%n",
+                        concurrency, options.rate > 0 ? options.rate : "без ограничения", options.durationMs);
+                try (MemorySampler memory = new MemorySampler(options.target, client, objectMapper)) {
+                    List<LevelReport.Sample> samples = driver.run(concurrency, options.rate, options.durationMs);
+                    reports.add(LevelReport.of(concurrency, options.rate, options.durationMs, samples, memory));
+                }
+            }
+
+            System.out.println();
+            System.out.print(LevelReport.table(reports));
+            writeResults(objectMapper, options, target, reports);
+        } finally {
+            if (service != null) {
+                service.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startService(LoadTestOptions options) {
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=0");
+        // Статистика ожиданий тестовых сайтов не должна попадать в файл сервиса
+        args.add("--parser.wait-budget.stats-file=");
+        args.addAll(options.serviceArgs);
+        return new SpringApplicationBuilder(Main.class).run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Ждет, пока сервис ответит 200 на /api/health, то есть сможет запускать браузеры
+     */
+    private static void awaitHealthy(HttpClient client, String target) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/api/health"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Сервис еще не принимает соединения
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Сервис " + target + " не стал доступен за " + STARTUP_TIMEOUT);
+    }
+
+    private static void writeResults(ObjectMapper objectMapper, LoadTestOptions options, String target,
+                                     List<LevelReport> reports) throws IOException {
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("startedAt", Instant.now().toString());
+        results.put("target", options.target != null ? target : "in-process");
+        results.put("sites", options.sites);
+        results.put("mode", options.mode);
+        results.put("levels", reports);
+        Path file = Path.of(options.resultsFile);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writeValue(file.toFile(), results);
+        System.out.println("Результаты сохранены в " + file.toAbsolutePath());
+    }
+}
@@ -0,0 +1,70 @@
+package tech.kirouski.parser.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Параметры нагрузочного теста. Передаются аргументами вида --name=value, неизвестные аргументы
+ * передаются запускаемому сервису (например, --parser.browser-pool.max-size=8).
+ */
+class LoadTestOptions {
+
+    /**
+     * Адрес уже запущенного сервиса. Если не задан, сервис запускается в том же процессе на свободном порту.
+     */
+    String target;
+    /**
+     * Уровни параллелизма (запросов в работе одновременно), для каждого выполняется отдельный прогон
+     */
+    List<Integer> concurrency = List.of(1, 2, 4);
+    /**
+     * Частота запросов в секунду. 0 — без ограничения: каждый поток отправляет следующий запрос сразу после ответа.
+     */
+    double rate;
+    long durationMs = 60_000;
+    long warmUpMs = 10_000;
+    long timeoutMs = 120_000;
+    List<String> sites = FixtureServer.SITES;
+    /**
+     * Режим загрузки (AUTO, HTTP, BROWSER). Если не задан, используется режим сервиса по умолчанию.
+     */
+    String mode;
+    long slowMs = 3_000;
+    int hugeBytes = 5 << 20;
+    String resultsFile = "build/results/loadtest/results.json";
+    final List<String> serviceArgs = new ArrayList<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Ожидался аргумент вида --name=value: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "target" -> options.target = value.replaceAll("/+$", "");
+                case "concurrency" -> options.concurrency = Arrays.stream(value.split(","))
+                        .map(String::trim).map(Integer::parseInt).toList();
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "duration-ms" -> options.durationMs = Long.parseLong(value);
+                case "warm-up-ms" -> options.warmUpMs = Long.parseLong(value);
+                case "timeout-ms" -> options.timeoutMs = Long.parseLong(value);
+                case "sites" -> options.sites = Arrays.stream(value.split(",")).map(String::trim).toList();
+                case "mode" -> options.mode = value;
+                case "slow-ms" -> options.slowMs = Long.parseLong(value);
+                case "huge-bytes" -> options.hugeBytes = Integer.parseInt(value);
+                case "results" -> options.resultsFile = value;
+                default -> options.serviceArgs.add(arg);
+            }
+        }
+        for (String site : options.sites) {
+            if (!FixtureServer.SITES.contains(site)) {
+                throw new IllegalArgumentException("Неизвестный сайт " + site + ", доступны: " + FixtureServer.SITES);
+            }
+        }
+        return options;
+    }
+}
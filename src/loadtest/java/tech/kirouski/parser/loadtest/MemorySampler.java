@@ -0,0 +1,157 @@
+package tech.kirouski.parser.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Периодически снимает занятую память кучи JVM сервиса и суммарную память процессов Chrome на машине.
+ * Память Chrome — сумма PSS (общие страницы делятся между процессами) из /proc, поэтому доступна только на Linux;
+ * если PSS недоступен, берется RSS.
+ */
+class MemorySampler implements AutoCloseable {
+
+    private static final long INTERVAL_MS = 500;
+    private static final List<String> CHROME_PROCESSES = List.of("chrome", "chromium", "headless_shell");
+
+    private final String target;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final Thread thread;
+
+    private volatile long maxHeapBytes = -1;
+    private volatile long maxChromeBytes = -1;
+    private volatile int maxChromeProcesses;
+
+    /**
+     * @param target адрес внешнего сервиса (память кучи берется из /actuator/metrics) или null, если сервис в этом процессе
+     */
+    MemorySampler(String target, HttpClient client, ObjectMapper objectMapper) {
+        this.target = target;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.thread = new Thread(this::run, "memory-sampler");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    long getMaxHeapBytes() {
+        return maxHeapBytes;
+    }
+
+    long getMaxChromeBytes() {
+        return maxChromeBytes;
+    }
+
+    int getMaxChromeProcesses() {
+        return maxChromeProcesses;
+    }
+
+    @Override
+    public void close() {
+        thread.interrupt();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            sample();
+            try {
+                Thread.sleep(INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void sample() {
+        long heap = heapUsed();
+        if (heap > maxHeapBytes) {
+            maxHeapBytes = heap;
+        }
+        long chrome = 0;
+        int processes = 0;
+        try (Stream<Path> entries = Files.list(Path.of("/proc"))) {
+            for (Path dir : (Iterable<Path>) entries::iterator) {
+                if (!dir.getFileName().toString().chars().allMatch(Character::isDigit) || !isChrome(dir)) {
+                    continue;
+                }
+                long memory = memory(dir);
+                if (memory >= 0) {
+                    chrome += memory;
+                    processes++;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return;
+        }
+        if (processes > 0 && chrome > maxChromeBytes) {
+            maxChromeBytes = chrome;
+        }
+        if (processes > maxChromeProcesses) {
+            maxChromeProcesses = processes;
+        }
+    }
+
+    private long heapUsed() {
+        if (target == null) {
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(target + "/actuator/metrics/jvm.memory.used?tag=area:heap"))
+                    .timeout(Duration.ofSeconds(2))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return -1;
+            }
+            JsonNode value = objectMapper.readTree(response.body()).path("measurements").path(0).path("value");
+            return value.isNumber() ? value.asLong() : -1;
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static boolean isChrome(Path dir) {
+        try {
+            String name = Files.readString(dir.resolve("comm")).trim();
+            return CHROME_PROCESSES.stream().anyMatch(name::startsWith) && !name.startsWith("chromedriver");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long memory(Path dir) {
+        long pss = field(dir.resolve("smaps_rollup"), "Pss:");
+        return pss >= 0 ? pss : field(dir.resolve("status"), "VmRSS:");
+    }
+
+    /**
+     * Значение строки вида "Pss:    123456 kB" в байтах или -1
+     */
+    private static long field(Path file, String name) {
+        try {
+            for (String line : Files.readAllLines(file)) {
+                if (line.startsWith(name)) {
+                    return Long.parseLong(line.substring(name.length()).replace("kB", "").trim()) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,214 @@
+package tech.kirouski.parser.browser;
+
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.idealized.target.model.SessionID;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Изолированный контекст браузера (Target.createBrowserContext) с одной вкладкой.
+ * Куки, хранилища и кэш контекста не видны другим контекстам того же процесса Chrome,
+ * поэтому один браузер обслуживает несколько запросов одновременно. Вкладка управляется
+ * напрямую по CDP через отдельную сессию, без WebDriver: команды WebDriver выполняются
+ * для одной текущей вкладки драйвера и не подходят для параллельной работы.
+ */
+public class BrowserContext implements BrowserTab {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserContext.class);
+
+    private static final Json JSON = new Json();
+
+    /**
+     * Время выполнения служебных команд CDP, мс
+     */
+    private static final long COMMAND_TIMEOUT_MS = 10000;
+
+    /**
+     * Разрешается после события load текущего документа
+     */
+    private static final String AWAIT_LOAD = """
+            new Promise(resolve => {
+                if (document.readyState === 'complete') { resolve(location.href); return; }
+                window.addEventListener('load', () => resolve(location.href), {once: true});
+            })
+            """;
+
+    private final PooledBrowser browser;
+    private final long id;
+    private final long pageLoadTimeoutMs;
+    private final String browserContextId;
+    private final String targetId;
+    private final SessionID session;
+
+    private BrowserContext(PooledBrowser browser, long id, long pageLoadTimeoutMs, String browserContextId,
+                           String targetId, SessionID session) {
+        this.browser = browser;
+        this.id = id;
+        this.pageLoadTimeoutMs = pageLoadTimeoutMs;
+        this.browserContextId = browserContextId;
+        this.targetId = targetId;
+        this.session = session;
+    }
+
+    /**
+     * Создает в браузере новый контекст с пустой вкладкой и подключается к ней
+     */
+    static BrowserContext open(PooledBrowser browser, long id, long pageLoadTimeoutMs) {
+        Connection connection = browser.cdp();
+        String browserContextId = (String) send(connection, null, "Target.createBrowserContext",
+                Map.of("disposeOnDetach", true)).get("browserContextId");
+        try {
+            String targetId = (String) send(connection, null, "Target.createTarget",
+                    Map.of("url", "about:blank", "browserContextId", browserContextId, "width", 1920, "height", 1080))
+                    .get("targetId");
+            String sessionId = (String) send(connection, null, "Target.attachToTarget",
+                    Map.of("targetId", targetId, "flatten", true)).get("sessionId");
+            BrowserContext context = new BrowserContext(browser, id, pageLoadTimeoutMs, browserContextId, targetId,
+                    new SessionID(sessionId));
+            context.executeCdpCommand("Page.enable", Map.of());
+            return context;
+        } catch (RuntimeException e) {
+            dispose(connection, browserContextId);
+            throw e;
+        }
+    }
+
+    public PooledBrowser getBrowser() {
+        return browser;
+    }
+
+    @Override
+    public String getName() {
+        return "контекст #" + id + " браузера #" + browser.getId();
+    }
+
+    @Override
+    public void open(String url) {
+        Map<String, Object> result = send(browser.cdp(), session, "Page.navigate", Map.of("url", url), pageLoadTimeoutMs);
+        Object errorText = result.get("errorText");
+        if (errorText != null && !errorText.toString().isEmpty()) {
+            throw new IllegalStateException("Не удалось открыть " + url + ": " + errorText);
+        }
+
+        // Сразу после навигации скрипт может попасть в уходящий документ: тогда его контекст выполнения
+        // уничтожается и ожидание повторяется уже в новом документе
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pageLoadTimeoutMs);
+        while (true) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMs <= 0) {
+                throw new IllegalStateException("Страница " + url + " не загрузилась за " + pageLoadTimeoutMs + " мс");
+            }
+            try {
+                Object href = evaluate(AWAIT_LOAD, true, remainingMs);
+                if (!"about:blank".equals(href)) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                if (e.getMessage() == null || !e.getMessage().contains("context was destroyed")
+                        && !e.getMessage().contains("Cannot find context")) {
+                    throw e;
+                }
+            }
+            sleep(50);
+        }
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        return evaluate("(function() {\n" + script + "\n}).apply(null, " + JSON.toJson(args) + ")", false, COMMAND_TIMEOUT_MS);
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, long timeoutMs, Object... args) {
+        String expression = "new Promise(resolve => (function() {\n" + script + "\n}).apply(null, "
+                + JSON.toJson(args) + ".concat([resolve])))";
+        return evaluate(expression, true, timeoutMs);
+    }
+
+    @Override
+    public Map<String, Object> executeCdpCommand(String method, Map<String, Object> params) {
+        return send(browser.cdp(), session, method, params);
+    }
+
+    @Override
+    public String getTargetId() {
+        return targetId;
+    }
+
+    /**
+     * Сериализует документ так же, как ChromeDriver при запросе исходного кода страницы
+     */
+    @Override
+    public String getPageSource() {
+        Object source = executeScript("return new XMLSerializer().serializeToString(document);");
+        return source != null ? source.toString() : "";
+    }
+
+    /**
+     * Скрипты удаляются вместе с вкладкой при закрытии контекста
+     */
+    @Override
+    public void addInitScript(String identifier) {
+    }
+
+    /**
+     * Удаляет контекст вместе с вкладкой, куками и хранилищами. Возвращает false, если браузер не ответил.
+     */
+    boolean close() {
+        return dispose(browser.cdp(), browserContextId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object evaluate(String expression, boolean awaitPromise, long timeoutMs) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("expression", expression);
+        params.put("returnByValue", true);
+        params.put("awaitPromise", awaitPromise);
+        Map<String, Object> response = send(browser.cdp(), session, "Runtime.evaluate", params, timeoutMs);
+        if (response.get("exceptionDetails") instanceof Map<?, ?> details) {
+            Object exception = details.get("exception");
+            Object description = exception instanceof Map<?, ?> value ? value.get("description") : null;
+            throw new IllegalStateException("Ошибка выполнения скрипта: " + (description != null ? description : details.get("text")));
+        }
+        Object result = response.get("result");
+        return result instanceof Map<?, ?> value ? ((Map<String, Object>) value).get("value") : null;
+    }
+
+    private static boolean dispose(Connection connection, String browserContextId) {
+        try {
+            send(connection, null, "Target.disposeBrowserContext", Map.of("browserContextId", browserContextId));
+            return true;
+        } catch (Exception e) {
+            logger.warn("Не удалось удалить контекст браузера {}", browserContextId, e);
+            return false;
+        }
+    }
+
+    private static Map<String, Object> send(Connection connection, SessionID session, String method, Map<String, Object> params) {
+        return send(connection, session, method, params, COMMAND_TIMEOUT_MS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> send(Connection connection, SessionID session, String method,
+                                            Map<String, Object> params, long timeoutMs) {
+        Map<String, Object> result = connection.sendAndWait(session, new Command<>(method, params, Map.class),
+                Duration.ofMillis(timeoutMs + COMMAND_TIMEOUT_MS));
+        return result != null ? result : Map.of();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание загрузки страницы прервано");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package tech.kirouski.parser.browser;
+
+import com.codeborne.selenide.SelenideConfig;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Создает и настраивает экземпляры Chrome для пула браузеров
+ */
+@Component
+public class BrowserFactory {
+
+    /**
+     * Запускает новый экземпляр Chrome
+     */
+    public WebDriver create() {
+        return new ChromeDriver(createChromeOptions());
+    }
+
+    /**
+     * Собственная конфигурация Selenide для каждого браузера вместо глобальной Configuration
+     */
+    public SelenideConfig createConfig() {
+        return new SelenideConfig()
+                .browser("chrome")
+                .headless(true)
+                .timeout(10000)
+                .browserSize("1920x1080");
+    }
+
+    /**
+     * Настройка ChromeOptions для работы в Docker/Railway
+     */
+    private ChromeOptions createChromeOptions() {
+        ChromeOptions chromeOptions = new ChromeOptions();
+        // Работа без видимого браузера
+        chromeOptions.addArguments("--headless=new");
+        // Обязательные опции для работы в Docker
+        chromeOptions.addArguments("--no-sandbox");
+        chromeOptions.addArguments("--disable-dev-shm-usage");
+        chromeOptions.addArguments("--disable-gpu");
+        chromeOptions.addArguments("--disable-software-rasterizer");
+        chromeOptions.addArguments("--disable-extensions");
+        chromeOptions.addArguments("--remote-allow-origins=*");
+        chromeOptions.addArguments("--window-size=1920,1080");
+        chromeOptions.addArguments("--disable-setuid-sandbox");
+        chromeOptions.addArguments("--disable-web-security");
+        chromeOptions.addArguments("--allow-running-insecure-content");
+
+        // Устанавливаем User-Agent реального браузера чтобы избежать блокировки
+        chromeOptions.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
+
+        // Добавляем предпочтения для имитации реального браузера
+        chromeOptions.addArguments("--lang=en-US,en");
+        chromeOptions.addArguments("--accept-lang=en-US,en");
+
+        // Дополнительные предпочтения для обхода защиты
+        Map<String, Object> prefs = new HashMap<>();
+        prefs.put("profile.default_content_setting_values.notifications", 2);
+        prefs.put("profile.managed_default_content_settings.images", 1);
+        chromeOptions.setExperimentalOption("prefs", prefs);
+
+        // Сетевые события страницы в performance-логе, по ним считается статистика загрузки
+        chromeOptions.setCapability("goog:loggingPrefs", Map.of("performance", "ALL"));
+        chromeOptions.setExperimentalOption("perfLoggingPrefs", Map.of("enableNetwork", true, "enablePage", false));
+
+        // Отключаем автоматизационные флаги, которые могут выдать бота
+        chromeOptions.setExperimentalOption("excludeSwitches", new String[]{"enable-automation", "enable-logging"});
+        chromeOptions.setExperimentalOption("useAutomationExtension", false);
+
+        // Устанавливаем путь к Chrome если указан в переменной окружения
+        String chromeBin = System.getenv("CHROME_BIN");
+        if (chromeBin != null && !chromeBin.isEmpty()) {
+            chromeOptions.setBinary(chromeBin);
+            System.setProperty("webdriver.chrome.binary", chromeBin);
+        }
+
+        return chromeOptions;
+    }
+}
@@ -0,0 +1,170 @@
+package tech.kirouski.parser.browser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.config.BrowserLifecycleProperties;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Следит за браузерами пула: помечает для замены браузеры, занявшие слишком много памяти,
+ * проверяет свободные браузеры и заменяет зависшие, завершает потерянные процессы ChromeDriver и Chrome.
+ * Замена по числу загрузок страниц выполняется самим пулом при возврате браузера.
+ */
+@Component
+public class BrowserLifecycleManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserLifecycleManager.class);
+
+    private final BrowserPool browserPool;
+    private final BrowserLifecycleProperties properties;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "browser-lifecycle");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService probeExecutor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "browser-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong memoryBytes = new AtomicLong();
+    private final Counter reaped;
+
+    @Autowired
+    public BrowserLifecycleManager(BrowserPool browserPool, BrowserLifecycleProperties properties, MeterRegistry registry) {
+        this.browserPool = browserPool;
+        this.properties = properties;
+
+        Gauge.builder("parser.browsers.memory", memoryBytes, AtomicLong::get)
+                .description("Память процессов всех браузеров пула (сумма PSS) при последней проверке")
+                .baseUnit("bytes")
+                .register(registry);
+        this.reaped = Counter.builder("parser.browser.reaped")
+                .description("Завершенные потерянные процессы ChromeDriver и Chrome")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long checkInterval = properties.getCheckIntervalMs();
+        if (checkInterval > 0) {
+            scheduler.scheduleWithFixedDelay(this::checkBrowsers, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+        }
+        long reapInterval = properties.getReapIntervalMs();
+        if (reapInterval > 0) {
+            scheduler.scheduleWithFixedDelay(this::reapOrphans, reapInterval, reapInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        probeExecutor.shutdownNow();
+    }
+
+    /**
+     * Измеряет память браузеров и проверяет свободные браузеры. Браузер, превысивший лимит памяти,
+     * заменяется при возврате в пул или при проверке, если он свободен.
+     */
+    void checkBrowsers() {
+        try {
+            long maxMemoryBytes = properties.getMaxMemoryMb() * 1024 * 1024;
+            long total = 0;
+            for (PooledBrowser browser : browserPool.browsers()) {
+                ProcessHandle driverProcess = browser.getDriverProcess();
+                long memory = driverProcess != null ? BrowserProcesses.memoryBytes(driverProcess) : -1;
+                if (memory < 0) {
+                    continue;
+                }
+                total += memory;
+                if (maxMemoryBytes > 0 && memory > maxMemoryBytes && browser.getRecycleReason() == null) {
+                    logger.info("Браузер #{} занимает {} МБ (лимит {} МБ), будет заменен",
+                            browser.getId(), memory / (1024 * 1024), properties.getMaxMemoryMb());
+                    browser.requestRecycle(BrowserPool.RECYCLE_MEMORY);
+                }
+            }
+            memoryBytes.set(total);
+
+            for (PooledBrowser browser : browserPool.browsers()) {
+                if (browserPool.checkOut(browser)) {
+                    browserPool.checkIn(browser, probe(browser));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Ошибка при проверке браузеров пула", e);
+        }
+    }
+
+    /**
+     * Завершает процессы ChromeDriver и Chrome, запущенные сервисом, но не принадлежащие ни одному браузеру пула:
+     * например, оставшиеся после неудачного закрытия браузера. Процесс завершается вместе с потомками.
+     */
+    void reapOrphans() {
+        try {
+            // Процессы запускающегося браузера еще не связаны с ним
+            if (browserPool.isStarting()) {
+                return;
+            }
+            Set<Long> known = browserPool.processIds();
+            Instant bornBefore = Instant.now().minusMillis(properties.getOrphanMinAgeMs());
+            List<ProcessHandle> orphans = ProcessHandle.current().descendants()
+                    .filter(BrowserProcesses::isBrowserProcess)
+                    .filter(process -> !known.contains(process.pid()))
+                    .filter(process -> process.info().startInstant().map(bornBefore::isAfter).orElse(false))
+                    // Потомки потерянного процесса завершаются вместе с ним
+                    .filter(process -> process.parent().map(parent -> !BrowserProcesses.isBrowserProcess(parent)).orElse(true))
+                    .toList();
+            for (ProcessHandle orphan : orphans) {
+                List<ProcessHandle> tree = BrowserProcesses.tree(orphan);
+                int killed = BrowserProcesses.kill(tree, 0);
+                reaped.increment(killed);
+                logger.warn("Завершен потерянный процесс {} (pid {}), всего процессов: {}",
+                        orphan.info().command().orElse("?"), orphan.pid(), killed);
+            }
+        } catch (Exception e) {
+            logger.warn("Ошибка при поиске потерянных процессов браузеров", e);
+        }
+    }
+
+    /**
+     * Проверяет, что браузер отвечает на команды не дольше healthCheckTimeoutMs
+     */
+    private boolean probe(PooledBrowser browser) {
+        Future<Boolean> alive = probeExecutor.submit(browser::isAlive);
+        try {
+            return alive.get(properties.getHealthCheckTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Браузер #{} не ответил на проверку за {} мс", browser.getId(), properties.getHealthCheckTimeoutMs());
+            alive.cancel(true);
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            // Проверка прервана при остановке приложения, а не браузером
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,691 @@
+package tech.kirouski.parser.browser;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.config.BrowserLifecycleProperties;
+import tech.kirouski.parser.config.BrowserPoolProperties;
+import tech.kirouski.parser.exception.HtmlFetchException;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Пул заранее запущенных браузеров.
+ * Браузер выдается на время одного запроса и возвращается в пул с очищенным состоянием.
+ * Если браузер обслуживает несколько запросов одновременно (contextsPerBrowser > 1), запросу выдается
+ * изолированный контекст наименее загруженного браузера, который удаляется после запроса.
+ */
+@Component
+public class BrowserPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserPool.class);
+
+    /**
+     * Причины замены браузера (значения тега reason метрики parser.browser.recycled)
+     */
+    static final String RECYCLE_PAGE_LOADS = "page-loads";
+    static final String RECYCLE_MEMORY = "memory";
+    static final String RECYCLE_UNHEALTHY = "unhealthy";
+
+    /**
+     * Сколько ждать завершения процессов браузера после закрытия, прежде чем завершить их принудительно, мс
+     */
+    private static final long QUIT_GRACE_MS = 2000;
+
+    private final BrowserFactory browserFactory;
+    private final BrowserPoolProperties properties;
+    private final BrowserLifecycleProperties lifecycle;
+    private final ResourceBlocker resourceBlocker;
+    private final MeterRegistry registry;
+    private final int contextsPerBrowser;
+
+    /**
+     * Все запущенные браузеры: свободные, выданные запросам и проверяемые
+     */
+    private final Set<PooledBrowser> browsers = ConcurrentHashMap.newKeySet();
+    private final BlockingDeque<PooledBrowser> idle = new LinkedBlockingDeque<>();
+    /**
+     * Браузеры, обслуживающие запросы в контекстах. Счетчики контекстов меняются под contextLock.
+     */
+    private final List<PooledBrowser> shared = new CopyOnWriteArrayList<>();
+    private final ReentrantLock contextLock = new ReentrantLock();
+    private final Condition contextClosed = contextLock.newCondition();
+    private final AtomicLong nextContextId = new AtomicLong();
+    private final Semaphore leases;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger starting = new AtomicInteger();
+    private final AtomicLong nextId = new AtomicLong();
+    private final ExecutorService warmUpExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "browser-pool-warmup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Timer startupTimer;
+    private volatile boolean closed;
+    /**
+     * Причина последнего неудачного запуска браузера, сбрасывается после успешного запуска
+     */
+    private volatile String lastStartFailure;
+
+    @Autowired
+    public BrowserPool(BrowserFactory browserFactory, BrowserPoolProperties properties, BrowserLifecycleProperties lifecycle,
+                       ResourceBlocker resourceBlocker, MeterRegistry registry) {
+        this.browserFactory = browserFactory;
+        this.properties = properties;
+        this.lifecycle = lifecycle;
+        this.resourceBlocker = resourceBlocker;
+        this.registry = registry;
+        this.contextsPerBrowser = Math.max(1, properties.getContextsPerBrowser());
+        this.leases = new Semaphore(getMaxSize() * contextsPerBrowser, true);
+
+        Gauge.builder("parser.browsers", this, BrowserPool::getIdleCount)
+                .description("Запущенные браузеры в пуле")
+                .tag("state", "idle")
+                .register(registry);
+        Gauge.builder("parser.browsers", this, BrowserPool::getActiveCount)
+                .description("Запущенные браузеры в пуле")
+                .tag("state", "active")
+                .register(registry);
+        Gauge.builder("parser.browsers.max", this, BrowserPool::getMaxSize)
+                .description("Максимальный размер пула браузеров")
+                .register(registry);
+        Gauge.builder("parser.browsers.waiting", leases, Semaphore::getQueueLength)
+                .description("Запросы, ожидающие свободный браузер")
+                .register(registry);
+        Gauge.builder("parser.browser.contexts", this, BrowserPool::getOpenContexts)
+                .description("Открытые контексты в браузерах, обслуживающих несколько запросов")
+                .register(registry);
+        this.startupTimer = Timer.builder("parser.browser.startup")
+                .description("Время запуска браузера")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Прогреваем пул в фоне, чтобы не задерживать старт приложения
+        warmUpExecutor.submit(this::fillToMinSize);
+    }
+
+    /**
+     * Выдает запросу браузер из пула или контекст в общем браузере, при необходимости запуская новый браузер
+     */
+    public BrowserTab borrow() throws HtmlFetchException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getBorrowTimeoutMs());
+        try {
+            if (!leases.tryAcquire(properties.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new HtmlFetchException("Нет свободных браузеров, попробуйте позже");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HtmlFetchException("Ожидание свободного браузера прервано");
+        }
+
+        try {
+            if (contextsPerBrowser > 1) {
+                return openContext(deadline);
+            }
+            PooledBrowser browser = takeIdleOrCreate(deadline);
+            browser.markLeased();
+            return browser;
+        } catch (HtmlFetchException | RuntimeException e) {
+            leases.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Возвращает браузер в пул после очистки состояния или удаляет выданный запросу контекст
+     */
+    public void release(BrowserTab tab) {
+        try {
+            if (tab instanceof BrowserContext context) {
+                closeContext(context);
+                return;
+            }
+            PooledBrowser browser = (PooledBrowser) tab;
+            String recycleReason = closed ? null : recycleReason(browser);
+            if (recycleReason != null) {
+                recycle(browser, recycleReason);
+            } else if (closed || !resetState(browser)) {
+                destroy(browser);
+                warmUpExecutor.submit(this::fillToMinSize);
+            } else {
+                // Последний возвращенный браузер выдается первым — у него самый "теплый" кэш
+                idle.offerFirst(browser);
+            }
+        } finally {
+            leases.release();
+        }
+    }
+
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * Количество браузеров, не занятых запросами (для общих браузеров — без открытых контекстов)
+     */
+    public int getIdleCount() {
+        if (contextsPerBrowser == 1) {
+            return idle.size();
+        }
+        contextLock.lock();
+        try {
+            return (int) shared.stream().filter(browser -> browser.openContexts == 0).count();
+        } finally {
+            contextLock.unlock();
+        }
+    }
+
+    /**
+     * Количество контекстов, открытых сейчас во всех общих браузерах
+     */
+    public int getOpenContexts() {
+        contextLock.lock();
+        try {
+            return shared.stream().mapToInt(browser -> browser.openContexts).sum();
+        } finally {
+            contextLock.unlock();
+        }
+    }
+
+    public int getContextsPerBrowser() {
+        return contextsPerBrowser;
+    }
+
+    /**
+     * Количество браузеров, выданных запросам
+     */
+    public int getActiveCount() {
+        return Math.max(0, size.get() - getIdleCount());
+    }
+
+    public int getMaxSize() {
+        return Math.max(1, properties.getMaxSize());
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public String getLastStartFailure() {
+        return lastStartFailure;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        warmUpExecutor.shutdownNow();
+        PooledBrowser browser;
+        while ((browser = idle.pollFirst()) != null) {
+            destroy(browser);
+        }
+        // Общие браузеры с открытыми контекстами закрываются после возврата последнего контекста
+        List<PooledBrowser> unused = new ArrayList<>();
+        contextLock.lock();
+        try {
+            for (PooledBrowser candidate : shared) {
+                candidate.retired = true;
+                // Проверяемый браузер закроется по окончании проверки
+                if (candidate.openContexts == 0 && !candidate.checking) {
+                    shared.remove(candidate);
+                    unused.add(candidate);
+                }
+            }
+        } finally {
+            contextLock.unlock();
+        }
+        unused.forEach(this::destroy);
+    }
+
+    /**
+     * Открывает контекст в наименее загруженном браузере, при необходимости запуская новый браузер
+     */
+    private BrowserContext openContext(long deadline) throws HtmlFetchException {
+        while (true) {
+            PooledBrowser browser = reserveContext(deadline);
+            if (browser == null) {
+                browser = tryCreate();
+                if (browser == null) {
+                    // Последний браузер пула запускает другой запрос, ждем освобождения места в нем
+                    continue;
+                }
+                contextLock.lock();
+                try {
+                    browser.openContexts++;
+                    browser.markLeased();
+                    shared.add(browser);
+                    contextClosed.signalAll();
+                } finally {
+                    contextLock.unlock();
+                }
+            }
+
+            try {
+                return BrowserContext.open(browser, nextContextId.incrementAndGet(),
+                        browser.getSelenideDriver().config().pageLoadTimeout());
+            } catch (RuntimeException e) {
+                logger.warn("Не удалось открыть контекст в браузере #{}", browser.getId(), e);
+                releaseContext(browser, browser.isAlive() ? null : RECYCLE_UNHEALTHY);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Занимает место для контекста в браузере с наименьшим числом открытых контекстов.
+     * Возвращает null, если свободных мест нет, но пул может запустить еще один браузер.
+     */
+    private PooledBrowser reserveContext(long deadline) throws HtmlFetchException {
+        contextLock.lock();
+        try {
+            while (true) {
+                PooledBrowser least = null;
+                for (PooledBrowser browser : shared) {
+                    if (!browser.retired && !browser.checking && browser.openContexts < contextsPerBrowser
+                            && (least == null || browser.openContexts < least.openContexts)) {
+                        least = browser;
+                    }
+                }
+                if (least != null) {
+                    least.openContexts++;
+                    least.markLeased();
+                    return least;
+                }
+                if (size.get() < getMaxSize()) {
+                    return null;
+                }
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    throw new HtmlFetchException("Нет свободных браузеров, попробуйте позже");
+                }
+                // Ожидание ограничено, чтобы заметить браузер, закрытый или не запустившийся в другом потоке
+                contextClosed.awaitNanos(Math.min(remainingNanos, TimeUnit.MILLISECONDS.toNanos(100)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HtmlFetchException("Ожидание свободного браузера прервано");
+        } finally {
+            contextLock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет контекст запроса. Браузер, переставший отвечать, больше не получает новые контексты.
+     */
+    private void closeContext(BrowserContext context) {
+        PooledBrowser browser = context.getBrowser();
+        resourceBlocker.detach(context);
+        boolean broken = !context.close() && !browser.isAlive();
+        if (broken) {
+            logger.warn("Браузер #{} не отвечает, заменяем", browser.getId());
+        }
+        releaseContext(browser, broken ? RECYCLE_UNHEALTHY : null);
+    }
+
+    /**
+     * Освобождает место контекста. Браузер, который нужно заменить, больше не получает новые контексты
+     * и закрывается после своего последнего контекста.
+     */
+    private void releaseContext(PooledBrowser browser, String retireReason) {
+        boolean destroy;
+        contextLock.lock();
+        try {
+            browser.openContexts--;
+            String reason = retireReason != null ? retireReason : recycleReason(browser);
+            if (closed) {
+                browser.retired = true;
+            } else if (reason != null && !browser.retired) {
+                browser.retired = true;
+                recordRecycle(browser, reason);
+            }
+            destroy = browser.retired && browser.openContexts == 0 && shared.remove(browser);
+            contextClosed.signalAll();
+        } finally {
+            contextLock.unlock();
+        }
+        if (destroy) {
+            destroy(browser);
+            if (!closed) {
+                warmUpExecutor.submit(this::fillToMinSize);
+            }
+        }
+    }
+
+    /**
+     * Все запущенные браузеры
+     */
+    List<PooledBrowser> browsers() {
+        return List.copyOf(browsers);
+    }
+
+    /**
+     * Идентификаторы процессов ChromeDriver и Chrome всех запущенных браузеров
+     */
+    Set<Long> processIds() {
+        Set<Long> ids = new HashSet<>();
+        for (PooledBrowser browser : browsers) {
+            ProcessHandle driverProcess = browser.getDriverProcess();
+            if (driverProcess != null) {
+                BrowserProcesses.tree(driverProcess).forEach(process -> ids.add(process.pid()));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Запускается ли сейчас браузер: его процессы еще не связаны с браузером пула
+     */
+    boolean isStarting() {
+        return starting.get() > 0;
+    }
+
+    /**
+     * Забирает свободный браузер на время проверки, чтобы он не был выдан запросу.
+     * Возвращает false, если браузер занят или уже закрыт.
+     */
+    boolean checkOut(PooledBrowser browser) {
+        if (closed) {
+            return false;
+        }
+        if (contextsPerBrowser == 1) {
+            return idle.remove(browser);
+        }
+        contextLock.lock();
+        try {
+            if (browser.retired || browser.checking || browser.openContexts > 0 || !shared.contains(browser)) {
+                return false;
+            }
+            browser.checking = true;
+            return true;
+        } finally {
+            contextLock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает проверенный браузер к свободным или заменяет его, если он не ответил на проверку
+     * или должен быть заменен по числу загрузок или памяти
+     */
+    void checkIn(PooledBrowser browser, boolean healthy) {
+        String reason = healthy ? recycleReason(browser) : RECYCLE_UNHEALTHY;
+        if (contextsPerBrowser > 1) {
+            boolean removed = false;
+            contextLock.lock();
+            try {
+                browser.checking = false;
+                if (reason != null || closed) {
+                    browser.retired = true;
+                    removed = shared.remove(browser);
+                }
+                contextClosed.signalAll();
+            } finally {
+                contextLock.unlock();
+            }
+            if (!removed) {
+                return;
+            }
+        } else if (reason == null) {
+            idle.offerLast(browser);
+            // Пул мог закрыться во время проверки, тогда браузер закрывается здесь
+            if (!closed || !idle.remove(browser)) {
+                return;
+            }
+        }
+
+        if (closed) {
+            destroy(browser);
+        } else {
+            recycle(browser, reason);
+        }
+    }
+
+    private PooledBrowser takeIdleOrCreate(long deadline) throws HtmlFetchException {
+        while (true) {
+            PooledBrowser browser = idle.pollFirst();
+            if (browser != null) {
+                if (browser.isAlive()) {
+                    return browser;
+                }
+                logger.warn("Браузер #{} не отвечает, заменяем", browser.getId());
+                recycle(browser, RECYCLE_UNHEALTHY);
+                continue;
+            }
+
+            browser = tryCreate();
+            if (browser != null) {
+                return browser;
+            }
+
+            // Пул заполнен: один из браузеров сейчас возвращается, дожидаемся его
+            long remainingNanos = deadline - System.nanoTime();
+            try {
+                browser = remainingNanos > 0 ? idle.pollFirst(remainingNanos, TimeUnit.NANOSECONDS) : null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HtmlFetchException("Ожидание свободного браузера прервано");
+            }
+            if (browser == null) {
+                throw new HtmlFetchException("Нет свободных браузеров, попробуйте позже");
+            }
+            idle.offerFirst(browser);
+        }
+    }
+
+    /**
+     * Запускает новый браузер, если не превышен максимальный размер пула
+     */
+    private PooledBrowser tryCreate() {
+        if (size.incrementAndGet() > getMaxSize()) {
+            size.decrementAndGet();
+            return null;
+        }
+        long start = System.nanoTime();
+        starting.incrementAndGet();
+        try {
+            long id = nextId.incrementAndGet();
+            logger.info("Запускаем браузер #{} (в пуле: {})", id, size.get());
+            PooledBrowser browser = new PooledBrowser(id, browserFactory.create(), browserFactory.createConfig());
+            browsers.add(browser);
+            startupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            lastStartFailure = null;
+            return browser;
+        } catch (RuntimeException e) {
+            size.decrementAndGet();
+            lastStartFailure = e.getClass().getSimpleName() + ": " + e.getMessage();
+            throw e;
+        } finally {
+            starting.decrementAndGet();
+        }
+    }
+
+    private void fillToMinSize() {
+        while (!closed && size.get() < properties.getMinSize()) {
+            try {
+                PooledBrowser browser = tryCreate();
+                if (browser == null) {
+                    return;
+                }
+                addWarm(browser);
+            } catch (Exception e) {
+                logger.warn("Не удалось прогреть браузер для пула", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Добавляет заранее запущенный браузер к свободным
+     */
+    private void addWarm(PooledBrowser browser) {
+        if (contextsPerBrowser == 1) {
+            idle.offerLast(browser);
+            return;
+        }
+        contextLock.lock();
+        try {
+            shared.add(browser);
+            contextClosed.signalAll();
+        } finally {
+            contextLock.unlock();
+        }
+    }
+
+    /**
+     * Очищает куки, хранилища и лишние вкладки перед повторной выдачей браузера
+     */
+    private boolean resetState(PooledBrowser browser) {
+        try {
+            WebDriver driver = browser.getWebDriver();
+
+            // Закрываем все вкладки, кроме основной
+            for (String handle : driver.getWindowHandles()) {
+                if (!handle.equals(browser.getPrimaryWindowHandle())) {
+                    driver.switchTo().window(handle);
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(browser.getPrimaryWindowHandle());
+
+            if (driver instanceof ChromiumDriver chromiumDriver) {
+                // Скрипты, внедренные на время запроса, не должны выполняться на страницах следующих запросов
+                for (String identifier : browser.drainInitScripts()) {
+                    chromiumDriver.executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument", Map.of("identifier", identifier));
+                }
+                // Куки удаляем для всех доменов сразу, а не только для текущей страницы
+                chromiumDriver.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+                // Хранилища, IndexedDB, Cache Storage и service workers очищаются для каждого источника,
+                // открытого за время выдачи: главной страницы, редиректов и фреймов
+                Set<String> origins = resourceBlocker.visitedOrigins(browser);
+                String currentOrigin = extractOrigin(driver.getCurrentUrl());
+                if (currentOrigin != null) {
+                    origins.add(currentOrigin);
+                }
+                for (String origin : origins) {
+                    chromiumDriver.executeCdpCommand("Storage.clearDataForOrigin",
+                            Map.of("origin", origin, "storageTypes", "all"));
+                }
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(
+                        "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            }
+
+            driver.get("about:blank");
+            resourceBlocker.reset(browser);
+            return true;
+        } catch (Exception e) {
+            logger.warn("Не удалось очистить состояние браузера #{}, он будет закрыт", browser.getId(), e);
+            return false;
+        }
+    }
+
+    private void destroy(PooledBrowser browser) {
+        destroy(browser, false);
+    }
+
+    /**
+     * Закрывает браузер и завершает его процессы, оставшиеся после закрытия.
+     * Процессы зависшего браузера завершаются сразу: он может не ответить и на команду закрытия.
+     */
+    private void destroy(PooledBrowser browser, boolean hung) {
+        size.decrementAndGet();
+        browsers.remove(browser);
+        // Процессы собираются заранее: после завершения ChromeDriver связь с его потомками теряется
+        ProcessHandle driverProcess = browser.getDriverProcess();
+        List<ProcessHandle> processes = driverProcess != null ? BrowserProcesses.tree(driverProcess) : List.of();
+        if (hung) {
+            BrowserProcesses.kill(processes, 0);
+        }
+        try {
+            resourceBlocker.detach(browser);
+            browser.closeCdp();
+            browser.getWebDriver().quit();
+            logger.info("Браузер #{} закрыт (в пуле: {})", browser.getId(), size.get());
+        } catch (Exception e) {
+            logger.warn("Ошибка при закрытии браузера #{}", browser.getId(), e);
+        }
+        int killed = BrowserProcesses.kill(processes, QUIT_GRACE_MS);
+        if (killed > 0) {
+            logger.warn("После закрытия браузера #{} принудительно завершено процессов: {}", browser.getId(), killed);
+        }
+    }
+
+    /**
+     * Причина, по которой браузер нужно заменить вместо возврата в пул, или null
+     */
+    private String recycleReason(PooledBrowser browser) {
+        if (!lifecycle.isEnabled()) {
+            return null;
+        }
+        if (browser.getRecycleReason() != null) {
+            return browser.getRecycleReason();
+        }
+        if (lifecycle.getMaxPageLoads() > 0 && browser.getLeaseCount() >= lifecycle.getMaxPageLoads()) {
+            return RECYCLE_PAGE_LOADS;
+        }
+        return null;
+    }
+
+    /**
+     * Закрывает браузер, который нужно заменить, и запускает замену в фоне
+     */
+    private void recycle(PooledBrowser browser, String reason) {
+        recordRecycle(browser, reason);
+        destroy(browser, RECYCLE_UNHEALTHY.equals(reason));
+        if (!closed) {
+            warmUpExecutor.submit(this::fillToMinSize);
+        }
+    }
+
+    private void recordRecycle(PooledBrowser browser, String reason) {
+        logger.info("Браузер #{} заменяется ({}), загрузок страниц: {}", browser.getId(), reason, browser.getLeaseCount());
+        Counter.builder("parser.browser.recycled")
+                .description("Браузеры, замененные новыми")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    static String extractOrigin(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() == null || uri.getHost() == null || !uri.getScheme().startsWith("http")) {
+                return null;
+            }
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : "");
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package tech.kirouski.parser.browser;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Состояние пула браузеров для /actuator/health и /api/health.
+ * Пул недоступен, если он закрыт или в нем нет ни одного браузера, а последний запуск завершился ошибкой.
+ */
+@Component
+public class BrowserPoolHealthIndicator implements HealthIndicator {
+
+    private final BrowserPool browserPool;
+
+    @Autowired
+    public BrowserPoolHealthIndicator(BrowserPool browserPool) {
+        this.browserPool = browserPool;
+    }
+
+    @Override
+    public Health health() {
+        String lastStartFailure = browserPool.getLastStartFailure();
+        Health.Builder builder;
+        if (browserPool.isClosed()) {
+            builder = Health.down().withDetail("reason", "Пул браузеров закрыт");
+        } else if (browserPool.getSize() == 0 && lastStartFailure != null) {
+            builder = Health.down().withDetail("reason", "Не удается запустить браузер");
+        } else {
+            builder = Health.up();
+        }
+        builder.withDetail("size", browserPool.getSize())
+                .withDetail("idle", browserPool.getIdleCount())
+                .withDetail("active", browserPool.getActiveCount())
+                .withDetail("max", browserPool.getMaxSize());
+        if (browserPool.getContextsPerBrowser() > 1) {
+            builder.withDetail("contexts", browserPool.getOpenContexts())
+                    .withDetail("contextsPerBrowser", browserPool.getContextsPerBrowser());
+        }
+        if (lastStartFailure != null) {
+            builder.withDetail("lastStartFailure", lastStartFailure);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,128 @@
+package tech.kirouski.parser.browser;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Процессы ChromeDriver и Chrome, запущенные сервисом: поиск процесса драйвера, занятая память
+ * и принудительное завершение вместе с потомками
+ */
+final class BrowserProcesses {
+
+    private BrowserProcesses() {
+    }
+
+    /**
+     * Процесс ChromeDriver, с которым работает драйвер: дочерний процесс JVM, запущенный с портом драйвера.
+     * Возвращает null, если процесс найти не удалось.
+     */
+    static ProcessHandle driverProcess(WebDriver webDriver) {
+        if (!(webDriver instanceof RemoteWebDriver remote)
+                || !(remote.getCommandExecutor() instanceof HttpCommandExecutor executor)) {
+            return null;
+        }
+        String portArgument = "--port=" + executor.getAddressOfRemoteServer().getPort();
+        return ProcessHandle.current().children()
+                .filter(process -> process.info().arguments()
+                        .map(arguments -> Arrays.asList(arguments).contains(portArgument))
+                        .orElse(false))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Процесс ChromeDriver или Chrome (включая вспомогательные процессы Chrome)
+     */
+    static boolean isBrowserProcess(ProcessHandle process) {
+        return process.info().command()
+                .map(command -> {
+                    Path name = Path.of(command).getFileName();
+                    return name != null && (name.toString().contains("chrome") || name.toString().contains("chromium"));
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Процесс и все его потомки. Потомков нужно собрать до завершения процесса, иначе связь с ними теряется.
+     */
+    static List<ProcessHandle> tree(ProcessHandle root) {
+        List<ProcessHandle> tree = new ArrayList<>();
+        tree.add(root);
+        root.descendants().forEach(tree::add);
+        return tree;
+    }
+
+    /**
+     * Память процесса и его потомков, байт: сумма PSS, в которой общие страницы делятся между процессами,
+     * использующими их. Без smaps_rollup (ядро старше 4.14) берется RSS, где общие страницы учитываются
+     * в каждом процессе. Возвращает -1, если память процессов недоступна (не Linux или процесс уже завершился).
+     */
+    static long memoryBytes(ProcessHandle root) {
+        long total = memory(root.pid());
+        if (total < 0) {
+            return -1;
+        }
+        for (ProcessHandle process : root.descendants().toList()) {
+            // Потомок мог завершиться после получения списка
+            total += Math.max(0, memory(process.pid()));
+        }
+        return total;
+    }
+
+    /**
+     * Дает процессам graceMs на завершение и принудительно завершает те, что еще работают.
+     * Возвращает количество завершенных принудительно процессов.
+     */
+    static int kill(List<ProcessHandle> processes, long graceMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(graceMs);
+        int killed = 0;
+        for (ProcessHandle process : processes) {
+            long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos > 0 && process.isAlive()) {
+                try {
+                    process.onExit().get(remainingNanos, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException | TimeoutException e) {
+                    // Процесс не завершился сам, завершаем принудительно
+                }
+            }
+            if (process.isAlive() && process.destroyForcibly()) {
+                killed++;
+            }
+        }
+        return killed;
+    }
+
+    private static long memory(long pid) {
+        long pss = procValue(Path.of("/proc", String.valueOf(pid), "smaps_rollup"), "Pss:");
+        return pss >= 0 ? pss : procValue(Path.of("/proc", String.valueOf(pid), "status"), "VmRSS:");
+    }
+
+    /**
+     * Значение в кБ из файла /proc, байт. Возвращает -1, если файл недоступен.
+     */
+    private static long procValue(Path file, String prefix) {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.filter(line -> line.startsWith(prefix))
+                    .findFirst()
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")) * 1024)
+                    .orElse(0L);
+        } catch (IOException | UncheckedIOException | NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package tech.kirouski.parser.browser;
+
+import java.util.Map;
+
+/**
+ * Вкладка, в которой загружается страница одного запроса: отдельный браузер из пула
+ * или изолированный контекст внутри общего процесса Chrome
+ */
+public interface BrowserTab {
+
+    /**
+     * Название вкладки для логов
+     */
+    String getName();
+
+    /**
+     * Открывает URL и ждет загрузки документа
+     */
+    void open(String url);
+
+    /**
+     * Выполняет скрипт в странице. Аргументы доступны в скрипте как arguments, результат возвращается через return.
+     */
+    Object executeScript(String script, Object... args);
+
+    /**
+     * Выполняет асинхронный скрипт: результат передается в функцию, переданную последним аргументом
+     */
+    Object executeAsyncScript(String script, long timeoutMs, Object... args);
+
+    /**
+     * Выполняет команду CDP для страницы вкладки
+     */
+    Map<String, Object> executeCdpCommand(String method, Map<String, Object> params);
+
+    /**
+     * Идентификатор вкладки в CDP (targetId), по которому к ней можно подключиться отдельным соединением
+     */
+    String getTargetId();
+
+    /**
+     * Исходный код текущей страницы
+     */
+    String getPageSource();
+
+    /**
+     * Запоминает скрипт, добавленный через Page.addScriptToEvaluateOnNewDocument, чтобы удалить его после запроса
+     */
+    void addInitScript(String identifier);
+}
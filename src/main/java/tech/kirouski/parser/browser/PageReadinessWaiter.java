@@ -0,0 +1,189 @@
+package tech.kirouski.parser.browser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Определяет, что страница "успокоилась": документ загружен, нет активных fetch/XHR
+ * и DOM не меняется заданное время, а также ждет появления контактов на странице. Ожидание выполняется
+ * внутри страницы одним асинхронным скриптом (MutationObserver + счетчик сетевых запросов), без опроса через WebDriver.
+ */
+@Component
+public class PageReadinessWaiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageReadinessWaiter.class);
+
+    /**
+     * Сколько DOM и сеть должны быть неактивны, чтобы страница считалась готовой, мс
+     */
+    public static final long DEFAULT_QUIET_MS = 300;
+
+    /**
+     * Счетчик активных fetch/XHR. Внедряется через CDP до выполнения скриптов страницы.
+     */
+    private static final String NETWORK_TRACKER = """
+            (() => {
+                if (window.__parserNetwork) return;
+                const net = window.__parserNetwork = {inflight: 0, lastActivity: Date.now()};
+                const begin = () => { net.inflight++; net.lastActivity = Date.now(); };
+                const end = () => { net.inflight = Math.max(0, net.inflight - 1); net.lastActivity = Date.now(); };
+                const originalFetch = window.fetch;
+                if (originalFetch) {
+                    window.fetch = function() {
+                        begin();
+                        return originalFetch.apply(this, arguments).finally(end);
+                    };
+                }
+                const originalSend = XMLHttpRequest.prototype.send;
+                XMLHttpRequest.prototype.send = function() {
+                    begin();
+                    this.addEventListener('loadend', end, {once: true});
+                    return originalSend.apply(this, arguments);
+                };
+            })();
+            """;
+
+    /**
+     * Ожидание готовности внутри страницы. Запросы без активности дольше longPollMs
+     * считаются long-polling соединениями и не мешают готовности.
+     */
+    private static final String AWAIT_SETTLED = """
+            const done = arguments[arguments.length - 1];
+            const maxWait = arguments[0], quiet = arguments[1], longPoll = arguments[2];
+            const start = Date.now();
+            let lastMutation = start;
+            const observer = new MutationObserver(() => { lastMutation = Date.now(); });
+            observer.observe(document.documentElement || document,
+                {childList: true, subtree: true, attributes: true, characterData: true});
+            const net = window.__parserNetwork;
+            const check = () => {
+                const now = Date.now();
+                const lastNetwork = net ? net.lastActivity : 0;
+                const networkIdle = !net || net.inflight === 0 || now - lastNetwork >= longPoll;
+                const quietFor = now - Math.max(lastMutation, lastNetwork);
+                const settled = document.readyState === 'complete' && networkIdle && quietFor >= quiet;
+                if (settled || now - start >= maxWait) {
+                    observer.disconnect();
+                    done({settled: settled, elapsed: now - start, inflight: net ? net.inflight : -1});
+                    return;
+                }
+                setTimeout(check, Math.min(50, quiet));
+            };
+            check();
+            """;
+
+    /**
+     * Ожидание контактов внутри страницы: элементов с контактами или текста, похожего на телефон, адрес или email.
+     * Страница проверяется сразу и после изменений DOM (не чаще раза в 100 мс), ответ приходит, как только контакты
+     * появились, или по истечении maxWait. Ошибка проверки считается найденными контактами.
+     */
+    private static final String AWAIT_CONTACTS = """
+            const done = arguments[arguments.length - 1];
+            const maxWait = arguments[0];
+            const start = Date.now();
+            const selector = '[class*="phone"], [class*="tel"], [class*="contact"], '
+                + '[class*="address"], [class*="адрес"], [class*="location"], '
+                + '[href^="tel:"], [href^="mailto:"], '
+                + '[itemprop="telephone"], [itemprop="address"], [itemprop="email"]';
+            const phone = /(\\+?375|\\+?7|8)?\\s?[-()]?\\s?\\d{2,3}\\s?[-()]?\\s?\\d{3}[-()]?\\s?\\d{2}[-()]?\\s?\\d{2}/;
+            const simplePhone = /\\d{3}[-.\\s]?\\d{3}[-.\\s]?\\d{4}/;
+            const address = /(улица|ул\\.|street|st\\.|проспект|пр\\.|avenue|av\\.|адрес|address)/;
+            // Для проверки наличия email достаточно одного символа локальной части перед '@'
+            const email = /[a-zA-Z0-9._%+-]@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}/;
+            const hasContacts = () => {
+                try {
+                    if (document.querySelector(selector)) return true;
+                    const text = document.body ? document.body.innerText || '' : '';
+                    return phone.test(text) || simplePhone.test(text) || address.test(text.toLowerCase()) || email.test(text);
+                } catch (e) {
+                    return true;
+                }
+            };
+            if (hasContacts()) {
+                done({found: true, elapsed: Date.now() - start});
+                return;
+            }
+            let finished = false, pending = null, timer = null;
+            const observer = new MutationObserver(() => {
+                if (pending === null) {
+                    pending = setTimeout(() => { pending = null; if (hasContacts()) finish(true); }, 100);
+                }
+            });
+            const finish = found => {
+                if (finished) return;
+                finished = true;
+                observer.disconnect();
+                clearTimeout(pending);
+                clearTimeout(timer);
+                done({found: found, elapsed: Date.now() - start});
+            };
+            observer.observe(document.documentElement || document, {childList: true, subtree: true, characterData: true});
+            timer = setTimeout(() => finish(hasContacts()), maxWait);
+            """;
+
+    private static final long LONG_POLL_MS = 2000;
+
+    /**
+     * Внедряет счетчик сетевых запросов во все страницы, которые браузер откроет до возврата в пул
+     */
+    public void install(BrowserTab tab) {
+        try {
+            Map<String, Object> result = tab.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument",
+                    Map.of("source", NETWORK_TRACKER));
+            tab.addInitScript((String) result.get("identifier"));
+        } catch (Exception e) {
+            logger.debug("Не удалось внедрить счетчик сетевых запросов, готовность определяется только по DOM", e);
+        }
+    }
+
+    /**
+     * Ждет готовности страницы не дольше maxWaitMs
+     */
+    public Readiness awaitSettled(BrowserTab tab, long maxWaitMs, long quietMs) {
+        long start = System.currentTimeMillis();
+        boolean settled = false;
+        try {
+            Object result = tab.executeAsyncScript(AWAIT_SETTLED, maxWaitMs + 5000, maxWaitMs, quietMs, LONG_POLL_MS);
+            if (result instanceof Map<?, ?> state) {
+                settled = Boolean.TRUE.equals(state.get("settled"));
+                if (!settled) {
+                    logger.debug("Страница не успокоилась за {} мс (активных запросов: {}), продолжаем", maxWaitMs, state.get("inflight"));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Ошибка ожидания готовности страницы, продолжаем", e);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        logger.debug("Ожидание готовности страницы: {} мс (макс. {} мс)", elapsed, maxWaitMs);
+        return new Readiness(settled, elapsed);
+    }
+
+    /**
+     * Ждет появления контактной информации на странице не дольше maxWaitMs. В результате settled — найдены ли контакты.
+     */
+    public Readiness awaitContacts(BrowserTab tab, long maxWaitMs) {
+        long start = System.currentTimeMillis();
+        boolean found = true;
+        try {
+            Object result = tab.executeAsyncScript(AWAIT_CONTACTS, maxWaitMs + 5000, maxWaitMs);
+            if (result instanceof Map<?, ?> state) {
+                found = Boolean.TRUE.equals(state.get("found"));
+                if (!found) {
+                    logger.debug("Контактная информация не появилась за {} мс, продолжаем", maxWaitMs);
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Ошибка ожидания контактной информации, продолжаем", e);
+        }
+        return new Readiness(found, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Результат ожидания: дождались ли готовности и сколько ждали, мс
+     */
+    public record Readiness(boolean settled, long elapsedMs) {
+    }
+}
@@ -0,0 +1,247 @@
+package tech.kirouski.parser.browser;
+
+import com.codeborne.selenide.SelenideConfig;
+import com.codeborne.selenide.SelenideDriver;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.SeleniumCdpConnection;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Браузер, находящийся под управлением пула
+ */
+public class PooledBrowser implements BrowserTab {
+    private static final Duration TARGETS_TIMEOUT = Duration.ofSeconds(10);
+
+    private final long id;
+    private final WebDriver webDriver;
+    private final SelenideDriver selenideDriver;
+    private final String primaryWindowHandle;
+    private final long createdAt;
+    /**
+     * Процесс ChromeDriver браузера (null, если его не удалось найти)
+     */
+    private final ProcessHandle driverProcess;
+    private int leaseCount;
+    /**
+     * Причина, по которой браузер нужно заменить при ближайшей возможности
+     */
+    private volatile String recycleReason;
+    private final List<String> initScripts = new ArrayList<>();
+    /**
+     * Источники (origin) документов, открытых за время выдачи, включая редиректы и фреймы
+     */
+    private final Set<String> visitedOrigins = new LinkedHashSet<>();
+    /**
+     * Соединение с браузером по CDP для работы с контекстами, открывается при первом контексте
+     */
+    private Connection cdpConnection;
+    /**
+     * Идентификатор основной вкладки в CDP, определяется при первом запросе
+     */
+    private String targetId;
+    /**
+     * Открытые контексты, когда браузер обслуживает несколько запросов сразу (под блокировкой пула)
+     */
+    int openContexts;
+    /**
+     * Браузер больше не выдается запросам и закрывается после закрытия последнего контекста
+     */
+    boolean retired;
+    /**
+     * Свободный браузер проверяется и не выдается запросам (под блокировкой пула)
+     */
+    boolean checking;
+
+    PooledBrowser(long id, WebDriver webDriver, SelenideConfig config) {
+        this.id = id;
+        this.webDriver = webDriver;
+        this.selenideDriver = new SelenideDriver(config, webDriver, null);
+        this.primaryWindowHandle = webDriver.getWindowHandle();
+        this.createdAt = System.currentTimeMillis();
+        this.driverProcess = BrowserProcesses.driverProcess(webDriver);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String getName() {
+        return "браузер #" + id;
+    }
+
+    @Override
+    public void open(String url) {
+        selenideDriver.open(url);
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        return ((JavascriptExecutor) webDriver).executeScript(script, args);
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, long timeoutMs, Object... args) {
+        webDriver.manage().timeouts().scriptTimeout(Duration.ofMillis(timeoutMs));
+        return ((JavascriptExecutor) webDriver).executeAsyncScript(script, args);
+    }
+
+    @Override
+    public Map<String, Object> executeCdpCommand(String method, Map<String, Object> params) {
+        if (!(webDriver instanceof ChromiumDriver driver)) {
+            throw new UnsupportedOperationException("Браузер не поддерживает команды CDP");
+        }
+        return driver.executeCdpCommand(method, params);
+    }
+
+    /**
+     * Вкладка основного окна среди вкладок браузера. ChromeDriver использует targetId как дескриптор окна;
+     * если совпадения нет, берется единственная вкладка браузера.
+     */
+    @Override
+    public synchronized String getTargetId() {
+        if (targetId == null) {
+            Map<String, Object> result = cdp().sendAndWait(null,
+                    new Command<>("Target.getTargets", Map.of(), Map.class), TARGETS_TIMEOUT);
+            List<String> pages = new ArrayList<>();
+            if (result != null && result.get("targetInfos") instanceof List<?> targets) {
+                for (Object target : targets) {
+                    if (target instanceof Map<?, ?> info && "page".equals(info.get("type"))) {
+                        pages.add(String.valueOf(info.get("targetId")));
+                    }
+                }
+            }
+            if (pages.contains(primaryWindowHandle)) {
+                targetId = primaryWindowHandle;
+            } else if (pages.size() == 1) {
+                targetId = pages.get(0);
+            } else {
+                throw new IllegalStateException("Не удалось определить вкладку основного окна браузера #" + id);
+            }
+        }
+        return targetId;
+    }
+
+    @Override
+    public String getPageSource() {
+        return webDriver.getPageSource();
+    }
+
+    public WebDriver getWebDriver() {
+        return webDriver;
+    }
+
+    /**
+     * Selenide-обертка над браузером, не зависящая от потока и глобальной конфигурации
+     */
+    public SelenideDriver getSelenideDriver() {
+        return selenideDriver;
+    }
+
+    public String getPrimaryWindowHandle() {
+        return primaryWindowHandle;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getLeaseCount() {
+        return leaseCount;
+    }
+
+    ProcessHandle getDriverProcess() {
+        return driverProcess;
+    }
+
+    String getRecycleReason() {
+        return recycleReason;
+    }
+
+    /**
+     * Помечает браузер для замены: он закроется при возврате в пул или при проверке свободных браузеров
+     */
+    void requestRecycle(String reason) {
+        if (recycleReason == null) {
+            recycleReason = reason;
+        }
+    }
+
+    /**
+     * Запоминает скрипт, добавленный через Page.addScriptToEvaluateOnNewDocument, чтобы удалить его при возврате в пул
+     */
+    @Override
+    public void addInitScript(String identifier) {
+        if (identifier != null) {
+            initScripts.add(identifier);
+        }
+    }
+
+    List<String> drainInitScripts() {
+        List<String> scripts = new ArrayList<>(initScripts);
+        initScripts.clear();
+        return scripts;
+    }
+
+    /**
+     * Запоминает источник открытого документа, чтобы очистить его хранилища при возврате в пул
+     */
+    synchronized void addVisitedOrigin(String origin) {
+        if (origin != null) {
+            visitedOrigins.add(origin);
+        }
+    }
+
+    synchronized Set<String> drainVisitedOrigins() {
+        Set<String> origins = new LinkedHashSet<>(visitedOrigins);
+        visitedOrigins.clear();
+        return origins;
+    }
+
+    void markLeased() {
+        leaseCount++;
+    }
+
+    /**
+     * Соединение CDP на уровне браузера: через него создаются контексты и выполняются команды их вкладок
+     */
+    synchronized Connection cdp() {
+        if (cdpConnection == null) {
+            cdpConnection = SeleniumCdpConnection.create(webDriver)
+                    .orElseThrow(() -> new IllegalStateException("Браузер не поддерживает подключение по CDP"));
+        }
+        return cdpConnection;
+    }
+
+    /**
+     * Закрывает соединение CDP перед остановкой браузера
+     */
+    synchronized void closeCdp() {
+        if (cdpConnection != null) {
+            cdpConnection.close();
+            cdpConnection = null;
+        }
+    }
+
+    /**
+     * Проверяет, что браузер еще отвечает на команды
+     */
+    boolean isAlive() {
+        try {
+            webDriver.getWindowHandles();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package tech.kirouski.parser.browser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.config.BlockingProperties;
+import tech.kirouski.parser.dto.NetworkStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Блокирует загрузку ненужных для разбора ресурсов через CDP: типы ресурсов отклоняются перехватом запросов
+ * (Fetch.requestPaused), адреса счетчиков — через Network.setBlockedURLs. Собирает сетевую статистику страницы
+ * из performance-лога ChromeDriver и запоминает по нему источники открытых документов для очистки при возврате в пул.
+ */
+@Component
+public class ResourceBlocker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceBlocker.class);
+
+    /**
+     * Типы ресурсов профиля и соответствующие им типы CDP. Document среди них нет:
+     * сама страница не блокируется никаким профилем.
+     */
+    private static final Map<String, String> RESOURCE_TYPES = Map.of(
+            "image", "Image",
+            "media", "Media",
+            "font", "Font",
+            "stylesheet", "Stylesheet"
+    );
+
+    /**
+     * Документ и загруженные им ресурсы по Resource Timing API
+     */
+    private static final String RESOURCE_TIMING = """
+            const entries = performance.getEntriesByType('navigation').concat(performance.getEntriesByType('resource'));
+            return {
+                requests: entries.length,
+                transferredBytes: entries.reduce((sum, entry) => sum + (entry.transferSize || 0), 0)
+            };
+            """;
+
+    private final BlockingProperties properties;
+    private final ObjectMapper objectMapper;
+    /**
+     * Перехват запросов по типу ресурса для вкладок, выданных запросам
+     */
+    private final Map<BrowserTab, ResourceInterceptor> interceptors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ResourceBlocker(BlockingProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Имя профиля, который будет применен для запрошенного (профиль по умолчанию, если он не указан)
+     */
+    public String profileName(String requestedProfile) {
+        return requestedProfile != null && !requestedProfile.isBlank()
+                ? requestedProfile.toLowerCase(Locale.ROOT)
+                : properties.getDefaultProfile();
+    }
+
+    /**
+     * Включает профиль блокировки для вкладки перед открытием pageUrls. Шаблоны URL, под которые попадает
+     * сама страница, не применяются. Возвращает имя примененного профиля.
+     */
+    public String apply(BrowserTab tab, String requestedProfile, String... pageUrls) {
+        String profileName = profileName(requestedProfile);
+        if (tab instanceof PooledBrowser browser) {
+            if (!(browser.getWebDriver() instanceof ChromiumDriver driver)) {
+                return null;
+            }
+            // Сбрасываем записи лога, оставшиеся от предыдущего использования браузера
+            drainLog(browser, driver);
+        }
+
+        BlockingProperties.Profile profile = properties.getProfiles().get(profileName);
+        if (profile == null) {
+            if (!"none".equals(profileName)) {
+                logger.warn("Профиль блокировки {} не найден, ресурсы не блокируются", profileName);
+            }
+            return "none";
+        }
+
+        List<String> patterns = new ArrayList<>();
+        for (String pattern : profile.getUrlPatterns()) {
+            if (Arrays.stream(pageUrls).noneMatch(url -> url != null && matches(url, pattern))) {
+                patterns.add(pattern);
+            }
+        }
+        List<String> resourceTypes = new ArrayList<>();
+        for (String type : profile.getResourceTypes()) {
+            String cdpType = RESOURCE_TYPES.get(type.toLowerCase(Locale.ROOT));
+            if (cdpType != null) {
+                resourceTypes.add(cdpType);
+            }
+        }
+        try {
+            tab.executeCdpCommand("Network.enable", Map.of());
+            tab.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+            if (!resourceTypes.isEmpty()) {
+                PooledBrowser browser = tab instanceof BrowserContext context ? context.getBrowser() : (PooledBrowser) tab;
+                ResourceInterceptor previous = interceptors.put(tab,
+                        ResourceInterceptor.start(browser, tab.getTargetId(), resourceTypes));
+                if (previous != null) {
+                    previous.close();
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Не удалось включить блокировку ресурсов", e);
+            detach(tab);
+            return "none";
+        }
+        return profileName;
+    }
+
+    /**
+     * Снимает блокировку, чтобы она не действовала на следующий запрос
+     */
+    public void reset(PooledBrowser browser) {
+        detach(browser);
+        if (browser.getWebDriver() instanceof ChromiumDriver driver) {
+            driver.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", List.of()));
+            drainLog(browser, driver);
+        }
+    }
+
+    /**
+     * Источники документов, открытых в браузере с прошлого вызова: страниц, редиректов и фреймов.
+     * Записи performance-лога при этом вычитываются.
+     */
+    Set<String> visitedOrigins(PooledBrowser browser) {
+        if (browser.getWebDriver() instanceof ChromiumDriver driver) {
+            drainLog(browser, driver);
+        }
+        return browser.drainVisitedOrigins();
+    }
+
+    /**
+     * Отключает перехват запросов вкладки: вызывается при закрытии контекста или браузера
+     */
+    public void detach(BrowserTab tab) {
+        ResourceInterceptor interceptor = interceptors.remove(tab);
+        if (interceptor != null) {
+            try {
+                interceptor.close();
+            } catch (Exception e) {
+                logger.debug("Не удалось закрыть перехват запросов {}", tab.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Подсчитывает запросы страницы, заблокированные запросы и переданный объем по событиям Network.*.
+     * Для контекста общего браузера performance-лог драйвера недоступен, статистика берется из Resource Timing страницы,
+     * а заблокированными считаются только запросы, отклоненные по типу ресурса.
+     */
+    public NetworkStats collectStats(BrowserTab tab, String profileName) {
+        NetworkStats stats = new NetworkStats();
+        stats.setBlockingProfile(profileName);
+        ResourceInterceptor interceptor = interceptors.get(tab);
+        if (interceptor != null) {
+            stats.setBlockedRequests(interceptor.getBlocked());
+        }
+        if (tab instanceof BrowserContext context) {
+            collectResourceTiming(context, stats);
+            return stats;
+        }
+        if (!(tab instanceof PooledBrowser browser) || !(browser.getWebDriver() instanceof ChromiumDriver driver)) {
+            return stats;
+        }
+        try {
+            for (LogEntry entry : driver.manage().logs().get(LogType.PERFORMANCE)) {
+                JsonNode message = objectMapper.readTree(entry.getMessage()).path("message");
+                String method = message.path("method").asText();
+                JsonNode params = message.path("params");
+                switch (method) {
+                    case "Network.requestWillBeSent" -> {
+                        stats.setRequests(stats.getRequests() + 1);
+                        recordDocument(browser, params);
+                    }
+                    case "Network.loadingFinished" ->
+                            stats.setTransferredBytes(stats.getTransferredBytes() + params.path("encodedDataLength").asLong());
+                    case "Network.loadingFailed" -> {
+                        // Запросы, отклоненные перехватом, уже посчитаны им
+                        if ("inspector".equals(params.path("blockedReason").asText())) {
+                            stats.setBlockedRequests(stats.getBlockedRequests() + 1);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Не удалось прочитать performance-лог браузера", e);
+        }
+        return stats;
+    }
+
+    /**
+     * Запросы и переданный объем по записям Resource Timing. Заблокированные запросы в них не попадают.
+     */
+    private void collectResourceTiming(BrowserContext context, NetworkStats stats) {
+        try {
+            Object value = context.executeScript(RESOURCE_TIMING);
+            if (value instanceof Map<?, ?> timing) {
+                stats.setRequests(timing.get("requests") instanceof Number n ? n.intValue() : 0);
+                stats.setTransferredBytes(timing.get("transferredBytes") instanceof Number n ? n.longValue() : 0);
+            }
+        } catch (Exception e) {
+            logger.debug("Не удалось получить сетевую статистику страницы в {}", context.getName(), e);
+        }
+    }
+
+    /**
+     * Совпадение URL с шаблоном так же, как в Network.setBlockedURLs: части шаблона между * ищутся
+     * в URL по порядку, начало и конец URL не привязаны
+     */
+    static boolean matches(String url, String pattern) {
+        int position = 0;
+        for (String part : pattern.split("\\*", -1)) {
+            int found = url.indexOf(part, position);
+            if (found < 0) {
+                return false;
+            }
+            position = found + part.length();
+        }
+        return true;
+    }
+
+    private static void recordDocument(PooledBrowser browser, JsonNode params) {
+        if ("Document".equals(params.path("type").asText())) {
+            browser.addVisitedOrigin(BrowserPool.extractOrigin(params.path("request").path("url").asText()));
+        }
+    }
+
+    /**
+     * Вычитывает performance-лог, запоминая источники открытых в нем документов
+     */
+    private void drainLog(PooledBrowser browser, ChromiumDriver driver) {
+        try {
+            for (LogEntry entry : driver.manage().logs().get(LogType.PERFORMANCE)) {
+                // Разбираются только запросы документов, остальные записи пропускаются без разбора JSON
+                String message = entry.getMessage();
+                if (message.contains("Network.requestWillBeSent") && message.contains("\"Document\"")) {
+                    JsonNode params = objectMapper.readTree(message).path("message").path("params");
+                    recordDocument(browser, params);
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Performance-лог браузера недоступен", e);
+        }
+    }
+}
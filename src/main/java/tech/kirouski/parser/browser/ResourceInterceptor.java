@@ -0,0 +1,88 @@
+package tech.kirouski.parser.browser;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.devtools.CdpEndpointFinder;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.remote.http.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Перехват запросов вкладки по типу ресурса (Fetch.enable с resourceType): приостановленные запросы
+ * сразу отклоняются. События Fetch.requestPaused не доходят до executeCdpCommand драйвера, а общее
+ * соединение браузера не различает вкладки в событиях, поэтому к вкладке открывается отдельное соединение CDP.
+ */
+final class ResourceInterceptor implements AutoCloseable {
+
+    /**
+     * Время выполнения команд CDP, мс
+     */
+    private static final long COMMAND_TIMEOUT_MS = 10000;
+
+    private final Connection connection;
+    private final AtomicInteger blocked = new AtomicInteger();
+
+    private ResourceInterceptor(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Подключается к вкладке targetId браузера и начинает отклонять запросы ресурсов указанных типов CDP
+     * (Image, Media, Font, Stylesheet). Запрос документа страницы под перехват не попадает.
+     */
+    static ResourceInterceptor start(PooledBrowser browser, String targetId, List<String> resourceTypes) {
+        if (!(browser.getWebDriver() instanceof HasCapabilities driver)) {
+            throw new IllegalStateException("Браузер не поддерживает подключение по CDP");
+        }
+        URI browserEndpoint = CdpEndpointFinder.getReportedUri(driver.getCapabilities())
+                .orElseThrow(() -> new IllegalStateException("Браузер не сообщил адрес подключения по CDP"));
+        URI endpoint = browserEndpoint.resolve("/devtools/page/" + targetId);
+        Connection connection = new Connection(
+                CdpEndpointFinder.getHttpClient(HttpClient.Factory.createDefault(), endpoint), endpoint.toString());
+
+        ResourceInterceptor interceptor = new ResourceInterceptor(connection);
+        try {
+            connection.addListener(new Event<Map<String, Object>>("Fetch.requestPaused", input -> input.read(Map.class)),
+                    interceptor::reject);
+            List<Map<String, Object>> patterns = resourceTypes.stream()
+                    .map(type -> Map.<String, Object>of("urlPattern", "*", "resourceType", type, "requestStage", "Request"))
+                    .toList();
+            connection.sendAndWait(null, new Command<>("Fetch.enable", Map.of("patterns", patterns)),
+                    Duration.ofMillis(COMMAND_TIMEOUT_MS));
+            return interceptor;
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Количество отклоненных запросов
+     */
+    int getBlocked() {
+        return blocked.get();
+    }
+
+    /**
+     * Закрывает соединение: перехват снимается, приостановленные запросы продолжаются браузером
+     */
+    @Override
+    public void close() {
+        connection.close();
+    }
+
+    /**
+     * Отклоняет приостановленный запрос. Ответ не ожидается: обработчик вызывается в потоке событий соединения.
+     */
+    private void reject(Map<String, Object> event) {
+        blocked.incrementAndGet();
+        connection.send(null, new Command<>("Fetch.failRequest",
+                Map.of("requestId", event.get("requestId"), "errorReason", "BlockedByClient")));
+    }
+}
@@ -0,0 +1,163 @@
+package tech.kirouski.parser.browser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.config.SessionProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Хранилище сессий сайтов (куки и localStorage), полученных при предварительном открытии главной страницы.
+ * Пока сессия действительна, она переносится в браузер напрямую через CDP без лишней навигации.
+ */
+@Component
+public class SessionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStore.class);
+
+    /**
+     * Поля куки, которые принимает Network.setCookies
+     */
+    private static final List<String> COOKIE_FIELDS = List.of("name", "value", "domain", "path", "secure", "httpOnly", "sameSite");
+
+    private final SessionProperties properties;
+    private final Cache<String, OriginSession> sessions;
+
+    @Autowired
+    public SessionStore(SessionProperties properties) {
+        this.properties = properties;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxOrigins())
+                .expireAfterWrite(Duration.ofMillis(properties.getTtlMs()))
+                .build();
+    }
+
+    /**
+     * Переносит сохраненную сессию сайта в браузер. Возвращает false, если действующей сессии нет.
+     */
+    public boolean restore(BrowserTab tab, String origin) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        OriginSession session = sessions.getIfPresent(key(origin));
+        if (session == null) {
+            return false;
+        }
+
+        try {
+            if (!session.cookies().isEmpty()) {
+                tab.executeCdpCommand("Network.setCookies", Map.of("cookies", session.cookies()));
+            }
+            if (!session.localStorage().isEmpty()) {
+                // localStorage можно заполнить только на странице сайта, поэтому делаем это скриптом,
+                // который выполнится до скриптов самой страницы
+                String script = "if (location.origin === " + jsString(key(origin)) + ") { try { "
+                        + "const items = " + toJsObject(session.localStorage()) + "; "
+                        + "for (const key in items) { if (localStorage.getItem(key) === null) localStorage.setItem(key, items[key]); } "
+                        + "} catch (e) {} }";
+                Map<String, Object> result = tab.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", script));
+                tab.addInitScript((String) result.get("identifier"));
+            }
+            return true;
+        } catch (Exception e) {
+            logger.warn("Не удалось восстановить сессию для {}, будет выполнен прогрев", origin, e);
+            sessions.invalidate(key(origin));
+            return false;
+        }
+    }
+
+    /**
+     * Сохраняет текущие куки и localStorage браузера как сессию сайта
+     */
+    @SuppressWarnings("unchecked")
+    public void capture(BrowserTab tab, String origin) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            // После сброса состояния в пуле (или в новом контексте) все куки браузера относятся к текущему запросу
+            Map<String, Object> result = tab.executeCdpCommand("Network.getAllCookies", Map.of());
+            List<Map<String, Object>> cookies = new ArrayList<>();
+            for (Map<String, Object> cookie : (List<Map<String, Object>>) result.getOrDefault("cookies", List.of())) {
+                Map<String, Object> param = new HashMap<>();
+                for (String field : COOKIE_FIELDS) {
+                    if (cookie.get(field) != null) {
+                        param.put(field, cookie.get(field));
+                    }
+                }
+                if (!Boolean.TRUE.equals(cookie.get("session")) && cookie.get("expires") != null) {
+                    param.put("expires", cookie.get("expires"));
+                }
+                cookies.add(param);
+            }
+
+            Map<String, String> localStorage = new HashMap<>();
+            Object storage = tab.executeScript(
+                    "try { return Object.assign({}, window.localStorage); } catch (e) { return {}; }");
+            if (storage instanceof Map<?, ?> items) {
+                items.forEach((k, v) -> localStorage.put(String.valueOf(k), String.valueOf(v)));
+            }
+
+            sessions.put(key(origin), new OriginSession(cookies, localStorage));
+            logger.debug("Сессия для {} сохранена: куки={}, localStorage={}", origin, cookies.size(), localStorage.size());
+        } catch (Exception e) {
+            logger.warn("Не удалось сохранить сессию для {}", origin, e);
+        }
+    }
+
+    /**
+     * Удаляет сессию сайта, например после ответа 403
+     */
+    public void invalidate(String origin) {
+        sessions.invalidate(key(origin));
+    }
+
+    private String key(String origin) {
+        return origin.toLowerCase(Locale.ROOT);
+    }
+
+    private String toJsObject(Map<String, String> items) {
+        StringBuilder js = new StringBuilder("{");
+        for (Map.Entry<String, String> item : items.entrySet()) {
+            if (js.length() > 1) {
+                js.append(',');
+            }
+            js.append(jsString(item.getKey())).append(':').append(jsString(item.getValue()));
+        }
+        return js.append('}').toString();
+    }
+
+    private String jsString(String value) {
+        StringBuilder js = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> js.append("\\\"");
+                case '\\' -> js.append("\\\\");
+                case '\n' -> js.append("\\n");
+                case '\r' -> js.append("\\r");
+                case '<' -> js.append("\\u003c");
+                default -> {
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        js.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        js.append(c);
+                    }
+                }
+            }
+        }
+        return js.append('"').toString();
+    }
+
+    private record OriginSession(List<Map<String, Object>> cookies, Map<String, String> localStorage) {
+    }
+}
@@ -0,0 +1,149 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки допуска запросов к загрузке в браузере
+ */
+@ConfigurationProperties(prefix = "parser.admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+
+    /**
+     * Максимальное количество загрузок в браузере одновременно (0 — по максимальному размеру пула браузеров с учетом контекстов)
+     */
+    private int maxConcurrent = 0;
+
+    /**
+     * Максимальное количество запросов, ожидающих допуска. Остальные сразу получают отказ (429)
+     */
+    private int maxQueue = 16;
+
+    /**
+     * Время ожидания допуска по умолчанию, мс. По его истечении запрос получает отказ (503)
+     */
+    private long queueTimeoutMs = 10000;
+
+    /**
+     * Максимальное время ожидания допуска, которое можно запросить, мс
+     */
+    private long maxQueueTimeoutMs = 60000;
+
+    private Adaptive adaptive = new Adaptive();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    public void setMaxQueue(int maxQueue) {
+        this.maxQueue = maxQueue;
+    }
+
+    public long getQueueTimeoutMs() {
+        return queueTimeoutMs;
+    }
+
+    public void setQueueTimeoutMs(long queueTimeoutMs) {
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    public long getMaxQueueTimeoutMs() {
+        return maxQueueTimeoutMs;
+    }
+
+    public void setMaxQueueTimeoutMs(long maxQueueTimeoutMs) {
+        this.maxQueueTimeoutMs = maxQueueTimeoutMs;
+    }
+
+    public Adaptive getAdaptive() {
+        return adaptive;
+    }
+
+    public void setAdaptive(Adaptive adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * Подстройка лимита по задержке и свободной памяти (AIMD): лимит растет на единицу за каждые
+     * limit завершенных загрузок и уменьшается в backoffRatio раз, когда задержка или память говорят о перегрузке
+     */
+    public static class Adaptive {
+        private boolean enabled = false;
+
+        /**
+         * Нижняя граница лимита
+         */
+        private int minLimit = 1;
+
+        /**
+         * Во сколько раз недавняя задержка загрузки может превышать обычную, прежде чем лимит будет уменьшен
+         */
+        private double latencyTolerance = 2.0;
+
+        /**
+         * Множитель лимита при перегрузке
+         */
+        private double backoffRatio = 0.75;
+
+        /**
+         * Свободная память, ниже которой лимит уменьшается, МБ
+         */
+        private long minFreeMemoryMb = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public double getLatencyTolerance() {
+            return latencyTolerance;
+        }
+
+        public void setLatencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public long getMinFreeMemoryMb() {
+            return minFreeMemoryMb;
+        }
+
+        public void setMinFreeMemoryMb(long minFreeMemoryMb) {
+            this.minFreeMemoryMb = minFreeMemoryMb;
+        }
+    }
+}
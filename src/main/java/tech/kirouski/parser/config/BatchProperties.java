@@ -0,0 +1,53 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки пакетной загрузки нескольких URL
+ */
+@ConfigurationProperties(prefix = "parser.batch")
+public class BatchProperties {
+    /**
+     * Количество URL пакета, обрабатываемых одновременно (по умолчанию и максимум для запроса)
+     */
+    private int defaultParallelism = 4;
+    private int maxParallelism = 8;
+
+    /**
+     * Время на обработку всего пакета, мс
+     */
+    private long defaultDeadlineMs = 120000;
+    private long maxDeadlineMs = 600000;
+
+    public int getDefaultParallelism() {
+        return defaultParallelism;
+    }
+
+    public void setDefaultParallelism(int defaultParallelism) {
+        this.defaultParallelism = defaultParallelism;
+    }
+
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    public void setMaxParallelism(int maxParallelism) {
+        this.maxParallelism = maxParallelism;
+    }
+
+    public long getDefaultDeadlineMs() {
+        return defaultDeadlineMs;
+    }
+
+    public void setDefaultDeadlineMs(long defaultDeadlineMs) {
+        this.defaultDeadlineMs = defaultDeadlineMs;
+    }
+
+    public long getMaxDeadlineMs() {
+        return maxDeadlineMs;
+    }
+
+    public void setMaxDeadlineMs(long maxDeadlineMs) {
+        this.maxDeadlineMs = maxDeadlineMs;
+    }
+}
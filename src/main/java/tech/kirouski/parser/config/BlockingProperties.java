@@ -0,0 +1,68 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Настройки блокировки ресурсов страницы в браузере (картинки, шрифты, видео, счетчики)
+ */
+@ConfigurationProperties(prefix = "parser.blocking")
+public class BlockingProperties {
+    /**
+     * Профиль блокировки, если он не указан в запросе
+     */
+    private String defaultProfile = "none";
+
+    /**
+     * Профили блокировки по имени
+     */
+    private Map<String, Profile> profiles = new HashMap<>();
+
+    public String getDefaultProfile() {
+        return defaultProfile;
+    }
+
+    public void setDefaultProfile(String defaultProfile) {
+        this.defaultProfile = defaultProfile;
+    }
+
+    public Map<String, Profile> getProfiles() {
+        return profiles;
+    }
+
+    public void setProfiles(Map<String, Profile> profiles) {
+        this.profiles = profiles;
+    }
+
+    public static class Profile {
+        /**
+         * Блокируемые типы ресурсов: image, media, font, stylesheet
+         */
+        private List<String> resourceTypes = new ArrayList<>();
+
+        /**
+         * Блокируемые URL (шаблоны с *), например счетчики и рекламные сети
+         */
+        private List<String> urlPatterns = new ArrayList<>();
+
+        public List<String> getResourceTypes() {
+            return resourceTypes;
+        }
+
+        public void setResourceTypes(List<String> resourceTypes) {
+            this.resourceTypes = resourceTypes;
+        }
+
+        public List<String> getUrlPatterns() {
+            return urlPatterns;
+        }
+
+        public void setUrlPatterns(List<String> urlPatterns) {
+            this.urlPatterns = urlPatterns;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки замены браузеров и завершения потерянных процессов
+ */
+@ConfigurationProperties(prefix = "parser.browser-lifecycle")
+public class BrowserLifecycleProperties {
+    private boolean enabled = true;
+
+    /**
+     * После скольких загрузок страниц браузер заменяется новым (0 — без ограничения)
+     */
+    private int maxPageLoads = 200;
+
+    /**
+     * Память процессов браузера (PSS ChromeDriver и всех процессов Chrome), после превышения которой
+     * браузер заменяется новым, МБ (0 — без ограничения)
+     */
+    private long maxMemoryMb = 1024;
+
+    /**
+     * Период проверки памяти и работоспособности свободных браузеров, мс (0 — не проверять)
+     */
+    private long checkIntervalMs = 30000;
+
+    /**
+     * Время ответа браузера на проверку, после которого он считается зависшим и завершается, мс
+     */
+    private long healthCheckTimeoutMs = 5000;
+
+    /**
+     * Период поиска потерянных процессов ChromeDriver и Chrome, мс (0 — не искать)
+     */
+    private long reapIntervalMs = 60000;
+
+    /**
+     * Процессы моложе этого возраста не считаются потерянными: браузер может еще запускаться, мс
+     */
+    private long orphanMinAgeMs = 60000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxPageLoads() {
+        return maxPageLoads;
+    }
+
+    public void setMaxPageLoads(int maxPageLoads) {
+        this.maxPageLoads = maxPageLoads;
+    }
+
+    public long getMaxMemoryMb() {
+        return maxMemoryMb;
+    }
+
+    public void setMaxMemoryMb(long maxMemoryMb) {
+        this.maxMemoryMb = maxMemoryMb;
+    }
+
+    public long getCheckIntervalMs() {
+        return checkIntervalMs;
+    }
+
+    public void setCheckIntervalMs(long checkIntervalMs) {
+        this.checkIntervalMs = checkIntervalMs;
+    }
+
+    public long getHealthCheckTimeoutMs() {
+        return healthCheckTimeoutMs;
+    }
+
+    public void setHealthCheckTimeoutMs(long healthCheckTimeoutMs) {
+        this.healthCheckTimeoutMs = healthCheckTimeoutMs;
+    }
+
+    public long getReapIntervalMs() {
+        return reapIntervalMs;
+    }
+
+    public void setReapIntervalMs(long reapIntervalMs) {
+        this.reapIntervalMs = reapIntervalMs;
+    }
+
+    public long getOrphanMinAgeMs() {
+        return orphanMinAgeMs;
+    }
+
+    public void setOrphanMinAgeMs(long orphanMinAgeMs) {
+        this.orphanMinAgeMs = orphanMinAgeMs;
+    }
+}
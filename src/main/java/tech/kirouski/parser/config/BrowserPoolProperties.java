@@ -0,0 +1,62 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки пула браузеров
+ */
+@ConfigurationProperties(prefix = "parser.browser-pool")
+public class BrowserPoolProperties {
+    /**
+     * Количество браузеров, запускаемых заранее и удерживаемых в пуле
+     */
+    private int minSize = 1;
+
+    /**
+     * Максимальное количество одновременно запущенных браузеров
+     */
+    private int maxSize = 4;
+
+    /**
+     * Максимальное время ожидания свободного браузера, мс
+     */
+    private long borrowTimeoutMs = 30000;
+
+    /**
+     * Сколько запросов один браузер обслуживает одновременно, каждый в своем изолированном контексте.
+     * 1 — браузер выдается запросу целиком.
+     */
+    private int contextsPerBrowser = 1;
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getBorrowTimeoutMs() {
+        return borrowTimeoutMs;
+    }
+
+    public void setBorrowTimeoutMs(long borrowTimeoutMs) {
+        this.borrowTimeoutMs = borrowTimeoutMs;
+    }
+
+    public int getContextsPerBrowser() {
+        return contextsPerBrowser;
+    }
+
+    public void setContextsPerBrowser(int contextsPerBrowser) {
+        this.contextsPerBrowser = contextsPerBrowser;
+    }
+}
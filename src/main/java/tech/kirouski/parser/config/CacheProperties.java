@@ -0,0 +1,58 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки кэша отрендеренного HTML
+ */
+@ConfigurationProperties(prefix = "parser.cache")
+public class CacheProperties {
+    private boolean enabled = true;
+
+    /**
+     * Максимальное количество страниц в кэше
+     */
+    private int maxEntries = 500;
+
+    /**
+     * Максимальный суммарный размер HTML в кэше, байт
+     */
+    private long maxBytes = 256L * 1024 * 1024;
+
+    /**
+     * Время жизни страницы в кэше, мс
+     */
+    private long ttlMs = 3600000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+}
@@ -0,0 +1,48 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки извлечения контактной информации
+ */
+@ConfigurationProperties(prefix = "parser.extract")
+public class ExtractProperties {
+    /**
+     * Страницы длиннее этого размера (в символах) разбираются потоково, без построения DOM
+     */
+    private int streamingThresholdChars = 2 * 1024 * 1024;
+
+    /**
+     * Сколько символов текста одного элемента хранится при потоковом разборе
+     */
+    private int maxElementTextChars = 16 * 1024;
+
+    /**
+     * Максимальная глубина вложенности элементов, которая отслеживается при потоковом разборе
+     */
+    private int maxDepth = 512;
+
+    public int getStreamingThresholdChars() {
+        return streamingThresholdChars;
+    }
+
+    public void setStreamingThresholdChars(int streamingThresholdChars) {
+        this.streamingThresholdChars = streamingThresholdChars;
+    }
+
+    public int getMaxElementTextChars() {
+        return maxElementTextChars;
+    }
+
+    public void setMaxElementTextChars(int maxElementTextChars) {
+        this.maxElementTextChars = maxElementTextChars;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+}
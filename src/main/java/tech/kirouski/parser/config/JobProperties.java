@@ -0,0 +1,61 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки асинхронных задач загрузки
+ */
+@ConfigurationProperties(prefix = "parser.jobs")
+public class JobProperties {
+    /**
+     * Количество задач, выполняемых одновременно
+     */
+    private int workers = 2;
+
+    /**
+     * Максимальное количество задач, ожидающих выполнения
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Время хранения результата завершенной задачи, мс
+     */
+    private long ttlMs = 3600000;
+
+    /**
+     * Максимальное количество хранимых завершенных задач: при превышении удаляются самые старые
+     */
+    private int maxRetainedJobs = 200;
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public int getMaxRetainedJobs() {
+        return maxRetainedJobs;
+    }
+
+    public void setMaxRetainedJobs(int maxRetainedJobs) {
+        this.maxRetainedJobs = maxRetainedJobs;
+    }
+}
@@ -0,0 +1,86 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки вежливой загрузки пакетов: ограничения на количество одновременных загрузок с одного хоста
+ * и на частоту обращений к нему
+ */
+@ConfigurationProperties(prefix = "parser.politeness")
+public class PolitenessProperties {
+    private boolean enabled = true;
+
+    /**
+     * Максимальное количество одновременных загрузок с одного хоста
+     */
+    private int maxConcurrentPerHost = 2;
+
+    /**
+     * Минимальный интервал между началами загрузок с одного хоста, мс
+     */
+    private long minDelayMs = 1000;
+
+    /**
+     * Собственные ограничения отдельных хостов (ключ — хост в нижнем регистре)
+     */
+    private Map<String, HostLimits> hosts = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxConcurrentPerHost() {
+        return maxConcurrentPerHost;
+    }
+
+    public void setMaxConcurrentPerHost(int maxConcurrentPerHost) {
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+    }
+
+    public long getMinDelayMs() {
+        return minDelayMs;
+    }
+
+    public void setMinDelayMs(long minDelayMs) {
+        this.minDelayMs = minDelayMs;
+    }
+
+    public Map<String, HostLimits> getHosts() {
+        return hosts;
+    }
+
+    public void setHosts(Map<String, HostLimits> hosts) {
+        this.hosts = hosts;
+    }
+
+    /**
+     * Ограничения хоста; незаданные значения берутся из общих настроек
+     */
+    public static class HostLimits {
+        private Integer maxConcurrent;
+        private Long minDelayMs;
+
+        public Integer getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(Integer maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public Long getMinDelayMs() {
+            return minDelayMs;
+        }
+
+        public void setMinDelayMs(Long minDelayMs) {
+            this.minDelayMs = minDelayMs;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки повторного использования сессий сайтов (куки и localStorage)
+ */
+@ConfigurationProperties(prefix = "parser.session")
+public class SessionProperties {
+    private boolean enabled = true;
+
+    /**
+     * Время, в течение которого сохраненная сессия сайта используется вместо предварительного открытия главной страницы, мс
+     */
+    private long ttlMs = 1800000;
+
+    /**
+     * Максимальное количество сайтов, для которых хранятся сессии
+     */
+    private int maxOrigins = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public int getMaxOrigins() {
+        return maxOrigins;
+    }
+
+    public void setMaxOrigins(int maxOrigins) {
+        this.maxOrigins = maxOrigins;
+    }
+}
@@ -0,0 +1,63 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import tech.kirouski.parser.dto.FetchMode;
+
+/**
+ * Настройки многоуровневой загрузки: сначала простой HTTP-запрос, браузер — только при необходимости
+ */
+@ConfigurationProperties(prefix = "parser.tiered")
+public class TieredFetchProperties {
+    /**
+     * Режим загрузки, если он не указан в запросе. По умолчанию — браузер, как до появления многоуровневой загрузки:
+     * клиенты, не указывающие режим, по-прежнему получают DOM после выполнения JavaScript.
+     */
+    private FetchMode defaultMode = FetchMode.BROWSER;
+
+    /**
+     * Порог оценки эвристик, начиная с которого страница загружается в браузере
+     */
+    private double renderThreshold = 0.5;
+
+    /**
+     * Таймаут HTTP-запроса, мс
+     */
+    private long httpTimeoutMs = 10000;
+
+    /**
+     * Максимальный размер ответа для HTTP-загрузки, байт
+     */
+    private int maxBodyBytes = 10 * 1024 * 1024;
+
+    public FetchMode getDefaultMode() {
+        return defaultMode;
+    }
+
+    public void setDefaultMode(FetchMode defaultMode) {
+        this.defaultMode = defaultMode;
+    }
+
+    public double getRenderThreshold() {
+        return renderThreshold;
+    }
+
+    public void setRenderThreshold(double renderThreshold) {
+        this.renderThreshold = renderThreshold;
+    }
+
+    public long getHttpTimeoutMs() {
+        return httpTimeoutMs;
+    }
+
+    public void setHttpTimeoutMs(long httpTimeoutMs) {
+        this.httpTimeoutMs = httpTimeoutMs;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+}
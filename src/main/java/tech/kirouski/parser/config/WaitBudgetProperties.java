@@ -0,0 +1,154 @@
+package tech.kirouski.parser.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки адаптивных бюджетов ожидания, вычисляемых по статистике загрузки страниц каждого хоста
+ */
+@ConfigurationProperties(prefix = "parser.wait-budget")
+public class WaitBudgetProperties {
+    private boolean enabled = true;
+
+    /**
+     * Файл, в котором статистика хранится между перезапусками (пустое значение — не сохранять)
+     */
+    private String statsFile = "data/host-timings.json";
+
+    /**
+     * Количество наблюдений, после которого бюджет хоста вычисляется по статистике
+     */
+    private int minSamples = 5;
+
+    /**
+     * Запас, добавляемый к 95-му перцентилю, мс
+     */
+    private long marginMs = 250;
+
+    /**
+     * Максимальное количество хостов, для которых хранится статистика
+     */
+    private int maxHosts = 10000;
+
+    /**
+     * Период сохранения статистики в файл, мс
+     */
+    private long persistIntervalMs = 60000;
+
+    private PhaseLimits warmUp = new PhaseLimits(3000, 500, 5000);
+    private PhaseLimits pageSettle = new PhaseLimits(7000, 1000, 15000);
+    private PhaseLimits contactInfo = new PhaseLimits(1500, 200, 4000);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getStatsFile() {
+        return statsFile;
+    }
+
+    public void setStatsFile(String statsFile) {
+        this.statsFile = statsFile;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public void setMinSamples(int minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    public long getMarginMs() {
+        return marginMs;
+    }
+
+    public void setMarginMs(long marginMs) {
+        this.marginMs = marginMs;
+    }
+
+    public int getMaxHosts() {
+        return maxHosts;
+    }
+
+    public void setMaxHosts(int maxHosts) {
+        this.maxHosts = maxHosts;
+    }
+
+    public long getPersistIntervalMs() {
+        return persistIntervalMs;
+    }
+
+    public void setPersistIntervalMs(long persistIntervalMs) {
+        this.persistIntervalMs = persistIntervalMs;
+    }
+
+    public PhaseLimits getWarmUp() {
+        return warmUp;
+    }
+
+    public void setWarmUp(PhaseLimits warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    public PhaseLimits getPageSettle() {
+        return pageSettle;
+    }
+
+    public void setPageSettle(PhaseLimits pageSettle) {
+        this.pageSettle = pageSettle;
+    }
+
+    public PhaseLimits getContactInfo() {
+        return contactInfo;
+    }
+
+    public void setContactInfo(PhaseLimits contactInfo) {
+        this.contactInfo = contactInfo;
+    }
+
+    /**
+     * Бюджет фазы ожидания: значение, пока статистики нет, и границы адаптивного значения, мс
+     */
+    public static class PhaseLimits {
+        private long defaultMs;
+        private long minMs;
+        private long maxMs;
+
+        public PhaseLimits() {
+        }
+
+        public PhaseLimits(long defaultMs, long minMs, long maxMs) {
+            this.defaultMs = defaultMs;
+            this.minMs = minMs;
+            this.maxMs = maxMs;
+        }
+
+        public long getDefaultMs() {
+            return defaultMs;
+        }
+
+        public void setDefaultMs(long defaultMs) {
+            this.defaultMs = defaultMs;
+        }
+
+        public long getMinMs() {
+            return minMs;
+        }
+
+        public void setMinMs(long minMs) {
+            this.minMs = minMs;
+        }
+
+        public long getMaxMs() {
+            return maxMs;
+        }
+
+        public void setMaxMs(long maxMs) {
+            this.maxMs = maxMs;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package tech.kirouski.parser.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.kirouski.parser.dto.CacheStatsResponse;
+import tech.kirouski.parser.service.HtmlCacheService;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final HtmlCacheService htmlCacheService;
+
+    @Autowired
+    public CacheController(HtmlCacheService htmlCacheService) {
+        this.htmlCacheService = htmlCacheService;
+    }
+
+    /**
+     * Счетчики попаданий, промахов и вытеснений кэша HTML
+     */
+    @GetMapping("/stats")
+    public CacheStatsResponse stats() {
+        return htmlCacheService.getStats();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        htmlCacheService.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
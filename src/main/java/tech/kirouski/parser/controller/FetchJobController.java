@@ -0,0 +1,60 @@
+package tech.kirouski.parser.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.kirouski.parser.dto.FetchHtmlRequest;
+import tech.kirouski.parser.dto.FetchJobResponse;
+import tech.kirouski.parser.exception.ServiceOverloadedException;
+import tech.kirouski.parser.service.FetchJobService;
+
+@RestController
+@RequestMapping("/api/fetch-html/jobs")
+public class FetchJobController {
+
+    private final FetchJobService fetchJobService;
+
+    @Autowired
+    public FetchJobController(FetchJobService fetchJobService) {
+        this.fetchJobService = fetchJobService;
+    }
+
+    /**
+     * Ставит загрузку списка URL в очередь и сразу возвращает идентификатор задачи
+     */
+    @PostMapping
+    public ResponseEntity<FetchJobResponse> submit(@RequestBody FetchHtmlRequest request) {
+        if (request == null || request.getUrls() == null || request.getUrls().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new FetchJobResponse("Список URL не может быть пустым"));
+        }
+
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(fetchJobService.submit(request));
+        } catch (ServiceOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new FetchJobResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<FetchJobResponse> get(@PathVariable String jobId) {
+        FetchJobResponse response = fetchJobService.get(jobId);
+        if (response == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new FetchJobResponse("Задача не найдена: " + jobId));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<FetchJobResponse> cancel(@PathVariable String jobId) {
+        FetchJobResponse response = fetchJobService.cancel(jobId);
+        if (response == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new FetchJobResponse("Задача не найдена: " + jobId));
+        }
+        return ResponseEntity.ok(response);
+    }
+}
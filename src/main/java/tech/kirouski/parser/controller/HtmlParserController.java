@@ -1,27 +1,76 @@
 package tech.kirouski.parser.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tech.kirouski.parser.browser.BrowserPoolHealthIndicator;
+import tech.kirouski.parser.dto.BatchFetchResponse;
+import tech.kirouski.parser.dto.ExtractContactsResponse;
 import tech.kirouski.parser.dto.FetchHtmlRequest;
 import tech.kirouski.parser.dto.FetchHtmlResponse;
+import tech.kirouski.parser.exception.AdmissionRejectedException;
 import tech.kirouski.parser.exception.HtmlFetchException;
 import tech.kirouski.parser.exception.InvalidUrlException;
-import tech.kirouski.parser.service.HtmlParserService;
+import tech.kirouski.parser.service.BatchFetchService;
+import tech.kirouski.parser.service.ContactService;
+import tech.kirouski.parser.service.FetchedPage;
+import tech.kirouski.parser.service.HtmlCacheService;
+import tech.kirouski.parser.service.PageOutput;
+import tech.kirouski.parser.service.PayloadService;
+import tech.kirouski.parser.service.UrlValidator;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api")
 public class HtmlParserController {
 
-    private final HtmlParserService htmlParserService;
+    private static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * Откуда получен HTML в ответе без JSON-обертки (HTTP, BROWSER, CACHE)
+     */
+    private static final String PAGE_SOURCE_HEADER = "X-Page-Source";
+
+    private static final int RAW_CHUNK_CHARS = 8192;
+
+    private final HtmlCacheService htmlCacheService;
+    private final BatchFetchService batchFetchService;
+    private final ContactService contactService;
+    private final PayloadService payloadService;
+    private final UrlValidator urlValidator;
+    private final BrowserPoolHealthIndicator browserPoolHealth;
+    private final ObjectWriter recordWriter;
 
     @Autowired
-    public HtmlParserController(HtmlParserService htmlParserService) {
-        this.htmlParserService = htmlParserService;
+    public HtmlParserController(HtmlCacheService htmlCacheService,
+                                BatchFetchService batchFetchService,
+                                ContactService contactService,
+                                PayloadService payloadService,
+                                UrlValidator urlValidator,
+                                BrowserPoolHealthIndicator browserPoolHealth,
+                                ObjectMapper objectMapper) {
+        this.htmlCacheService = htmlCacheService;
+        this.batchFetchService = batchFetchService;
+        this.contactService = contactService;
+        this.payloadService = payloadService;
+        this.urlValidator = urlValidator;
+        this.browserPoolHealth = browserPoolHealth;
+        this.recordWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @PostMapping("/fetch-html")
@@ -42,16 +91,23 @@ public class HtmlParserController {
             }
 
             // Валидация URL
-            validateUrl(url);
+            urlValidator.validate(url);
 
-            // Получаем HTML (с контактами и адресами внутри)
-            String html = htmlParserService.fetchHtml(url);
+            // Получаем HTML (с контактами и адресами внутри), при наличии — из кэша
+            String html = htmlCacheService.fetchHtml(url, request).getHtml();
             
-            // Возвращаем HTML в results
-            return ResponseEntity.ok(new FetchHtmlResponse(html));
+            // Возвращаем HTML в results, текст и контакты — если они запрошены
+            PageOutput output = payloadService.shape(html, url, request.getOutput());
+            FetchHtmlResponse response = new FetchHtmlResponse(output.getHtml());
+            response.setText(output.getText());
+            response.setContacts(output.getContacts());
+            response.setSize(output.getSize());
+            return ResponseEntity.ok(response);
         } catch (InvalidUrlException e) {
             return ResponseEntity.badRequest()
                     .body(new FetchHtmlResponse(null, "Невалидный URL: " + e.getMessage()));
+        } catch (AdmissionRejectedException e) {
+            return rejected(e).body(new FetchHtmlResponse(null, e.getMessage()));
         } catch (HtmlFetchException e) {
             return ResponseEntity.badRequest()
                     .body(new FetchHtmlResponse(null, e.getMessage()));
@@ -74,44 +130,147 @@ public class HtmlParserController {
     }
     
     /**
-     * Валидирует URL
+     * Вариант /api/fetch-html, в ответе которого сам HTML страницы: он пишется частями прямо в поток ответа,
+     * без JSON-обертки и экранирования. Параметры вывода (output) не применяются.
      */
-    private void validateUrl(String url) throws InvalidUrlException {
-        if (url == null || url.trim().isEmpty()) {
-            throw new InvalidUrlException("URL не может быть пустым");
+    @PostMapping(value = "/fetch-html/raw", produces = MediaType.TEXT_HTML_VALUE)
+    public void fetchHtmlRaw(@RequestBody FetchHtmlRequest request, HttpServletResponse response) throws IOException {
+        if (request == null || request.getUrls() == null || request.getUrls().isEmpty()
+                || request.getUrls().get(0) == null || request.getUrls().get(0).trim().isEmpty()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Список URL не может быть пустым");
+            return;
+        }
+
+        String url = request.getUrls().get(0);
+        FetchedPage page;
+        try {
+            urlValidator.validate(url);
+            page = htmlCacheService.fetchHtml(url, request);
+        } catch (InvalidUrlException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Невалидный URL: " + e.getMessage());
+            return;
+        } catch (AdmissionRejectedException e) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
+            response.sendError(rejectedStatus(e).value(), e.getMessage());
+            return;
+        } catch (HtmlFetchException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+
+        String html = page.getHtml();
+        response.setContentType(MediaType.TEXT_HTML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(PAGE_SOURCE_HEADER, page.getSource().name());
+        Writer writer = response.getWriter();
+        for (int offset = 0; offset < html.length(); offset += RAW_CHUNK_CHARS) {
+            writer.write(html, offset, Math.min(RAW_CHUNK_CHARS, html.length() - offset));
+        }
+        writer.flush();
+    }
+
+    /**
+     * Загружает все URL из запроса параллельно и возвращает результат по каждому из них
+     */
+    @PostMapping("/fetch-html/batch")
+    public ResponseEntity<BatchFetchResponse> fetchHtmlBatch(@RequestBody FetchHtmlRequest request) {
+        if (request == null || request.getUrls() == null || request.getUrls().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new BatchFetchResponse(null, "Список URL не может быть пустым"));
         }
-        
-        String trimmedUrl = url.trim();
-        
-        // Проверяем, что URL содержит протокол и двоеточие
-        if (!trimmedUrl.contains("://")) {
-            throw new InvalidUrlException("URL должен содержать протокол (http:// или https://)");
+
+        return ResponseEntity.ok(batchFetchService.fetchAll(request));
+    }
+
+    /**
+     * Извлекает контактную информацию со страницы. По умолчанию извлечение выполняется скриптом в браузере,
+     * и HTML страницы не передается ни из браузера, ни клиенту.
+     */
+    @PostMapping("/extract-contacts")
+    public ResponseEntity<ExtractContactsResponse> extractContacts(@RequestBody FetchHtmlRequest request) {
+        if (request == null || request.getUrls() == null || request.getUrls().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new ExtractContactsResponse("Список URL не может быть пустым"));
         }
-        
-        // Проверяем, что после протокола есть что-то еще
-        String[] parts = trimmedUrl.split("://", 2);
-        if (parts.length != 2 || parts[1] == null || parts[1].trim().isEmpty()) {
-            throw new InvalidUrlException("URL должен содержать хост после протокола");
+
+        String url = request.getUrls().get(0);
+        if (url == null || url.trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new ExtractContactsResponse("URL не может быть пустым"));
         }
-        
+
         try {
-            URL urlObj = new URL(trimmedUrl);
-            // Проверяем протокол
-            String protocol = urlObj.getProtocol();
-            if (!protocol.equals("http") && !protocol.equals("https")) {
-                throw new InvalidUrlException("URL должен использовать протокол http или https");
-            }
-            // Проверяем наличие хоста
-            if (urlObj.getHost() == null || urlObj.getHost().isEmpty()) {
-                throw new InvalidUrlException("URL должен содержать валидный хост");
+            urlValidator.validate(url);
+            return ResponseEntity.ok(contactService.extract(url, request));
+        } catch (InvalidUrlException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ExtractContactsResponse("Невалидный URL: " + e.getMessage()));
+        } catch (AdmissionRejectedException e) {
+            return rejected(e).body(new ExtractContactsResponse(e.getMessage()));
+        } catch (HtmlFetchException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ExtractContactsResponse(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ExtractContactsResponse("Внутренняя ошибка сервера: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Потоковая загрузка списка URL: результат по каждому URL отправляется отдельной строкой NDJSON
+     * сразу после его обработки. Отключение клиента отменяет оставшуюся работу.
+     */
+    @PostMapping(value = "/fetch-html/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> fetchHtmlStream(@RequestBody FetchHtmlRequest request) {
+        if (request == null || request.getUrls() == null || request.getUrls().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.parseMediaType(NDJSON))
+                    .body(out -> writeRecord(out, new FetchHtmlResponse(null, "Список URL не может быть пустым")));
+        }
+
+        StreamingResponseBody body = out -> batchFetchService.stream(request, result -> {
+            try {
+                writeRecord(out, result);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Клиент отключился", e);
             }
-        } catch (MalformedURLException e) {
-            throw new InvalidUrlException("Невалидный формат URL: " + e.getMessage());
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    /**
+     * Ответ на запрос, не допущенный к загрузке: 429, если очередь заполнена, 503, если истекло время ожидания
+     */
+    private static ResponseEntity.BodyBuilder rejected(AdmissionRejectedException e) {
+        return ResponseEntity.status(rejectedStatus(e))
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
+    }
+
+    private static HttpStatus rejectedStatus(AdmissionRejectedException e) {
+        return e.isQueueFull() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    /**
+     * Записывает одну строку NDJSON и сразу отправляет ее клиенту. JSON пишется генератором прямо в поток ответа:
+     * HTML экранируется частями через буфер генератора, без промежуточного массива на всю запись.
+     */
+    private void writeRecord(OutputStream out, Object record) throws IOException {
+        synchronized (out) {
+            recordWriter.writeValue(out, record);
+            out.write('\n');
+            out.flush();
         }
     }
 
+    /**
+     * Состояние сервиса по доступности браузеров: 200, если страницы можно загружать, иначе 503
+     */
     @GetMapping("/health")
-    public String health(){
-        return "Everything is ok";
+    public ResponseEntity<Health> health() {
+        Health health = browserPoolHealth.health();
+        HttpStatus status = Status.UP.equals(health.getStatus()) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(health);
     }
 }
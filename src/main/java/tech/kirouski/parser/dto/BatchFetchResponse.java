@@ -0,0 +1,61 @@
+package tech.kirouski.parser.dto;
+
+import java.util.List;
+
+public class BatchFetchResponse {
+    private List<UrlFetchResult> results;
+    private int succeeded;
+    private int failed;
+    private String message;
+
+    public BatchFetchResponse() {
+    }
+
+    public BatchFetchResponse(List<UrlFetchResult> results) {
+        this.results = results;
+        for (UrlFetchResult result : results) {
+            if (result.getStatus() == FetchStatus.SUCCESS) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public BatchFetchResponse(List<UrlFetchResult> results, String message) {
+        this.results = results;
+        this.message = message;
+    }
+
+    public List<UrlFetchResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<UrlFetchResult> results) {
+        this.results = results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
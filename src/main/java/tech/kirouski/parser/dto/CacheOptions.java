@@ -0,0 +1,32 @@
+package tech.kirouski.parser.dto;
+
+/**
+ * Параметры использования кэша для отдельного запроса
+ */
+public class CacheOptions {
+    /**
+     * Не читать страницу из кэша (свежий результат все равно будет сохранен)
+     */
+    private boolean bypass;
+
+    /**
+     * Максимальный допустимый возраст страницы из кэша, мс
+     */
+    private Long maxAgeMs;
+
+    public boolean isBypass() {
+        return bypass;
+    }
+
+    public void setBypass(boolean bypass) {
+        this.bypass = bypass;
+    }
+
+    public Long getMaxAgeMs() {
+        return maxAgeMs;
+    }
+
+    public void setMaxAgeMs(Long maxAgeMs) {
+        this.maxAgeMs = maxAgeMs;
+    }
+}
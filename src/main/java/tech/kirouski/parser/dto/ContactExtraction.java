@@ -0,0 +1,15 @@
+package tech.kirouski.parser.dto;
+
+/**
+ * Где извлекаются контакты
+ */
+public enum ContactExtraction {
+    /**
+     * Скриптом внутри страницы, открытой в браузере; HTML из браузера не передается
+     */
+    BROWSER,
+    /**
+     * На сервере из HTML, полученного так же, как в /api/fetch-html (с учетом кэша и режима загрузки)
+     */
+    SERVER
+}
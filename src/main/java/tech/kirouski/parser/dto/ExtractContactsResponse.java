@@ -0,0 +1,53 @@
+package tech.kirouski.parser.dto;
+
+public class ExtractContactsResponse {
+    private String url;
+    private ContactInfo contacts;
+    private PageSource source;
+    private String message;
+
+    public ExtractContactsResponse() {
+    }
+
+    public ExtractContactsResponse(String url, ContactInfo contacts, PageSource source) {
+        this.url = url;
+        this.contacts = contacts;
+        this.source = source;
+    }
+
+    public ExtractContactsResponse(String message) {
+        this.message = message;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public ContactInfo getContacts() {
+        return contacts;
+    }
+
+    public void setContacts(ContactInfo contacts) {
+        this.contacts = contacts;
+    }
+
+    public PageSource getSource() {
+        return source;
+    }
+
+    public void setSource(PageSource source) {
+        this.source = source;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -4,6 +4,16 @@ import java.util.List;
 
 public class FetchHtmlRequest {
     private List<String> urls;
+    private Integer parallelism;
+    private Long deadlineMs;
+    private CacheOptions cache;
+    private FetchMode mode;
+    private Double renderThreshold;
+    private String blockingProfile;
+    private ContactExtraction extraction;
+    private Boolean includeHtml;
+    private OutputOptions output;
+    private Long queueTimeoutMs;
 
     public List<String> getUrls() {
         return urls;
@@ -12,4 +22,84 @@ public class FetchHtmlRequest {
     public void setUrls(List<String> urls) {
         this.urls = urls;
     }
+
+    public Integer getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(Integer parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public Long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    public void setDeadlineMs(Long deadlineMs) {
+        this.deadlineMs = deadlineMs;
+    }
+
+    public CacheOptions getCache() {
+        return cache;
+    }
+
+    public void setCache(CacheOptions cache) {
+        this.cache = cache;
+    }
+
+    public FetchMode getMode() {
+        return mode;
+    }
+
+    public void setMode(FetchMode mode) {
+        this.mode = mode;
+    }
+
+    public Double getRenderThreshold() {
+        return renderThreshold;
+    }
+
+    public void setRenderThreshold(Double renderThreshold) {
+        this.renderThreshold = renderThreshold;
+    }
+
+    public String getBlockingProfile() {
+        return blockingProfile;
+    }
+
+    public void setBlockingProfile(String blockingProfile) {
+        this.blockingProfile = blockingProfile;
+    }
+
+    public ContactExtraction getExtraction() {
+        return extraction;
+    }
+
+    public void setExtraction(ContactExtraction extraction) {
+        this.extraction = extraction;
+    }
+
+    public Boolean getIncludeHtml() {
+        return includeHtml;
+    }
+
+    public void setIncludeHtml(Boolean includeHtml) {
+        this.includeHtml = includeHtml;
+    }
+
+    public OutputOptions getOutput() {
+        return output;
+    }
+
+    public void setOutput(OutputOptions output) {
+        this.output = output;
+    }
+
+    public Long getQueueTimeoutMs() {
+        return queueTimeoutMs;
+    }
+
+    public void setQueueTimeoutMs(Long queueTimeoutMs) {
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
 }
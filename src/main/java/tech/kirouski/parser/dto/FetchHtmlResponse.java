@@ -3,6 +3,9 @@ package tech.kirouski.parser.dto;
 public class FetchHtmlResponse {
     private String results;
     private String message;
+    private String text;
+    private ContactInfo contacts;
+    private PayloadSize size;
 
     public FetchHtmlResponse() {
     }
@@ -31,4 +34,28 @@ public class FetchHtmlResponse {
     public void setMessage(String message) {
         this.message = message;
     }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public ContactInfo getContacts() {
+        return contacts;
+    }
+
+    public void setContacts(ContactInfo contacts) {
+        this.contacts = contacts;
+    }
+
+    public PayloadSize getSize() {
+        return size;
+    }
+
+    public void setSize(PayloadSize size) {
+        this.size = size;
+    }
 }
@@ -0,0 +1,85 @@
+package tech.kirouski.parser.dto;
+
+import java.util.List;
+
+public class FetchJobResponse {
+    private String jobId;
+    private JobStatus status;
+    private int total;
+    private int completed;
+    private long createdAt;
+    private Long finishedAt;
+    private List<UrlFetchResult> results;
+    private String message;
+
+    public FetchJobResponse() {
+    }
+
+    public FetchJobResponse(String message) {
+        this.message = message;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public List<UrlFetchResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<UrlFetchResult> results) {
+        this.results = results;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
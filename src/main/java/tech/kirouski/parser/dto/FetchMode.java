@@ -0,0 +1,19 @@
+package tech.kirouski.parser.dto;
+
+/**
+ * Способ загрузки страницы
+ */
+public enum FetchMode {
+    /**
+     * Сначала HTTP-запрос, браузер — только если эвристики считают, что странице нужен JavaScript
+     */
+    AUTO,
+    /**
+     * Всегда браузер
+     */
+    BROWSER,
+    /**
+     * Только HTTP-запрос, без браузера
+     */
+    HTTP
+}
@@ -0,0 +1,10 @@
+package tech.kirouski.parser.dto;
+
+/**
+ * Итог загрузки одного URL
+ */
+public enum FetchStatus {
+    SUCCESS,
+    FAILED,
+    TIMEOUT
+}
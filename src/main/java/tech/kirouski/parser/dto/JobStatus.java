@@ -0,0 +1,11 @@
+package tech.kirouski.parser.dto;
+
+/**
+ * Состояние асинхронной задачи загрузки
+ */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED
+}
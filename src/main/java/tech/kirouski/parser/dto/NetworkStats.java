@@ -0,0 +1,43 @@
+package tech.kirouski.parser.dto;
+
+/**
+ * Сетевая статистика загрузки страницы в браузере
+ */
+public class NetworkStats {
+    private String blockingProfile;
+    private int requests;
+    private int blockedRequests;
+    private long transferredBytes;
+
+    public String getBlockingProfile() {
+        return blockingProfile;
+    }
+
+    public void setBlockingProfile(String blockingProfile) {
+        this.blockingProfile = blockingProfile;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public void setRequests(int requests) {
+        this.requests = requests;
+    }
+
+    public int getBlockedRequests() {
+        return blockedRequests;
+    }
+
+    public void setBlockedRequests(int blockedRequests) {
+        this.blockedRequests = blockedRequests;
+    }
+
+    public long getTransferredBytes() {
+        return transferredBytes;
+    }
+
+    public void setTransferredBytes(long transferredBytes) {
+        this.transferredBytes = transferredBytes;
+    }
+}
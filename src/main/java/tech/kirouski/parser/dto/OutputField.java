@@ -0,0 +1,19 @@
+package tech.kirouski.parser.dto;
+
+/**
+ * Что возвращается по загруженной странице
+ */
+public enum OutputField {
+    /**
+     * HTML страницы
+     */
+    HTML,
+    /**
+     * Видимый текст страницы
+     */
+    TEXT,
+    /**
+     * Извлеченная контактная информация
+     */
+    CONTACTS
+}
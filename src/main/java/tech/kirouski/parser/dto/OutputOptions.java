@@ -0,0 +1,47 @@
+package tech.kirouski.parser.dto;
+
+import java.util.List;
+
+/**
+ * Параметры ответа для отдельного запроса: какие поля вернуть и как уменьшить HTML
+ */
+public class OutputOptions {
+    /**
+     * Возвращаемые поля, по умолчанию только HTML
+     */
+    private List<OutputField> fields;
+
+    /**
+     * Удалить из HTML скрипты, стили, SVG, комментарии и data: URI и схлопнуть пробелы
+     */
+    private boolean slim;
+
+    /**
+     * Максимальный размер HTML и текста в ответе (каждого), байт в UTF-8
+     */
+    private Integer maxBytes;
+
+    public List<OutputField> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<OutputField> fields) {
+        this.fields = fields;
+    }
+
+    public boolean isSlim() {
+        return slim;
+    }
+
+    public void setSlim(boolean slim) {
+        this.slim = slim;
+    }
+
+    public Integer getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(Integer maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+}
@@ -0,0 +1,10 @@
+package tech.kirouski.parser.dto;
+
+/**
+ * Откуда получен HTML страницы
+ */
+public enum PageSource {
+    HTTP,
+    BROWSER,
+    CACHE
+}
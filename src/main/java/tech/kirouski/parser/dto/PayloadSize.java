@@ -0,0 +1,54 @@
+package tech.kirouski.parser.dto;
+
+/**
+ * Размер страницы до и после обработки ответа
+ */
+public class PayloadSize {
+    /**
+     * Размер исходного HTML, байт в UTF-8
+     */
+    private long originalBytes;
+
+    /**
+     * Размер возвращаемых HTML и текста, байт в UTF-8
+     */
+    private long returnedBytes;
+
+    /**
+     * HTML или текст обрезаны по maxBytes
+     */
+    private boolean truncated;
+
+    public PayloadSize() {
+    }
+
+    public PayloadSize(long originalBytes, long returnedBytes, boolean truncated) {
+        this.originalBytes = originalBytes;
+        this.returnedBytes = returnedBytes;
+        this.truncated = truncated;
+    }
+
+    public long getOriginalBytes() {
+        return originalBytes;
+    }
+
+    public void setOriginalBytes(long originalBytes) {
+        this.originalBytes = originalBytes;
+    }
+
+    public long getReturnedBytes() {
+        return returnedBytes;
+    }
+
+    public void setReturnedBytes(long returnedBytes) {
+        this.returnedBytes = returnedBytes;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+}
@@ -0,0 +1,118 @@
+package tech.kirouski.parser.dto;
+
+public class UrlFetchResult {
+    private String url;
+    private FetchStatus status;
+    private String html;
+    private String error;
+    private PageSource source;
+    private NetworkStats network;
+    private long durationMs;
+    private String text;
+    private ContactInfo contacts;
+    private PayloadSize size;
+
+    public UrlFetchResult() {
+    }
+
+    public UrlFetchResult(String url, FetchStatus status, String html, String error) {
+        this.url = url;
+        this.status = status;
+        this.html = html;
+        this.error = error;
+    }
+
+    public static UrlFetchResult success(String url, String html, PageSource source) {
+        UrlFetchResult result = new UrlFetchResult(url, FetchStatus.SUCCESS, html, null);
+        result.setSource(source);
+        return result;
+    }
+
+    public static UrlFetchResult failed(String url, String error) {
+        return new UrlFetchResult(url, FetchStatus.FAILED, null, error);
+    }
+
+    public static UrlFetchResult timeout(String url) {
+        return new UrlFetchResult(url, FetchStatus.TIMEOUT, null, "Превышено время обработки запроса");
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public FetchStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(FetchStatus status) {
+        this.status = status;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public void setHtml(String html) {
+        this.html = html;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public PageSource getSource() {
+        return source;
+    }
+
+    public void setSource(PageSource source) {
+        this.source = source;
+    }
+
+    public NetworkStats getNetwork() {
+        return network;
+    }
+
+    public void setNetwork(NetworkStats network) {
+        this.network = network;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public ContactInfo getContacts() {
+        return contacts;
+    }
+
+    public void setContacts(ContactInfo contacts) {
+        this.contacts = contacts;
+    }
+
+    public PayloadSize getSize() {
+        return size;
+    }
+
+    public void setSize(PayloadSize size) {
+        this.size = size;
+    }
+}
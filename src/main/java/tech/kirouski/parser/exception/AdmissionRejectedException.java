@@ -0,0 +1,26 @@
+package tech.kirouski.parser.exception;
+
+/**
+ * Запрос не допущен к загрузке в браузере: сервис перегружен
+ */
+public class AdmissionRejectedException extends HtmlFetchException {
+    private final boolean queueFull;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, boolean queueFull, long retryAfterSeconds) {
+        super(message);
+        this.queueFull = queueFull;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * true — очередь заполнена и запрос отклонен сразу, false — истекло время ожидания в очереди
+     */
+    public boolean isQueueFull() {
+        return queueFull;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
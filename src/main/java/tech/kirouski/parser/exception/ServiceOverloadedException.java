@@ -0,0 +1,7 @@
+package tech.kirouski.parser.exception;
+
+public class ServiceOverloadedException extends Exception {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,218 @@
+package tech.kirouski.parser.extract;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.browser.BrowserTab;
+import tech.kirouski.parser.dto.ContactInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Извлекает контактную информацию прямо в открытой странице одним скриптом. Правила те же,
+ * что у {@link ContactExtractor} и {@link ContactRules}, текст элементов собирается так же, как Element.text() в jsoup.
+ * Из браузера возвращаются только найденные контакты, исходный код страницы по WebDriver не передается.
+ */
+@Component
+public class BrowserContactExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserContactExtractor.class);
+
+    private static final String EXTRACT_CONTACTS = """
+            const S = '[ \\\\t\\\\n\\\\x0B\\\\f\\\\r]';
+            const PHONE = new RegExp(
+                '(?:\\\\+?375|8)?' + S + '?[-()]?' + S + '?(?:29|25|33|44|17)' + S + '?[-()]?' + S + '?\\\\d{3}[-()]?' + S + '?\\\\d{2}[-()]?' + S + '?\\\\d{2}'
+                + '|(?:\\\\+?7|8)?' + S + '?[-()]?' + S + '?\\\\d{3}' + S + '?[-()]?' + S + '?\\\\d{3}[-()]?' + S + '?\\\\d{2}[-()]?' + S + '?\\\\d{2}'
+                + '|(?:\\\\+?\\\\d{1,3})?[-. \\\\t\\\\n\\\\x0B\\\\f\\\\r]?\\\\(?\\\\d{3}\\\\)?[-. \\\\t\\\\n\\\\x0B\\\\f\\\\r]?\\\\d{3}[-. \\\\t\\\\n\\\\x0B\\\\f\\\\r]?\\\\d{4}', 'g');
+            const EMAIL = /[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}/g;
+            const HOURS = /(?:пн|пон|mon|monday)[\\s:-]*\\d{1,2}:\\d{2}[\\s-]*\\d{1,2}:\\d{2}.*/im;
+            const STREET = /(улица|ул\\.|street|st\\.|проспект|пр\\.|avenue|av\\.)/;
+            const BLOCK = new Set(['html', 'head', 'body', 'frameset', 'script', 'noscript', 'style', 'meta', 'link',
+                'title', 'frame', 'noframes', 'section', 'nav', 'aside', 'hgroup', 'header', 'footer', 'p', 'h1', 'h2',
+                'h3', 'h4', 'h5', 'h6', 'ul', 'ol', 'pre', 'div', 'blockquote', 'hr', 'address', 'figure', 'figcaption',
+                'form', 'fieldset', 'ins', 'del', 'dl', 'dt', 'dd', 'li', 'table', 'caption', 'thead', 'tfoot', 'tbody',
+                'colgroup', 'col', 'tr', 'th', 'td', 'video', 'audio', 'canvas', 'details', 'menu', 'plaintext',
+                'template', 'article', 'main', 'svg', 'math', 'center']);
+            // Блочные элементы, после которых, как и после строчных, добавляется пробел
+            const INLINE_FORMAT = new Set(['title', 'a', 'p', 'h1', 'h2', 'h3', 'h4', 'h5', 'h6', 'pre', 'address', 'li',
+                'th', 'td', 'script', 'style', 'ins', 'del', 's']);
+
+            const texts = new Map();
+            const textOf = root => {
+                if (texts.has(root)) return texts.get(root);
+                let out = '';
+                const space = () => { if (out && !out.endsWith(' ')) out += ' '; };
+                const walk = node => {
+                    for (let child = node.firstChild; child; child = child.nextSibling) {
+                        if (child.nodeType === Node.TEXT_NODE) {
+                            const text = child.data.replace(/[\\u200B\\u00AD]/g, '').replace(/[ \\t\\n\\f\\r\\u00A0]+/g, ' ');
+                            out += !out || out.endsWith(' ') ? text.replace(/^ /, '') : text;
+                        } else if (child.nodeType === Node.ELEMENT_NODE) {
+                            const name = child.localName;
+                            if (name === 'script' || name === 'style') continue;
+                            if (BLOCK.has(name) || name === 'br') space();
+                            walk(child);
+                            const next = child.nextSibling;
+                            if (BLOCK.has(name) && next && (next.nodeType === Node.TEXT_NODE || (next.nodeType === Node.ELEMENT_NODE
+                                    && !(BLOCK.has(next.localName) && !INLINE_FORMAT.has(next.localName))))) space();
+                        }
+                    }
+                };
+                walk(root);
+                out = out.trim();
+                texts.set(root, out);
+                return out;
+            };
+            const normalizePhone = phone => phone.replace(/[^\\d+]/g, '').replace(/^8/, '+375');
+            const findPhones = (text, minLength, phones) => {
+                for (const match of text.matchAll(PHONE)) {
+                    const phone = match[0].trim();
+                    if (phone.length >= minLength) phones.add(normalizePhone(phone));
+                }
+            };
+            const findEmails = (text, realOnly, emails) => {
+                for (const match of text.matchAll(EMAIL)) {
+                    const email = match[0].toLowerCase();
+                    if (!realOnly || (!email.includes('@example') && !email.includes('@test'))) emails.add(email);
+                }
+            };
+            const attr = (el, name) => el.getAttribute(name) || '';
+            const hasClass = (cls, name) => cls.split(/\\s+/).includes(name);
+
+            const telLinks = [], mailLinks = [], phoneElements = [], emailElements = [], structured = [],
+                addressElements = [], footers = [], hoursElements = [];
+            let openingHours = null;
+            for (const el of document.getElementsByTagName('*')) {
+                const tag = el.localName;
+                const cls = attr(el, 'class').toLowerCase();
+                const id = attr(el, 'id').toLowerCase();
+                const itemprop = attr(el, 'itemprop').trim().toLowerCase();
+                if (tag === 'a') {
+                    const href = attr(el, 'href').toLowerCase();
+                    if (href.startsWith('tel:')) telLinks.push(el);
+                    if (href.startsWith('mailto:')) mailLinks.push(el);
+                }
+                if (cls.includes('phone') || cls.includes('tel') || cls.includes('contact')
+                        || id.includes('phone') || id.includes('tel')) phoneElements.push(el);
+                if (cls.includes('mail') || id.includes('mail')) emailElements.push(el);
+                if (attr(el, 'itemtype').toLowerCase().includes('postaladdress') || itemprop === 'address'
+                        || tag === 'address') structured.push(el);
+                if (cls.includes('address') || cls.includes('адрес') || cls.includes('location')
+                        || id.includes('address') || id.includes('адрес') || id.includes('location')) addressElements.push(el);
+                if (tag === 'footer' || hasClass(cls, 'footer') || hasClass(cls, 'contacts')
+                        || hasClass(cls, 'contact-info') || hasClass(cls, 'address-block')) footers.push(el);
+                if (!openingHours && (itemprop === 'openinghours' || itemprop === 'openinghoursspecification')) openingHours = el;
+                if (cls.includes('hours') || cls.includes('time') || cls.includes('расписание') || cls.includes('work')
+                        || id.includes('hours') || id.includes('time') || id.includes('расписание')) hoursElements.push(el);
+            }
+
+            const html = document.documentElement.outerHTML;
+
+            const phones = new Set();
+            findPhones(html, 7, phones);
+            for (const link of telLinks) {
+                const tel = attr(link, 'href').split('tel:').join('').trim();
+                if (tel) phones.add(normalizePhone(tel));
+            }
+            for (const el of phoneElements) findPhones(textOf(el), 0, phones);
+
+            const emails = new Set();
+            findEmails(html, true, emails);
+            for (const link of mailLinks) {
+                const email = attr(link, 'href').split('mailto:').join('').split('?')[0].trim().toLowerCase();
+                if (email) emails.add(email);
+            }
+            for (const el of emailElements) findEmails(textOf(el), false, emails);
+
+            const addresses = new Set();
+            for (const el of structured) {
+                const text = textOf(el);
+                if (text.length > 10) addresses.add(text);
+            }
+            for (const el of addressElements) {
+                const text = textOf(el);
+                if (text.length > 10 && !text.includes('@')) addresses.add(text);
+            }
+            for (const el of footers) {
+                const text = textOf(el);
+                if (!STREET.test(text)) continue;
+                for (let line of text.split('\\n')) {
+                    line = line.trim();
+                    if (line.length > 15 && /\\d/.test(line)) addresses.add(line);
+                }
+            }
+
+            let workingHours = null;
+            if (openingHours) {
+                workingHours = textOf(openingHours);
+            } else {
+                for (const el of hoursElements) {
+                    const text = textOf(el);
+                    const lower = text.toLowerCase();
+                    if (lower.includes('пн') || lower.includes('mon') || lower.includes('вт') || lower.includes('tue')
+                            || /\\d{1,2}:\\d{2}/.test(text)) {
+                        workingHours = text;
+                        break;
+                    }
+                }
+                if (workingHours === null && document.body) {
+                    const match = textOf(document.body).match(HOURS);
+                    if (match) workingHours = match[0].length > 200 ? match[0].substring(0, 200) + '...' : match[0];
+                }
+            }
+
+            return {
+                phones: [...phones],
+                emails: [...emails],
+                addresses: [...addresses],
+                workingHours: workingHours,
+                htmlLength: html.length,
+                // Признаки 403 ищутся без учета регистра прямо в html, без копии документа в нижнем регистре
+                forbidden: html.includes('403') && /forbidden|access denied|доступ запрещ[её]н/i.test(html)
+            };
+            """;
+
+    /**
+     * Извлекает контакты из страницы, открытой в браузере
+     */
+    public Result extract(BrowserTab tab) {
+        Object value = tab.executeScript(EXTRACT_CONTACTS);
+        if (!(value instanceof Map<?, ?> result)) {
+            throw new IllegalStateException("Скрипт извлечения контактов вернул неожиданный результат: " + value);
+        }
+
+        ContactInfo contactInfo = new ContactInfo();
+        contactInfo.setPhones(strings(result.get("phones")));
+        contactInfo.setEmails(strings(result.get("emails")));
+        contactInfo.setAddresses(strings(result.get("addresses")));
+        Object workingHours = result.get("workingHours");
+        contactInfo.setWorkingHours(workingHours != null ? workingHours.toString() : null);
+
+        logger.info("Извлечена контактная информация в браузере: телефоны={}, emails={}, адреса={}, время работы={}",
+                contactInfo.getPhones().size(),
+                contactInfo.getEmails().size(),
+                contactInfo.getAddresses().size(),
+                contactInfo.getWorkingHours() != null ? "найдено" : "не найдено");
+
+        long htmlLength = result.get("htmlLength") instanceof Number length ? length.longValue() : 0;
+        return new Result(contactInfo, htmlLength, Boolean.TRUE.equals(result.get("forbidden")));
+    }
+
+    private static List<String> strings(Object value) {
+        List<String> strings = new ArrayList<>();
+        if (value instanceof List<?> list) {
+            for (Object item : list) {
+                strings.add(String.valueOf(item));
+            }
+        }
+        return strings;
+    }
+
+    /**
+     * Найденные контакты, длина HTML страницы и признак ответа 403
+     */
+    public record Result(ContactInfo contactInfo, long htmlLength, boolean forbidden) {
+    }
+}
@@ -0,0 +1,227 @@
+package tech.kirouski.parser.extract;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.dto.ContactInfo;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+/**
+ * Извлекает контактную информацию из HTML. Дерево документа обходится один раз: каждый элемент
+ * сразу проверяется по правилам телефонов, email, адресов и времени работы, а текст элемента
+ * строится не более одного раза, даже если элемент подходит под несколько правил.
+ */
+@Component
+public class ContactExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactExtractor.class);
+
+    /**
+     * Извлекает контактную информацию из HTML
+     */
+    public ContactInfo extract(String html) {
+        ContactInfo contactInfo = new ContactInfo();
+        contactInfo.setFullHtml(html);
+
+        try {
+            Document doc = Jsoup.parse(html);
+            ContactNodes nodes = ContactNodes.collect(doc);
+
+            contactInfo.setPhones(extractPhones(html, nodes));
+            contactInfo.setEmails(extractEmails(html, nodes));
+            contactInfo.setAddresses(extractAddresses(nodes));
+            contactInfo.setWorkingHours(extractWorkingHours(doc, nodes));
+
+            logger.info("Извлечена контактная информация: телефоны={}, emails={}, адреса={}, время работы={}",
+                    contactInfo.getPhones().size(),
+                    contactInfo.getEmails().size(),
+                    contactInfo.getAddresses().size(),
+                    contactInfo.getWorkingHours() != null ? "найдено" : "не найдено");
+
+        } catch (Exception e) {
+            logger.error("Ошибка при извлечении контактной информации", e);
+        }
+
+        return contactInfo;
+    }
+
+    List<String> extractPhones(String html, ContactNodes nodes) {
+        Set<String> phones = new LinkedHashSet<>();
+
+        // Поиск в тексте страницы (минимальная длина телефона — 7 символов)
+        PhoneScanner.DEFAULT.findAll(html, 7, phones);
+
+        // Ссылки tel:
+        for (Element link : nodes.telLinks) {
+            String phone = ContactRules.telLinkPhone(link.attr("href"));
+            if (phone != null) {
+                phones.add(phone);
+            }
+        }
+
+        // Элементы с классами и id, содержащими "phone", "tel", "contact"
+        for (Element element : nodes.phoneElements) {
+            PhoneScanner.DEFAULT.findAll(nodes.text(element), 0, phones);
+        }
+
+        return new ArrayList<>(phones);
+    }
+
+    List<String> extractEmails(String html, ContactNodes nodes) {
+        Set<String> emails = new LinkedHashSet<>();
+
+        // Поиск в тексте страницы
+        EmailScanner.findAll(html, email -> {
+            if (ContactRules.isRealEmail(email)) {
+                emails.add(email);
+            }
+        });
+
+        // Ссылки mailto:
+        for (Element link : nodes.mailLinks) {
+            String email = ContactRules.mailLinkEmail(link.attr("href"));
+            if (email != null) {
+                emails.add(email);
+            }
+        }
+
+        // Элементы с классами и id, содержащими "email", "mail"
+        for (Element element : nodes.emailElements) {
+            EmailScanner.findAll(nodes.text(element), emails::add);
+        }
+
+        return new ArrayList<>(emails);
+    }
+
+    List<String> extractAddresses(ContactNodes nodes) {
+        Set<String> addresses = new LinkedHashSet<>();
+
+        // Структурированные данные (schema.org) и тег address
+        for (Element element : nodes.structuredAddresses) {
+            String address = nodes.text(element).trim();
+            if (ContactRules.isStructuredAddress(address)) {
+                addresses.add(address);
+            }
+        }
+
+        // Элементы с классами и id, содержащими "address", "адрес", "location"
+        for (Element element : nodes.addressElements) {
+            String address = nodes.text(element).trim();
+            if (ContactRules.isAddress(address)) {
+                addresses.add(address);
+            }
+        }
+
+        // Футер и блоки контактов
+        for (Element element : nodes.footerElements) {
+            ContactRules.footerAddresses(nodes.text(element), addresses::add);
+        }
+
+        return new ArrayList<>(addresses);
+    }
+
+    String extractWorkingHours(Document doc, ContactNodes nodes) {
+        // Структурированные данные (schema.org)
+        if (nodes.openingHours != null) {
+            return nodes.text(nodes.openingHours).trim();
+        }
+
+        // Элементы с классами и id, содержащими "hours", "time", "расписание", "work"
+        for (Element element : nodes.hoursElements) {
+            String text = nodes.text(element).trim();
+            if (ContactRules.isWorkingHours(text)) {
+                return text;
+            }
+        }
+
+        // Паттерн времени работы в тексте страницы
+        Matcher matcher = ContactRules.HOURS_PATTERN.matcher(nodes.text(doc.body()));
+        if (matcher.find()) {
+            return ContactRules.truncateHours(matcher.group());
+        }
+
+        return null;
+    }
+
+    /**
+     * Раскладывает элементы документа по правилам {@link ContactRules} за один обход дерева
+     */
+    static class ContactNodes implements NodeVisitor {
+        private final List<Element> telLinks = new ArrayList<>();
+        private final List<Element> mailLinks = new ArrayList<>();
+        private final List<Element> phoneElements = new ArrayList<>();
+        private final List<Element> emailElements = new ArrayList<>();
+        private final List<Element> structuredAddresses = new ArrayList<>();
+        private final List<Element> addressElements = new ArrayList<>();
+        private final List<Element> footerElements = new ArrayList<>();
+        private final List<Element> hoursElements = new ArrayList<>();
+        private Element openingHours;
+
+        private final Map<Element, String> texts = new IdentityHashMap<>();
+
+        private ContactNodes() {
+        }
+
+        static ContactNodes collect(Document doc) {
+            ContactNodes nodes = new ContactNodes();
+            NodeTraversor.traverse(nodes, doc);
+            return nodes;
+        }
+
+        @Override
+        public void head(Node node, int depth) {
+            if (!(node instanceof Element element)) {
+                return;
+            }
+            int flags = element.attributesSize() == 0
+                    // Без атрибутов элемент может подойти только по имени тега
+                    ? ContactRules.classify(element.normalName(), "", "", "", "", "")
+                    : ContactRules.classify(element.normalName(), element.attr("class"), element.attr("id"),
+                            element.attr("itemprop"), element.attr("itemtype"), element.attr("href"));
+            if (flags == 0) {
+                return;
+            }
+            add(flags, ContactRules.TEL_LINK, telLinks, element);
+            add(flags, ContactRules.MAIL_LINK, mailLinks, element);
+            add(flags, ContactRules.PHONE, phoneElements, element);
+            add(flags, ContactRules.EMAIL, emailElements, element);
+            add(flags, ContactRules.STRUCTURED_ADDRESS, structuredAddresses, element);
+            add(flags, ContactRules.ADDRESS, addressElements, element);
+            add(flags, ContactRules.FOOTER, footerElements, element);
+            add(flags, ContactRules.HOURS, hoursElements, element);
+            if (openingHours == null && (flags & ContactRules.OPENING_HOURS) != 0) {
+                openingHours = element;
+            }
+        }
+
+        private static void add(int flags, int rule, List<Element> elements, Element element) {
+            if ((flags & rule) != 0) {
+                elements.add(element);
+            }
+        }
+
+        @Override
+        public void tail(Node node, int depth) {
+        }
+
+        /**
+         * Текст элемента, построенный один раз для всех правил
+         */
+        private String text(Element element) {
+            return texts.computeIfAbsent(element, Element::text);
+        }
+    }
+}
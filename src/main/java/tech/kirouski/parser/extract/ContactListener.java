@@ -0,0 +1,11 @@
+package tech.kirouski.parser.extract;
+
+/**
+ * Получает контакты по мере их обнаружения при потоковом разборе страницы.
+ * Каждое значение передается один раз.
+ */
+@FunctionalInterface
+public interface ContactListener {
+
+    void onContact(ContactType type, String value);
+}
@@ -0,0 +1,178 @@
+package tech.kirouski.parser.extract;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Правила отбора элементов и текста с контактами, общие для разбора по DOM и потокового разбора.
+ * Условия на атрибуты повторяют семантику селекторов jsoup: [attr*=value] и [attr^=value] сравнивают
+ * без учета регистра, [attr=value] — без учета регистра и пробелов по краям, .class — по словам атрибута class.
+ */
+final class ContactRules {
+
+    static final int TEL_LINK = 1;
+    static final int MAIL_LINK = 1 << 1;
+    static final int PHONE = 1 << 2;
+    static final int EMAIL = 1 << 3;
+    static final int STRUCTURED_ADDRESS = 1 << 4;
+    static final int ADDRESS = 1 << 5;
+    static final int FOOTER = 1 << 6;
+    static final int OPENING_HOURS = 1 << 7;
+    static final int HOURS = 1 << 8;
+
+    /**
+     * Правила, для которых нужен текст элемента
+     */
+    static final int NEEDS_TEXT = STRUCTURED_ADDRESS | ADDRESS | FOOTER | OPENING_HOURS | HOURS;
+
+    /**
+     * Признаки адреса в тексте футера и блока контактов (улица, дом, город)
+     */
+    private static final Pattern STREET_PATTERN = Pattern.compile(".*(улица|ул\\.|street|st\\.|проспект|пр\\.|avenue|av\\.).*");
+
+    private static final Pattern HAS_DIGIT_PATTERN = Pattern.compile(".*\\d+.*");
+
+    private static final Pattern TIME_PATTERN = Pattern.compile(".*\\d{1,2}:\\d{2}.*");
+
+    /**
+     * Время работы в тексте страницы
+     */
+    static final Pattern HOURS_PATTERN = Pattern.compile(
+            "(?:пн|пон|mon|monday)[\\s:-]*\\d{1,2}:\\d{2}[\\s-]*\\d{1,2}:\\d{2}.*",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE
+    );
+
+    private ContactRules() {
+    }
+
+    /**
+     * Определяет, под какие правила подходит элемент. Значения атрибутов передаются как есть, отсутствующий атрибут — пустая строка.
+     */
+    static int classify(String tag, String classAttr, String idAttr, String itempropAttr, String itemtypeAttr, String hrefAttr) {
+        int flags = 0;
+        String cls = lower(classAttr);
+        String id = lower(idAttr);
+        String itemprop = itempropAttr.trim();
+
+        if (tag.equals("a")) {
+            String href = lower(hrefAttr);
+            if (href.startsWith("tel:")) {
+                flags |= TEL_LINK;
+            }
+            if (href.startsWith("mailto:")) {
+                flags |= MAIL_LINK;
+            }
+        }
+
+        if (cls.contains("phone") || cls.contains("tel") || cls.contains("contact")
+                || id.contains("phone") || id.contains("tel")) {
+            flags |= PHONE;
+        }
+        // "email" содержит "mail", поэтому достаточно одной проверки
+        if (cls.contains("mail") || id.contains("mail")) {
+            flags |= EMAIL;
+        }
+
+        if (lower(itemtypeAttr).contains("postaladdress")
+                || itemprop.equalsIgnoreCase("address") || tag.equals("address")) {
+            flags |= STRUCTURED_ADDRESS;
+        }
+        if (cls.contains("address") || cls.contains("адрес") || cls.contains("location")
+                || id.contains("address") || id.contains("адрес") || id.contains("location")) {
+            flags |= ADDRESS;
+        }
+        if (tag.equals("footer") || hasClass(cls, "footer") || hasClass(cls, "contacts")
+                || hasClass(cls, "contact-info") || hasClass(cls, "address-block")) {
+            flags |= FOOTER;
+        }
+
+        if (itemprop.equalsIgnoreCase("openingHours") || itemprop.equalsIgnoreCase("openingHoursSpecification")) {
+            flags |= OPENING_HOURS;
+        }
+        if (cls.contains("hours") || cls.contains("time") || cls.contains("расписание") || cls.contains("work")
+                || id.contains("hours") || id.contains("time") || id.contains("расписание")) {
+            flags |= HOURS;
+        }
+        return flags;
+    }
+
+    /**
+     * Телефон из ссылки tel: или null
+     */
+    static String telLinkPhone(String href) {
+        String tel = href.replace("tel:", "").trim();
+        return tel.isEmpty() ? null : PhoneScanner.normalize(tel);
+    }
+
+    /**
+     * Email из ссылки mailto: или null
+     */
+    static String mailLinkEmail(String href) {
+        String email = href.replace("mailto:", "").split("[?]")[0].trim().toLowerCase();
+        return email.isEmpty() ? null : email;
+    }
+
+    /**
+     * Email со страницы, кроме адресов-заглушек
+     */
+    static boolean isRealEmail(String email) {
+        return !email.contains("@example") && !email.contains("@test");
+    }
+
+    static boolean isStructuredAddress(String text) {
+        return text.length() > 10;
+    }
+
+    static boolean isAddress(String text) {
+        return text.length() > 10 && !text.contains("@"); // Исключаем email
+    }
+
+    /**
+     * Строки текста футера или блока контактов, похожие на адрес
+     */
+    static void footerAddresses(String text, Consumer<String> addresses) {
+        if (STREET_PATTERN.matcher(text).matches()) {
+            for (String line : text.split("\n")) {
+                line = line.trim();
+                if (line.length() > 15 && HAS_DIGIT_PATTERN.matcher(line).matches()) { // Содержит цифры
+                    addresses.accept(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Похож ли текст элемента с классом "hours", "time" и т.п. на время работы
+     */
+    static boolean isWorkingHours(String text) {
+        String lowerText = text.toLowerCase();
+        return lowerText.contains("пн") || lowerText.contains("mon") ||
+                lowerText.contains("вт") || lowerText.contains("tue") ||
+                TIME_PATTERN.matcher(text).matches();
+    }
+
+    /**
+     * Время работы, найденное в тексте страницы, не длиннее 200 символов
+     */
+    static String truncateHours(String match) {
+        return match.length() > 200 ? match.substring(0, 200) + "..." : match;
+    }
+
+    private static boolean hasClass(String cls, String className) {
+        int index = cls.indexOf(className);
+        while (index >= 0) {
+            int end = index + className.length();
+            if ((index == 0 || Character.isWhitespace(cls.charAt(index - 1)))
+                    && (end == cls.length() || Character.isWhitespace(cls.charAt(end)))) {
+                return true;
+            }
+            index = cls.indexOf(className, index + 1);
+        }
+        return false;
+    }
+
+    private static String lower(String value) {
+        return value.isEmpty() ? value : value.toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,11 @@
+package tech.kirouski.parser.extract;
+
+/**
+ * Вид контактной информации
+ */
+public enum ContactType {
+    PHONE,
+    EMAIL,
+    ADDRESS,
+    WORKING_HOURS
+}
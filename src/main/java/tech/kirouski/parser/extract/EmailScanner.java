@@ -0,0 +1,106 @@
+package tech.kirouski.parser.extract;
+
+import java.util.function.Consumer;
+
+/**
+ * Поиск email за один линейный проход без регулярных выражений. Результат совпадает
+ * с поиском по [a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}: для каждого '@' локальная часть —
+ * непрерывная серия допустимых символов перед ним, домен заканчивается на последней точке серии,
+ * за которой идут хотя бы две буквы.
+ */
+public final class EmailScanner {
+
+    private EmailScanner() {
+    }
+
+    /**
+     * Передает consumer каждый найденный email в нижнем регистре
+     */
+    public static void findAll(CharSequence text, Consumer<String> emails) {
+        scan(text, 0, true, emails);
+    }
+
+    /**
+     * Поиск по фрагменту потока начиная с позиции from. Если endOfInput = false, email, домен которого
+     * доходит до конца фрагмента, откладывается. Возвращает позицию, с которой нужно сохранить текст
+     * для следующего вызова: начало отложенного email или серии символов, которая может стать его локальной частью.
+     */
+    public static int scan(CharSequence text, int from, boolean endOfInput, Consumer<String> emails) {
+        int length = text.length();
+        int pos = from;
+        for (int at = indexOf(text, '@', pos); at >= 0; at = indexOf(text, '@', at + 1)) {
+            // Локальная часть: серия допустимых символов, упирающаяся в '@', но не раньше конца предыдущего email
+            int start = at;
+            while (start > pos && isLocalChar(text.charAt(start - 1))) {
+                start--;
+            }
+            if (start == at) {
+                continue;
+            }
+
+            // Домен: серия допустимых символов после '@'
+            int domainEnd = at + 1;
+            while (domainEnd < length && isDomainChar(text.charAt(domainEnd))) {
+                domainEnd++;
+            }
+            if (domainEnd == length && !endOfInput) {
+                return start;
+            }
+            // Последняя точка серии, за которой идут две буквы, при этом перед ней есть хотя бы один символ домена
+            int dot = -1;
+            for (int i = domainEnd - 3; i > at + 1; i--) {
+                if (text.charAt(i) == '.' && isLetter(text.charAt(i + 1)) && isLetter(text.charAt(i + 2))) {
+                    dot = i;
+                    break;
+                }
+            }
+            if (dot < 0) {
+                continue;
+            }
+            int end = dot + 3;
+            while (end < domainEnd && isLetter(text.charAt(end))) {
+                end++;
+            }
+
+            char[] email = new char[end - start];
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                email[i - start] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+            }
+            emails.accept(new String(email));
+            pos = end;
+        }
+        if (endOfInput) {
+            return length;
+        }
+        int keep = length;
+        while (keep > pos && isLocalChar(text.charAt(keep - 1))) {
+            keep--;
+        }
+        return keep;
+    }
+
+    private static int indexOf(CharSequence text, char c, int from) {
+        if (text instanceof String s) {
+            return s.indexOf(c, from);
+        }
+        for (int i = from; i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9') || c == '.' || c == '-';
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isDomainChar(c) || c == '_' || c == '%' || c == '+';
+    }
+}
@@ -0,0 +1,107 @@
+package tech.kirouski.parser.extract;
+
+import java.util.List;
+
+/**
+ * Правило формата телефонного номера: последовательность шагов, каждый из которых совпадает
+ * с одним из шаблонов. В шаблоне '#' — любая цифра, '~' — пробельный символ, остальные символы совпадают буквально.
+ * Шаблоны шага перебираются по порядку, необязательный шаг в конце пробует пустое совпадение —
+ * так же, как жадные квантификаторы и альтернативы регулярного выражения.
+ */
+public final class PhoneRule {
+
+    /**
+     * Необязательный пробел
+     */
+    public static final Step SPACE = optional("~");
+
+    /**
+     * Необязательный разделитель: дефис или скобка
+     */
+    public static final Step BRACKET = optional("-", "(", ")");
+
+    /**
+     * Необязательный разделитель: дефис, точка или пробел
+     */
+    public static final Step SEPARATOR = optional("-", ".", "~");
+
+    private final String name;
+    private final List<Step> steps;
+
+    public PhoneRule(String name, Step... steps) {
+        this.name = name;
+        this.steps = List.of(steps);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Максимальная длина номера, который может совпасть с правилом
+     */
+    public int maxLength() {
+        int length = 0;
+        for (Step step : steps) {
+            int longest = 0;
+            for (String template : step.templates()) {
+                longest = Math.max(longest, template.length());
+            }
+            length += longest;
+        }
+        return length;
+    }
+
+    /**
+     * Минимальное количество цифр в номере, совпавшем с правилом
+     */
+    public int minDigits() {
+        int digits = 0;
+        for (Step step : steps) {
+            if (step.optional()) {
+                continue;
+            }
+            int fewest = Integer.MAX_VALUE;
+            for (String template : step.templates()) {
+                int count = 0;
+                for (int i = 0; i < template.length(); i++) {
+                    char c = template.charAt(i);
+                    if (c == '#' || (c >= '0' && c <= '9')) {
+                        count++;
+                    }
+                }
+                fewest = Math.min(fewest, count);
+            }
+            digits += fewest;
+        }
+        return digits;
+    }
+
+    /**
+     * Шаг, который обязательно совпадает с одним из шаблонов
+     */
+    public static Step one(String... templates) {
+        return new Step(templates, false);
+    }
+
+    /**
+     * Шаг, который совпадает с одним из шаблонов или пропускается
+     */
+    public static Step optional(String... templates) {
+        return new Step(templates, true);
+    }
+
+    /**
+     * n цифр подряд
+     */
+    public static Step digits(int n) {
+        return one("#".repeat(n));
+    }
+
+    public record Step(String[] templates, boolean optional) {
+    }
+}
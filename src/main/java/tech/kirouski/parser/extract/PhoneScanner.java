@@ -0,0 +1,274 @@
+package tech.kirouski.parser.extract;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static tech.kirouski.parser.extract.PhoneRule.BRACKET;
+import static tech.kirouski.parser.extract.PhoneRule.SEPARATOR;
+import static tech.kirouski.parser.extract.PhoneRule.SPACE;
+import static tech.kirouski.parser.extract.PhoneRule.digits;
+import static tech.kirouski.parser.extract.PhoneRule.one;
+import static tech.kirouski.parser.extract.PhoneRule.optional;
+
+/**
+ * Поиск телефонов по таблице правил за линейное время. В каждой позиции правила пробуются по порядку,
+ * первое совпавшее побеждает — результат тот же, что у регулярного выражения с альтернативами правил.
+ * Неудачные состояния (шаг, смещение) запоминаются, поэтому работа в одной позиции ограничена
+ * числом шагов, умноженным на длину номера. Позиции, с которых номер начаться не может, и позиции,
+ * после которых на длине номера слишком мало цифр, пропускаются без сопоставления.
+ */
+public final class PhoneScanner {
+
+    /**
+     * Беларусь: +375 / 8, код оператора, 3-2-2
+     */
+    public static final PhoneRule BY = new PhoneRule("BY",
+            optional("+375", "375", "8"), SPACE, BRACKET, SPACE,
+            one("29", "25", "33", "44", "17"), SPACE, BRACKET, SPACE,
+            digits(3), BRACKET, SPACE, digits(2), BRACKET, SPACE, digits(2));
+
+    /**
+     * Россия: +7 / 8, код, 3-2-2
+     */
+    public static final PhoneRule RU = new PhoneRule("RU",
+            optional("+7", "7", "8"), SPACE, BRACKET, SPACE,
+            digits(3), SPACE, BRACKET, SPACE,
+            digits(3), BRACKET, SPACE, digits(2), BRACKET, SPACE, digits(2));
+
+    /**
+     * Международный формат: код страны до трех цифр, (3) 3-4. Простой формат 3-3-4 — его частный случай.
+     */
+    public static final PhoneRule INTERNATIONAL = new PhoneRule("INTERNATIONAL",
+            optional("+###", "+##", "+#", "###", "##", "#"), SEPARATOR, optional("("),
+            digits(3), optional(")"), SEPARATOR, digits(3), SEPARATOR, digits(4));
+
+    public static final PhoneScanner DEFAULT = new PhoneScanner(List.of(BY, RU, INTERNATIONAL));
+
+    private final PhoneRule.Step[][] rules;
+    private final boolean[] startChars = new boolean[128];
+    private final int maxLength;
+    private final int minDigits;
+
+    public PhoneScanner(List<PhoneRule> rules) {
+        this.rules = new PhoneRule.Step[rules.size()][];
+        int longest = 0;
+        int fewestDigits = Integer.MAX_VALUE;
+        for (int i = 0; i < rules.size(); i++) {
+            PhoneRule rule = rules.get(i);
+            if (rule.maxLength() >= Long.SIZE) {
+                throw new IllegalArgumentException("Правило " + rule.getName() + " допускает слишком длинный номер");
+            }
+            this.rules[i] = rule.getSteps().toArray(PhoneRule.Step[]::new);
+            collectStartChars(this.rules[i]);
+            longest = Math.max(longest, rule.maxLength());
+            fewestDigits = Math.min(fewestDigits, rule.minDigits());
+        }
+        this.maxLength = longest;
+        this.minDigits = fewestDigits;
+    }
+
+    /**
+     * Находит телефоны в тексте и добавляет их в нормализованном виде. Номера короче minLength символов
+     * (без пробелов по краям) пропускаются.
+     */
+    public void findAll(CharSequence text, int minLength, Collection<String> phones) {
+        scan(text, 0, true, minLength, phones);
+    }
+
+    /**
+     * Поиск по фрагменту потока начиная с позиции from. Если endOfInput = false, поиск останавливается там,
+     * где для решения нужен текст дальше конца фрагмента. Возвращает позицию, с которой нужно продолжить
+     * после добавления следующего фрагмента; текст до нее больше не нужен.
+     */
+    public int scan(CharSequence text, int from, boolean endOfInput, int minLength, Collection<String> phones) {
+        int length = text.length();
+        long[] failed = new long[maxSteps()];
+        // Количество цифр в окне [windowStart, windowEnd), которое сдвигается вместе с pos на длину самого длинного номера
+        int windowStart = from;
+        int windowEnd = from;
+        int windowDigits = 0;
+        int pos = from;
+        while (pos < length && (endOfInput || pos + maxLength <= length)) {
+            char c = text.charAt(pos);
+            if (c >= 128 || !startChars[c]) {
+                pos++;
+                continue;
+            }
+            for (; windowStart < pos; windowStart++) {
+                if (windowStart < windowEnd && isDigit(text.charAt(windowStart))) {
+                    windowDigits--;
+                }
+            }
+            windowEnd = Math.max(windowEnd, windowStart);
+            for (int limit = Math.min(length, pos + maxLength); windowEnd < limit; windowEnd++) {
+                if (isDigit(text.charAt(windowEnd))) {
+                    windowDigits++;
+                }
+            }
+            if (windowDigits < minDigits) {
+                pos++;
+                continue;
+            }
+            int end = match(text, pos, failed);
+            if (end < 0) {
+                pos++;
+                continue;
+            }
+            int start = pos;
+            int stop = end;
+            while (start < stop && text.charAt(start) <= ' ') {
+                start++;
+            }
+            while (stop > start && text.charAt(stop - 1) <= ' ') {
+                stop--;
+            }
+            if (stop - start >= minLength) {
+                phones.add(normalize(text, start, stop));
+            }
+            pos = end;
+        }
+        return pos;
+    }
+
+    /**
+     * Оставляет в номере только цифры и '+', ведущую 8 заменяет на +375
+     */
+    public static String normalize(CharSequence phone) {
+        return normalize(phone, 0, phone.length());
+    }
+
+    private static String normalize(CharSequence phone, int start, int end) {
+        // Три свободных символа в начале буфера — место под "+37" на случай замены ведущей 8 на +375
+        char[] buffer = new char[end - start + 3];
+        int length = 3;
+        for (int i = start; i < end; i++) {
+            char c = phone.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '+') {
+                buffer[length++] = c;
+            }
+        }
+        if (length > 3 && buffer[3] == '8') {
+            buffer[0] = '+';
+            buffer[1] = '3';
+            buffer[2] = '7';
+            buffer[3] = '5';
+            return new String(buffer, 0, length);
+        }
+        return new String(buffer, 3, length - 3);
+    }
+
+    /**
+     * Возвращает конец номера, начинающегося в позиции start, по первому совпавшему правилу, или -1
+     */
+    private int match(CharSequence text, int start, long[] failed) {
+        for (PhoneRule.Step[] steps : rules) {
+            Arrays.fill(failed, 0L);
+            int end = matchStep(text, steps, 0, start, start, failed);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        return -1;
+    }
+
+    private int matchStep(CharSequence text, PhoneRule.Step[] steps, int step, int start, int pos, long[] failed) {
+        if (step == steps.length) {
+            return pos;
+        }
+        long state = 1L << (pos - start);
+        if ((failed[step] & state) != 0) {
+            return -1;
+        }
+        PhoneRule.Step current = steps[step];
+        for (String template : current.templates()) {
+            if (matchesTemplate(text, pos, template)) {
+                int end = matchStep(text, steps, step + 1, start, pos + template.length(), failed);
+                if (end >= 0) {
+                    return end;
+                }
+            }
+        }
+        if (current.optional()) {
+            int end = matchStep(text, steps, step + 1, start, pos, failed);
+            if (end >= 0) {
+                return end;
+            }
+        }
+        failed[step] |= state;
+        return -1;
+    }
+
+    private static boolean matchesTemplate(CharSequence text, int pos, String template) {
+        if (pos + template.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < template.length(); i++) {
+            if (!matchesChar(template.charAt(i), text.charAt(pos + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesChar(char expected, char c) {
+        return switch (expected) {
+            case '#' -> isDigit(c);
+            case '~' -> isSpace(c);
+            default -> c == expected;
+        };
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Пробельные символы в смысле \s регулярных выражений Java
+     */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Символы, с которых может начаться номер: первые символы шаблонов до первого обязательного шага
+     */
+    private void collectStartChars(PhoneRule.Step[] steps) {
+        for (PhoneRule.Step step : steps) {
+            for (String template : step.templates()) {
+                if (template.isEmpty()) {
+                    continue;
+                }
+                switch (template.charAt(0)) {
+                    case '#' -> {
+                        for (char c = '0'; c <= '9'; c++) {
+                            startChars[c] = true;
+                        }
+                    }
+                    case '~' -> {
+                        for (char c = 0; c < 128; c++) {
+                            startChars[c] |= isSpace(c);
+                        }
+                    }
+                    default -> {
+                        if (template.charAt(0) >= 128) {
+                            throw new IllegalArgumentException("Шаблон телефона должен начинаться с ASCII-символа: " + template);
+                        }
+                        startChars[template.charAt(0)] = true;
+                    }
+                }
+            }
+            if (!step.optional()) {
+                break;
+            }
+        }
+    }
+
+    private int maxSteps() {
+        int max = 0;
+        for (PhoneRule.Step[] steps : rules) {
+            max = Math.max(max, steps.length);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,740 @@
+package tech.kirouski.parser.extract;
+
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.config.ExtractProperties;
+import tech.kirouski.parser.dto.ContactInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+
+/**
+ * Потоковое извлечение контактов для очень больших страниц. HTML читается из Reader фрагментами
+ * и разбирается простым токенизатором без построения DOM: хранится только стек открытых элементов
+ * (имя и правила, под которые он подошел), скользящее окно сырого текста для поиска телефонов и email
+ * и текст элементов, нужный правилам адресов и времени работы (не больше maxElementTextChars на элемент).
+ * Поэтому потребление памяти не зависит от размера страницы. Правила те же, что у {@link ContactExtractor},
+ * но вложенность элементов восстанавливается упрощенно, а длинный текст элемента обрезается,
+ * так что на некорректной разметке результат может отличаться. Полный HTML в результат не попадает.
+ */
+@Component
+public class StreamingContactExtractor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingContactExtractor.class);
+
+    private static final int CHUNK_CHARS = 8192;
+
+    /**
+     * Максимальная длина хранимого тега с атрибутами, остальное отбрасывается
+     */
+    private static final int MAX_TAG_CHARS = 16 * 1024;
+
+    /**
+     * Сколько символов сохраняется для email, который может продолжиться в следующем фрагменте
+     */
+    private static final int MAX_EMAIL_CHARS = 1024;
+
+    /**
+     * Максимальное количество одновременно открытых элементов, для которых накапливается текст
+     */
+    private static final int MAX_TEXT_FRAMES = 32;
+
+    private static final int HOURS_WINDOW_CHARS = 8192;
+    private static final int HOURS_TAIL_CHARS = 256;
+
+    private static final Set<String> VOID_TAGS = Set.of("area", "base", "br", "col", "embed", "hr", "img", "input",
+            "link", "meta", "param", "source", "track", "wbr");
+
+    /**
+     * Элементы, содержимое которых не разбирается как разметка
+     */
+    private static final Set<String> RAW_TEXT_TAGS = Set.of("script", "style", "textarea", "title", "xmp", "iframe",
+            "noembed", "noframes");
+
+    /**
+     * Элементы, которые неявно закрываются таким же следующим элементом
+     */
+    private static final Set<String> SELF_CLOSING_SIBLINGS = Set.of("p", "li", "dt", "dd", "option", "tr", "td", "th");
+
+    private final ExtractProperties properties;
+
+    @Autowired
+    public StreamingContactExtractor(ExtractProperties properties) {
+        this.properties = properties;
+    }
+
+    public ContactInfo extract(InputStream input, Charset charset, ContactListener listener) throws IOException {
+        return extract(new InputStreamReader(input, charset), listener);
+    }
+
+    /**
+     * Разбирает HTML из reader, сообщая listener о каждом новом телефоне, email и адресе сразу после обнаружения.
+     * Время работы определяется по всей странице и сообщается в конце.
+     */
+    public ContactInfo extract(Reader reader, ContactListener listener) throws IOException {
+        StreamParse parse = new StreamParse(listener);
+        char[] chunk = new char[CHUNK_CHARS];
+        int read;
+        while ((read = reader.read(chunk)) != -1) {
+            parse.feed(chunk, read);
+        }
+        ContactInfo contactInfo = parse.finish();
+        logger.info("Извлечена контактная информация (потоковый разбор): телефоны={}, emails={}, адреса={}, время работы={}",
+                contactInfo.getPhones().size(),
+                contactInfo.getEmails().size(),
+                contactInfo.getAddresses().size(),
+                contactInfo.getWorkingHours() != null ? "найдено" : "не найдено");
+        return contactInfo;
+    }
+
+    private enum State {
+        DATA, TAG_OPEN, TAG, MARKUP, COMMENT, BOGUS, RAW_TEXT
+    }
+
+    private record Found(long seq, String text) {
+    }
+
+    private static final class Frame {
+        private final String name;
+        private final int flags;
+        private final long seq;
+        private StringBuilder text;
+
+        private Frame(String name, int flags, long seq) {
+            this.name = name;
+            this.flags = flags;
+            this.seq = seq;
+        }
+    }
+
+    /**
+     * Состояние разбора одной страницы
+     */
+    private final class StreamParse {
+        private final ContactListener listener;
+
+        private final Set<String> rawPhones = new LinkedHashSet<>();
+        private final Set<String> linkPhones = new LinkedHashSet<>();
+        private final Set<String> textPhones = new LinkedHashSet<>();
+        private final Set<String> rawEmails = new LinkedHashSet<>();
+        private final Set<String> linkEmails = new LinkedHashSet<>();
+        private final Set<String> textEmails = new LinkedHashSet<>();
+        private final List<Found> structuredAddresses = new ArrayList<>();
+        private final List<Found> classAddresses = new ArrayList<>();
+        private final List<Found> footerAddresses = new ArrayList<>();
+        private final Set<String> seenAddresses = new LinkedHashSet<>();
+        private boolean openingHoursSeen;
+        private String openingHours;
+        private Found hoursElement;
+
+        // Поиск телефонов и email в сыром HTML, в тексте элементов "phone" и в тексте элементов "mail"
+        private final ScanWindow raw = new ScanWindow(7, rawPhones, rawEmails, true);
+        private final ScanWindow phoneText = new ScanWindow(0, textPhones, null, false);
+        private final ScanWindow emailText = new ScanWindow(0, null, textEmails, false);
+        private final HoursWindow bodyHours = new HoursWindow();
+
+        private final List<Frame> stack = new ArrayList<>();
+        private final List<Frame> textFrames = new ArrayList<>();
+        private long seq;
+        private int phoneDepth;
+        private int emailDepth;
+        private boolean inHead;
+
+        private State state = State.DATA;
+        private final StringBuilder tag = new StringBuilder();
+        private boolean endTag;
+        private char quote;
+        private char lastTagChar;
+        private int dashes;
+        private String rawName;
+        private int rawMatched;
+        private boolean rawKeepsText;
+
+        private final StringBuilder pending = new StringBuilder();
+        private final StringBuilder normalized = new StringBuilder();
+        private boolean lastWhite = true;
+
+        private StreamParse(ContactListener listener) {
+            this.listener = listener;
+        }
+
+        private void feed(char[] chunk, int length) {
+            raw.append(chunk, length);
+            for (int i = 0; i < length; i++) {
+                process(chunk[i]);
+            }
+        }
+
+        private ContactInfo finish() {
+            flushText(pending.length());
+            while (!stack.isEmpty()) {
+                closeFrame(stack.remove(stack.size() - 1));
+            }
+            raw.finish();
+            phoneText.finish();
+            emailText.finish();
+            bodyHours.finish();
+
+            ContactInfo contactInfo = new ContactInfo();
+            Set<String> phones = new LinkedHashSet<>(rawPhones);
+            phones.addAll(linkPhones);
+            phones.addAll(textPhones);
+            contactInfo.setPhones(new ArrayList<>(phones));
+
+            Set<String> emails = new LinkedHashSet<>(rawEmails);
+            emails.addAll(linkEmails);
+            emails.addAll(textEmails);
+            contactInfo.setEmails(new ArrayList<>(emails));
+
+            // Элементы закрываются в обратном порядке вложенности, а порядок результата — порядок начала элементов
+            Set<String> addresses = new LinkedHashSet<>();
+            for (List<Found> found : List.of(structuredAddresses, classAddresses, footerAddresses)) {
+                found.sort(Comparator.comparingLong(Found::seq));
+                found.forEach(address -> addresses.add(address.text()));
+            }
+            contactInfo.setAddresses(new ArrayList<>(addresses));
+
+            String workingHours = openingHours != null ? openingHours
+                    : hoursElement != null ? hoursElement.text()
+                    : bodyHours.result;
+            contactInfo.setWorkingHours(workingHours);
+            if (workingHours != null) {
+                listener.onContact(ContactType.WORKING_HOURS, workingHours);
+            }
+            return contactInfo;
+        }
+
+        private void process(char c) {
+            switch (state) {
+                case DATA -> {
+                    if (c == '<') {
+                        state = State.TAG_OPEN;
+                    } else {
+                        text(c);
+                    }
+                }
+                case TAG_OPEN -> {
+                    if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '/') {
+                        flushText(pending.length());
+                        tag.setLength(0);
+                        endTag = c == '/';
+                        if (!endTag) {
+                            tag.append(c);
+                        }
+                        quote = 0;
+                        lastTagChar = c;
+                        state = State.TAG;
+                    } else if (c == '!') {
+                        flushText(pending.length());
+                        dashes = 0;
+                        state = State.MARKUP;
+                    } else if (c == '?') {
+                        flushText(pending.length());
+                        state = State.BOGUS;
+                    } else if (c != '<') {
+                        // Одиночный '<' — обычный текст
+                        text('<');
+                        text(c);
+                        state = State.DATA;
+                    } else {
+                        text('<');
+                    }
+                }
+                case TAG -> {
+                    if (quote != 0) {
+                        if (c == quote) {
+                            quote = 0;
+                        }
+                        appendTag(c);
+                    } else if (c == '>') {
+                        state = State.DATA;
+                        tagEnd();
+                    } else {
+                        if ((c == '"' || c == '\'') && lastTagChar == '=') {
+                            quote = c;
+                        }
+                        appendTag(c);
+                    }
+                }
+                case MARKUP -> {
+                    if (c == '-' && ++dashes == 2) {
+                        dashes = 0;
+                        state = State.COMMENT;
+                    } else if (c == '>') {
+                        state = State.DATA;
+                    } else if (c != '-') {
+                        state = State.BOGUS;
+                    }
+                }
+                case COMMENT -> {
+                    if (c == '>' && dashes >= 2) {
+                        state = State.DATA;
+                    } else if (c == '-') {
+                        dashes++;
+                    } else {
+                        dashes = 0;
+                    }
+                }
+                case BOGUS -> {
+                    if (c == '>') {
+                        state = State.DATA;
+                    }
+                }
+                case RAW_TEXT -> rawText(c);
+            }
+        }
+
+        private void appendTag(char c) {
+            if (tag.length() < MAX_TAG_CHARS) {
+                tag.append(c);
+            }
+            if (!Character.isWhitespace(c)) {
+                lastTagChar = c;
+            }
+        }
+
+        private void tagEnd() {
+            String content = tag.toString();
+            String name = tagName(content);
+            if (name.isEmpty()) {
+                return;
+            }
+            if (endTag) {
+                endElement(name);
+            } else {
+                startElement(name, content);
+            }
+        }
+
+        private void startElement(String name, String content) {
+            if (name.equals("head")) {
+                inHead = true;
+            } else if (name.equals("body")) {
+                inHead = false;
+            }
+            Frame top = stack.isEmpty() ? null : stack.get(stack.size() - 1);
+            boolean block = Tag.valueOf(name).isBlock();
+            if (top != null && ((SELF_CLOSING_SIBLINGS.contains(name) && top.name.equals(name))
+                    || (block && top.name.equals("p")))) {
+                closeFrame(stack.remove(stack.size() - 1));
+            }
+            if (block || name.equals("br")) {
+                softSpace();
+            }
+
+            String[] attributes = attributes(content, name.length());
+            String href = attributes[4];
+            int flags = ContactRules.classify(name, attributes[0], attributes[1], attributes[2], attributes[3], href);
+            if ((flags & ContactRules.TEL_LINK) != 0) {
+                addPhone(linkPhones, ContactRules.telLinkPhone(href));
+            }
+            if ((flags & ContactRules.MAIL_LINK) != 0) {
+                addEmail(linkEmails, ContactRules.mailLinkEmail(href));
+            }
+            if ((flags & ContactRules.OPENING_HOURS) != 0) {
+                // Время работы берется только из первого такого элемента
+                if (openingHoursSeen) {
+                    flags &= ~ContactRules.OPENING_HOURS;
+                }
+                openingHoursSeen = true;
+            }
+
+            Frame frame = new Frame(name, flags, seq++);
+            if ((flags & ContactRules.NEEDS_TEXT) != 0 && textFrames.size() < MAX_TEXT_FRAMES) {
+                frame.text = new StringBuilder();
+                textFrames.add(frame);
+            }
+            if ((flags & ContactRules.PHONE) != 0) {
+                phoneDepth++;
+            }
+            if ((flags & ContactRules.EMAIL) != 0) {
+                emailDepth++;
+            }
+
+            boolean selfClosing = content.endsWith("/") && !Tag.isKnownTag(name);
+            if (VOID_TAGS.contains(name) || selfClosing || stack.size() >= properties.getMaxDepth()) {
+                closeFrame(frame);
+            } else {
+                stack.add(frame);
+            }
+
+            if (RAW_TEXT_TAGS.contains(name) && !selfClosing) {
+                rawName = name;
+                rawMatched = 0;
+                rawKeepsText = name.equals("textarea") || name.equals("title");
+                state = State.RAW_TEXT;
+            }
+        }
+
+        private void endElement(String name) {
+            if (name.equals("head")) {
+                inHead = false;
+            }
+            for (int i = stack.size() - 1; i >= 0; i--) {
+                if (stack.get(i).name.equals(name)) {
+                    while (stack.size() > i) {
+                        closeFrame(stack.remove(stack.size() - 1));
+                    }
+                    if (name.equals("br") || Tag.valueOf(name).isBlock()) {
+                        softSpace();
+                    }
+                    return;
+                }
+            }
+        }
+
+        private void closeFrame(Frame frame) {
+            if ((frame.flags & ContactRules.PHONE) != 0 && --phoneDepth == 0) {
+                phoneText.finish();
+            }
+            if ((frame.flags & ContactRules.EMAIL) != 0 && --emailDepth == 0) {
+                emailText.finish();
+            }
+            if (frame.text == null) {
+                return;
+            }
+            textFrames.remove(frame);
+            String text = frame.text.toString().trim();
+            frame.text = null;
+
+            if ((frame.flags & ContactRules.STRUCTURED_ADDRESS) != 0 && ContactRules.isStructuredAddress(text)) {
+                addAddress(structuredAddresses, frame.seq, text);
+            }
+            if ((frame.flags & ContactRules.ADDRESS) != 0 && ContactRules.isAddress(text)) {
+                addAddress(classAddresses, frame.seq, text);
+            }
+            if ((frame.flags & ContactRules.FOOTER) != 0) {
+                ContactRules.footerAddresses(text, line -> addAddress(footerAddresses, frame.seq, line));
+            }
+            if ((frame.flags & ContactRules.OPENING_HOURS) != 0) {
+                openingHours = text;
+            }
+            if ((frame.flags & ContactRules.HOURS) != 0 && (hoursElement == null || frame.seq < hoursElement.seq())
+                    && ContactRules.isWorkingHours(text)) {
+                hoursElement = new Found(frame.seq, text);
+            }
+        }
+
+        /**
+         * Содержимое script, style и похожих элементов до закрывающего тега
+         */
+        private void rawText(char c) {
+            int nameEnd = rawName.length() + 2;
+            if (rawMatched < nameEnd) {
+                char expected = rawMatched == 0 ? '<' : rawMatched == 1 ? '/' : rawName.charAt(rawMatched - 2);
+                if (Character.toLowerCase(c) == expected) {
+                    rawMatched++;
+                    return;
+                }
+            } else if (c == '>' || c == '/' || Character.isWhitespace(c)) {
+                flushText(pending.length());
+                endElement(rawName);
+                state = c == '>' ? State.DATA : State.BOGUS;
+                rawMatched = 0;
+                return;
+            }
+            if (rawKeepsText && rawMatched > 0) {
+                pending.append("</", 0, Math.min(rawMatched, 2)).append(rawName, 0, Math.max(0, rawMatched - 2));
+            }
+            rawMatched = c == '<' ? 1 : 0;
+            if (rawKeepsText && rawMatched == 0) {
+                text(c);
+            }
+        }
+
+        private void text(char c) {
+            pending.append(c);
+            if (pending.length() >= CHUNK_CHARS) {
+                // Не разрываем сущность вида &amp; между частями
+                int amp = pending.lastIndexOf("&");
+                flushText(amp > pending.length() - 32 ? amp : pending.length());
+            }
+        }
+
+        /**
+         * Раскодирует сущности в первых length символах накопленного текста, схлопывает пробелы
+         * так же, как Element.text(), и передает текст открытым элементам
+         */
+        private void flushText(int length) {
+            if (length <= 0) {
+                return;
+            }
+            String chunk = pending.substring(0, length);
+            pending.delete(0, length);
+            String decoded = chunk.indexOf('&') >= 0 ? Parser.unescapeEntities(chunk, false) : chunk;
+
+            normalized.setLength(0);
+            for (int i = 0; i < decoded.length(); i++) {
+                char c = decoded.charAt(i);
+                if (c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r' || c == 160) {
+                    if (!lastWhite) {
+                        normalized.append(' ');
+                        lastWhite = true;
+                    }
+                } else if (c != 8203 && c != 173) {
+                    normalized.append(c);
+                    lastWhite = false;
+                }
+            }
+            dispatch(normalized);
+        }
+
+        /**
+         * Пробел на границе блочных элементов
+         */
+        private void softSpace() {
+            if (!lastWhite) {
+                lastWhite = true;
+                dispatch(" ");
+            }
+        }
+
+        private void dispatch(CharSequence text) {
+            if (text.isEmpty()) {
+                return;
+            }
+            int limit = properties.getMaxElementTextChars();
+            for (Frame frame : textFrames) {
+                int room = limit - frame.text.length();
+                if (room > 0) {
+                    frame.text.append(text, 0, Math.min(room, text.length()));
+                }
+            }
+            if (phoneDepth > 0) {
+                phoneText.append(text);
+            }
+            if (emailDepth > 0) {
+                emailText.append(text);
+            }
+            if (!inHead) {
+                bodyHours.append(text);
+            }
+        }
+
+        private void addPhone(Set<String> target, String phone) {
+            if (phone == null) {
+                return;
+            }
+            if (!rawPhones.contains(phone) && !linkPhones.contains(phone) && !textPhones.contains(phone)) {
+                listener.onContact(ContactType.PHONE, phone);
+            }
+            target.add(phone);
+        }
+
+        private void addEmail(Set<String> target, String email) {
+            if (email == null) {
+                return;
+            }
+            if (!rawEmails.contains(email) && !linkEmails.contains(email) && !textEmails.contains(email)) {
+                listener.onContact(ContactType.EMAIL, email);
+            }
+            target.add(email);
+        }
+
+        private void addAddress(List<Found> target, long seq, String address) {
+            target.add(new Found(seq, address));
+            if (seenAddresses.add(address)) {
+                listener.onContact(ContactType.ADDRESS, address);
+            }
+        }
+
+        /**
+         * Скользящее окно текста для поиска телефонов и email: текст, который уже не может стать частью
+         * номера или адреса, отбрасывается после каждого фрагмента
+         */
+        private final class ScanWindow {
+            private final StringBuilder text = new StringBuilder();
+            private final int phoneMinLength;
+            private final Set<String> phones;
+            private final Set<String> emails;
+            private final boolean realEmailsOnly;
+            private final List<String> found = new ArrayList<>();
+            private final Consumer<String> emailSink;
+            private int phoneFrom;
+            private int emailFrom;
+
+            private ScanWindow(int phoneMinLength, Set<String> phones, Set<String> emails, boolean realEmailsOnly) {
+                this.phoneMinLength = phoneMinLength;
+                this.phones = phones;
+                this.emails = emails;
+                this.realEmailsOnly = realEmailsOnly;
+                this.emailSink = email -> {
+                    if (!realEmailsOnly || ContactRules.isRealEmail(email)) {
+                        addEmail(this.emails, email);
+                    }
+                };
+            }
+
+            private void append(char[] chunk, int length) {
+                text.append(chunk, 0, length);
+                scan(false);
+            }
+
+            private void append(CharSequence chunk) {
+                text.append(chunk);
+                scan(false);
+            }
+
+            private void finish() {
+                scan(true);
+                text.setLength(0);
+                phoneFrom = 0;
+                emailFrom = 0;
+            }
+
+            private void scan(boolean endOfInput) {
+                int keep = text.length();
+                if (phones != null) {
+                    phoneFrom = PhoneScanner.DEFAULT.scan(text, phoneFrom, endOfInput, phoneMinLength, found);
+                    found.forEach(phone -> addPhone(phones, phone));
+                    found.clear();
+                    keep = Math.min(keep, phoneFrom);
+                }
+                if (emails != null) {
+                    emailFrom = EmailScanner.scan(text, emailFrom, endOfInput, emailSink);
+                    keep = Math.min(keep, Math.max(emailFrom, text.length() - MAX_EMAIL_CHARS));
+                }
+                text.delete(0, keep);
+                phoneFrom = Math.max(0, phoneFrom - keep);
+                emailFrom = Math.max(0, emailFrom - keep);
+            }
+        }
+
+        /**
+         * Поиск времени работы в тексте страницы по окну, из которого отбрасывается уже просмотренный текст
+         */
+        private final class HoursWindow {
+            private final StringBuilder text = new StringBuilder();
+            private int checkedLength;
+            private String result;
+            private boolean done;
+
+            private void append(CharSequence chunk) {
+                if (done) {
+                    return;
+                }
+                text.append(chunk);
+                if (text.length() - checkedLength >= HOURS_WINDOW_CHARS) {
+                    check(false);
+                }
+            }
+
+            private void finish() {
+                if (!done) {
+                    check(true);
+                }
+            }
+
+            private void check(boolean endOfInput) {
+                if (endOfInput && !text.isEmpty() && text.charAt(text.length() - 1) == ' ') {
+                    // Текст страницы заканчивается без пробела, как и body.text()
+                    text.setLength(text.length() - 1);
+                }
+                checkedLength = text.length();
+                Matcher matcher = ContactRules.HOURS_PATTERN.matcher(text);
+                if (matcher.find()) {
+                    String match = matcher.group();
+                    // Совпадение продолжается до конца строки, поэтому ждем либо конца строки, либо 200 символов
+                    if (endOfInput || matcher.end() < text.length() || match.length() > 200) {
+                        result = ContactRules.truncateHours(match);
+                        done = true;
+                        text.setLength(0);
+                    }
+                    return;
+                }
+                if (text.length() > HOURS_TAIL_CHARS) {
+                    text.delete(0, text.length() - HOURS_TAIL_CHARS);
+                    checkedLength = text.length();
+                }
+            }
+        }
+    }
+
+    private static String tagName(String content) {
+        int end = 0;
+        while (end < content.length() && !Character.isWhitespace(content.charAt(end)) && content.charAt(end) != '/') {
+            end++;
+        }
+        return content.substring(0, end).toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Значения атрибутов class, id, itemprop, itemtype и href; отсутствующий атрибут — пустая строка.
+     * Как и в jsoup, при повторе атрибута используется первое значение.
+     */
+    private static String[] attributes(String content, int from) {
+        String[] values = new String[5];
+        int length = content.length();
+        int i = from;
+        while (i < length) {
+            char c = content.charAt(i);
+            if (Character.isWhitespace(c) || c == '/') {
+                i++;
+                continue;
+            }
+            int keyStart = i;
+            while (i < length && !Character.isWhitespace(content.charAt(i)) && content.charAt(i) != '='
+                    && content.charAt(i) != '/') {
+                i++;
+            }
+            String key = content.substring(keyStart, i);
+            while (i < length && Character.isWhitespace(content.charAt(i))) {
+                i++;
+            }
+            String value = "";
+            if (i < length && content.charAt(i) == '=') {
+                i++;
+                while (i < length && Character.isWhitespace(content.charAt(i))) {
+                    i++;
+                }
+                if (i < length && (content.charAt(i) == '"' || content.charAt(i) == '\'')) {
+                    char quote = content.charAt(i++);
+                    int valueStart = i;
+                    while (i < length && content.charAt(i) != quote) {
+                        i++;
+                    }
+                    value = content.substring(valueStart, i);
+                    i++;
+                } else {
+                    int valueStart = i;
+                    while (i < length && !Character.isWhitespace(content.charAt(i))) {
+                        i++;
+                    }
+                    value = content.substring(valueStart, i);
+                }
+            }
+            int index = switch (key.toLowerCase(Locale.ENGLISH)) {
+                case "class" -> 0;
+                case "id" -> 1;
+                case "itemprop" -> 2;
+                case "itemtype" -> 3;
+                case "href" -> 4;
+                default -> -1;
+            };
+            if (index >= 0 && values[index] == null) {
+                values[index] = value.indexOf('&') >= 0 ? Parser.unescapeEntities(value, true) : value;
+            }
+        }
+        for (int k = 0; k < values.length; k++) {
+            if (values[k] == null) {
+                values[k] = "";
+            }
+        }
+        return values;
+    }
+}
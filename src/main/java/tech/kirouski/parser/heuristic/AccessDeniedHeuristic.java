@@ -0,0 +1,37 @@
+package tech.kirouski.parser.heuristic;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.http.HttpPage;
+import tech.kirouski.parser.service.HtmlParserService;
+
+/**
+ * Ошибка HTTP, заглушка антибот-защиты или слишком короткий ответ — те же проверки, что и для браузера
+ */
+@Component
+@Order(1)
+public class AccessDeniedHeuristic implements RenderHeuristic {
+
+    private final HtmlParserService htmlParserService;
+
+    @Autowired
+    public AccessDeniedHeuristic(HtmlParserService htmlParserService) {
+        this.htmlParserService = htmlParserService;
+    }
+
+    @Override
+    public double score(HttpPage page) {
+        if (page.getStatusCode() >= 400
+                || page.getHtml().length() < HtmlParserService.MIN_HTML_LENGTH
+                || htmlParserService.is403Error(page.getHtml())) {
+            return 1.0;
+        }
+        return 0.0;
+    }
+
+    @Override
+    public String name() {
+        return "access-denied";
+    }
+}
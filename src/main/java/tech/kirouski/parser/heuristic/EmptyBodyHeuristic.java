@@ -0,0 +1,34 @@
+package tech.kirouski.parser.heuristic;
+
+import org.jsoup.nodes.Element;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.http.HttpPage;
+
+/**
+ * В body почти нет видимого текста — содержимое, скорее всего, строится скриптами
+ */
+@Component
+@Order(3)
+public class EmptyBodyHeuristic implements RenderHeuristic {
+
+    private static final int MIN_TEXT_LENGTH = 200;
+
+    @Override
+    public double score(HttpPage page) {
+        Element body = page.getDocument().body();
+        if (body == null) {
+            return 1.0;
+        }
+        int textLength = body.text().length();
+        if (textLength >= MIN_TEXT_LENGTH) {
+            return 0.0;
+        }
+        return 1.0 - (double) textLength / MIN_TEXT_LENGTH;
+    }
+
+    @Override
+    public String name() {
+        return "empty-body";
+    }
+}
@@ -0,0 +1,39 @@
+package tech.kirouski.parser.heuristic;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.http.HttpPage;
+
+import java.util.regex.Pattern;
+
+/**
+ * На странице нет ни ссылок tel:/mailto:, ни элементов с контактами, ни текста, похожего на телефон или email —
+ * контакты могут подгружаться скриптами
+ */
+@Component
+@Order(4)
+public class NoContactSignalsHeuristic implements RenderHeuristic {
+
+    private static final String CONTACT_ELEMENTS =
+            "a[href^=tel:], a[href^=mailto:], [itemprop=telephone], [itemprop=email], [itemprop=address], " +
+            "[class*=phone], [class*=contact], [class*=address]";
+
+    private static final Pattern CONTACT_TEXT = Pattern.compile(
+            "\\+?\\d[\\d\\s()-]{8,}\\d|[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}");
+
+    @Override
+    public double score(HttpPage page) {
+        if (!page.getDocument().select(CONTACT_ELEMENTS).isEmpty()) {
+            return 0.0;
+        }
+        if (page.getDocument().body() != null && CONTACT_TEXT.matcher(page.getDocument().body().text()).find()) {
+            return 0.0;
+        }
+        return 0.5;
+    }
+
+    @Override
+    public String name() {
+        return "no-contact-signals";
+    }
+}
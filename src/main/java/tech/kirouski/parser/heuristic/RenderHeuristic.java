@@ -0,0 +1,19 @@
+package tech.kirouski.parser.heuristic;
+
+import tech.kirouski.parser.http.HttpPage;
+
+/**
+ * Правило, оценивающее, нужно ли загружать страницу в браузере вместо использования HTTP-ответа
+ */
+public interface RenderHeuristic {
+
+    /**
+     * Оценка от 0 до 1: насколько вероятно, что без выполнения JavaScript страница неполная
+     */
+    double score(HttpPage page);
+
+    /**
+     * Название правила для логов и причины перехода в браузер
+     */
+    String name();
+}
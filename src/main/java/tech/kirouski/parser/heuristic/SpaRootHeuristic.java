@@ -0,0 +1,41 @@
+package tech.kirouski.parser.heuristic;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.http.HttpPage;
+
+import java.util.Locale;
+
+/**
+ * Признаки одностраничного приложения: пустой корневой контейнер или просьба включить JavaScript
+ */
+@Component
+@Order(2)
+public class SpaRootHeuristic implements RenderHeuristic {
+
+    private static final String SPA_ROOTS = "#root, #app, #__next, #__nuxt, [ng-app], [data-reactroot], app-root";
+
+    @Override
+    public double score(HttpPage page) {
+        Document document = page.getDocument();
+        for (Element root : document.select(SPA_ROOTS)) {
+            if (root.text().isBlank()) {
+                return 0.9;
+            }
+        }
+        for (Element noscript : document.select("noscript")) {
+            String text = noscript.text().toLowerCase(Locale.ROOT);
+            if (text.contains("javascript")) {
+                return 0.6;
+            }
+        }
+        return 0.0;
+    }
+
+    @Override
+    public String name() {
+        return "spa-root";
+    }
+}
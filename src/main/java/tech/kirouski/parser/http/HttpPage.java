@@ -0,0 +1,42 @@
+package tech.kirouski.parser.http;
+
+import org.jsoup.nodes.Document;
+
+/**
+ * Страница, полученная простым HTTP-запросом без браузера
+ */
+public class HttpPage {
+    private final String url;
+    private final int statusCode;
+    private final String contentType;
+    private final String html;
+    private final Document document;
+
+    public HttpPage(String url, int statusCode, String contentType, String html, Document document) {
+        this.url = url;
+        this.statusCode = statusCode;
+        this.contentType = contentType;
+        this.html = html;
+        this.document = document;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+}
@@ -0,0 +1,104 @@
+package tech.kirouski.parser.http;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.config.TieredFetchProperties;
+import tech.kirouski.parser.exception.HtmlFetchException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Загрузка страницы обычным HTTP-запросом, без запуска браузера
+ */
+@Component
+public class HttpPageFetcher {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private final TieredFetchProperties properties;
+    private final HttpClient httpClient;
+
+    @Autowired
+    public HttpPageFetcher(TieredFetchProperties properties) {
+        this.properties = properties;
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(Math.min(properties.getHttpTimeoutMs(), 5000)))
+                .build();
+    }
+
+    public HttpPage fetch(String url) throws HtmlFetchException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(properties.getHttpTimeoutMs()))
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+                .header("Accept-Language", "en-US,en;q=0.9")
+                .GET()
+                .build();
+
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            String contentType = response.headers().firstValue("Content-Type").orElse("");
+            byte[] body;
+            try (InputStream in = response.body()) {
+                // PDF, картинки, JSON и другие не-HTML ответы не разбираются как страница
+                if (!isHtml(contentType)) {
+                    throw new HtmlFetchException("Ответ не является HTML-страницей: " + contentType);
+                }
+                body = in.readNBytes(properties.getMaxBodyBytes() + 1);
+            }
+            if (body.length > properties.getMaxBodyBytes()) {
+                throw new HtmlFetchException("Размер ответа превышает " + properties.getMaxBodyBytes() + " байт");
+            }
+
+            // Кодировку определяет jsoup: по заголовку BOM, meta charset или UTF-8 по умолчанию
+            String finalUrl = response.uri().toString();
+            Document document = Jsoup.parse(new ByteArrayInputStream(body), charsetOf(contentType), finalUrl);
+            // Возвращается исходный ответ в определенной jsoup кодировке, а не документ, заново собранный jsoup
+            String html = new String(body, document.charset());
+            if (html.startsWith("\uFEFF")) {
+                html = html.substring(1);
+            }
+            return new HttpPage(finalUrl, response.statusCode(), contentType, html, document);
+        } catch (IOException e) {
+            throw new HtmlFetchException("Не удалось загрузить страницу по HTTP: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HtmlFetchException("HTTP-загрузка прервана");
+        }
+    }
+
+    /**
+     * HTML или XHTML. Ответ без Content-Type разбирается как HTML.
+     */
+    private boolean isHtml(String contentType) {
+        String mimeType = contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        return mimeType.isEmpty() || mimeType.equals("text/html") || mimeType.equals("application/xhtml+xml");
+    }
+
+    private String charsetOf(String contentType) {
+        int index = contentType.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index == -1) {
+            return null;
+        }
+        String charset = contentType.substring(index + "charset=".length()).trim();
+        int end = charset.indexOf(';');
+        charset = (end == -1 ? charset : charset.substring(0, end)).replace("\"", "").trim();
+        try {
+            return Charset.isSupported(charset) ? charset : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package tech.kirouski.parser.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики загрузки страниц: время каждой фазы, исходы загрузки и размер страниц.
+ * Доступны через /actuator/prometheus и /actuator/metrics.
+ */
+@Component
+public class ParserMetrics {
+
+    /**
+     * Фазы загрузки страницы в браузере
+     */
+    public enum Phase {
+        /**
+         * Получение браузера из пула, включая запуск нового браузера
+         */
+        BROWSER_BORROW,
+        WARM_UP,
+        NAVIGATE,
+        SCROLL,
+        PAGE_SETTLE,
+        CONTACT_INFO,
+        PAGE_SOURCE,
+        EXTRACTION
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        FORBIDDEN,
+        SHORT_HTML,
+        INVALID_URL,
+        BROWSER_UNAVAILABLE,
+        ERROR
+    }
+
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final Map<Outcome, Counter> outcomeCounters = new EnumMap<>(Outcome.class);
+    private final DistributionSummary pageSize;
+    private final Counter coalesced;
+
+    @Autowired
+    public ParserMetrics(MeterRegistry registry) {
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("parser.fetch.phase")
+                    .description("Время фазы загрузки страницы")
+                    .tag("phase", tagValue(phase))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("parser.fetch.outcome")
+                    .description("Исходы загрузки страниц")
+                    .tag("outcome", tagValue(outcome))
+                    .register(registry));
+        }
+        pageSize = DistributionSummary.builder("parser.page.size")
+                .description("Размер полученного HTML")
+                .baseUnit("chars")
+                .publishPercentileHistogram()
+                .register(registry);
+        coalesced = Counter.builder("parser.fetch.coalesced")
+                .description("Запросы, получившие результат уже выполнявшейся загрузки той же страницы")
+                .register(registry);
+    }
+
+    /**
+     * Записывает время фазы, начавшейся в момент startNanos (System.nanoTime())
+     */
+    public void recordPhase(Phase phase, long startNanos) {
+        phaseTimers.get(phase).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutcome(Outcome outcome) {
+        outcomeCounters.get(outcome).increment();
+    }
+
+    public void recordPageSize(long chars) {
+        pageSize.record(chars);
+    }
+
+    public void recordCoalesced() {
+        coalesced.increment();
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
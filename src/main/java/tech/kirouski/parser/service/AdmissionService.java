@@ -0,0 +1,255 @@
+package tech.kirouski.parser.service;
+
+import com.sun.management.OperatingSystemMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tech.kirouski.parser.config.AdmissionProperties;
+import tech.kirouski.parser.config.BrowserPoolProperties;
+import tech.kirouski.parser.exception.AdmissionRejectedException;
+import tech.kirouski.parser.exception.HtmlFetchException;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Допуск запросов к загрузке в браузере. Одновременно выполняется не больше limit загрузок, еще не больше
+ * maxQueue запросов ждут своей очереди не дольше таймаута. Остальные сразу получают отказ со временем,
+ * через которое стоит повторить запрос, вместо того чтобы копиться в потоках сервера.
+ * В адаптивном режиме limit подстраивается по задержке загрузок и свободной памяти, не превышая размер пула браузеров.
+ */
+@Service
+public class AdmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionService.class);
+
+    /**
+     * Сглаживание недавней задержки и обычной задержки (долгая память)
+     */
+    private static final double RECENT_ALPHA = 0.2;
+    private static final double BASELINE_ALPHA = 0.02;
+
+    private static final long MAX_RETRY_AFTER_SECONDS = 60;
+
+    private final AdmissionProperties properties;
+    private final int maxLimit;
+    private final OperatingSystemMXBean os;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition released = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private double recentLatencyMs;
+    private double baselineLatencyMs;
+    private long lastDecreaseNanos;
+
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    @Autowired
+    public AdmissionService(AdmissionProperties properties, BrowserPoolProperties browserPoolProperties, MeterRegistry registry) {
+        this.properties = properties;
+        // Браузер, обслуживающий запросы в контекстах, выполняет несколько загрузок одновременно
+        int capacity = Math.max(1, browserPoolProperties.getMaxSize()) * Math.max(1, browserPoolProperties.getContextsPerBrowser());
+        this.maxLimit = properties.getMaxConcurrent() > 0 ? Math.min(properties.getMaxConcurrent(), capacity) : capacity;
+        this.limit = maxLimit;
+        this.os = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
+
+        Gauge.builder("parser.admission.limit", this, AdmissionService::getLimit)
+                .description("Допустимое количество загрузок в браузере одновременно")
+                .register(registry);
+        Gauge.builder("parser.admission.in-flight", this, AdmissionService::getInFlight)
+                .description("Загрузки в браузере, выполняемые сейчас")
+                .register(registry);
+        Gauge.builder("parser.admission.queued", this, AdmissionService::getQueued)
+                .description("Запросы, ожидающие допуска")
+                .register(registry);
+        this.rejectedQueueFull = Counter.builder("parser.admission.rejected")
+                .description("Запросы, не допущенные к загрузке")
+                .tag("reason", "queue-full")
+                .register(registry);
+        this.rejectedTimeout = Counter.builder("parser.admission.rejected")
+                .description("Запросы, не допущенные к загрузке")
+                .tag("reason", "queue-timeout")
+                .register(registry);
+    }
+
+    /**
+     * Ждет допуска к загрузке. После загрузки нужно вызвать {@link #release(long)} с моментом допуска.
+     *
+     * @param requestedTimeoutMs время ожидания из запроса или null
+     * @return момент допуска (System.nanoTime())
+     */
+    public long acquire(Long requestedTimeoutMs) throws HtmlFetchException {
+        if (!properties.isEnabled()) {
+            return System.nanoTime();
+        }
+        long timeoutMs = queueTimeoutMs(requestedTimeoutMs);
+
+        lock.lock();
+        try {
+            // Очередь честная: пока есть ожидающие, новый запрос встает за ними
+            if (queued == 0 && inFlight < effectiveLimit()) {
+                inFlight++;
+                return System.nanoTime();
+            }
+            if (queued >= properties.getMaxQueue()) {
+                throw queueFull();
+            }
+
+            queued++;
+            try {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+                while (inFlight >= effectiveLimit()) {
+                    if (remaining <= 0) {
+                        throw queueTimeout(timeoutMs);
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HtmlFetchException("Ожидание очереди загрузки прервано");
+            } finally {
+                queued--;
+            }
+            inFlight++;
+            return System.nanoTime();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает место после загрузки, начатой в момент admittedAt
+     */
+    public void release(long admittedAt) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        double latencyMs = (System.nanoTime() - admittedAt) / 1e6;
+        lock.lock();
+        try {
+            inFlight--;
+            recordLatency(latencyMs);
+            if (properties.getAdaptive().isEnabled()) {
+                adjustLimit();
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Время ожидания допуска: из запроса (не больше max-queue-timeout-ms) или по умолчанию, мс
+     */
+    public long queueTimeoutMs(Long requestedTimeoutMs) {
+        return requestedTimeoutMs != null && requestedTimeoutMs >= 0
+                ? Math.min(requestedTimeoutMs, properties.getMaxQueueTimeoutMs())
+                : properties.getQueueTimeoutMs();
+    }
+
+    /**
+     * Сколько загрузок одновременно могут выполняться и ждать допуска
+     */
+    public int getCapacity() {
+        return maxLimit + Math.max(0, properties.getMaxQueue());
+    }
+
+    /**
+     * Отказ в допуске: очередь заполнена
+     */
+    public AdmissionRejectedException queueFull() {
+        lock.lock();
+        try {
+            rejectedQueueFull.increment();
+            return new AdmissionRejectedException("Сервис перегружен: очередь загрузок заполнена, попробуйте позже",
+                    true, retryAfterSeconds());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Отказ в допуске: загрузка не началась за timeoutMs
+     */
+    public AdmissionRejectedException queueTimeout(long timeoutMs) {
+        lock.lock();
+        try {
+            rejectedTimeout.increment();
+            return new AdmissionRejectedException("Сервис перегружен: загрузка не началась за " + timeoutMs
+                    + " мс, попробуйте позже", false, retryAfterSeconds());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    private int effectiveLimit() {
+        return (int) limit;
+    }
+
+    private void recordLatency(double latencyMs) {
+        if (baselineLatencyMs == 0) {
+            recentLatencyMs = latencyMs;
+            baselineLatencyMs = latencyMs;
+            return;
+        }
+        recentLatencyMs += RECENT_ALPHA * (latencyMs - recentLatencyMs);
+        baselineLatencyMs += BASELINE_ALPHA * (latencyMs - baselineLatencyMs);
+    }
+
+    /**
+     * AIMD: при перегрузке лимит уменьшается в backoffRatio раз (не чаще одного раза за время одной загрузки,
+     * чтобы загрузки, начатые до уменьшения, не уменьшали его повторно), иначе, если лимит выбран полностью,
+     * растет на 1/limit
+     */
+    private void adjustLimit() {
+        AdmissionProperties.Adaptive adaptive = properties.getAdaptive();
+        long freeMemoryMb = os.getFreeMemorySize() >> 20;
+        boolean slow = recentLatencyMs > baselineLatencyMs * adaptive.getLatencyTolerance();
+        boolean lowMemory = freeMemoryMb < adaptive.getMinFreeMemoryMb();
+        double before = limit;
+
+        if (slow || lowMemory) {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos >= TimeUnit.MILLISECONDS.toNanos((long) recentLatencyMs)) {
+                limit = Math.max(Math.max(1, adaptive.getMinLimit()), limit * adaptive.getBackoffRatio());
+                lastDecreaseNanos = now;
+            }
+        } else if (queued > 0 || inFlight + 1 >= effectiveLimit()) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+
+        if ((int) before != (int) limit) {
+            logger.info("Лимит одновременных загрузок: {} -> {} (задержка {} мс при обычной {} мс, свободно памяти {} МБ)",
+                    (int) before, (int) limit, Math.round(recentLatencyMs), Math.round(baselineLatencyMs), freeMemoryMb);
+        }
+    }
+
+    /**
+     * Через сколько секунд стоит повторить запрос: время, за которое обработаются ожидающие запросы
+     */
+    private long retryAfterSeconds() {
+        double ms = recentLatencyMs * (queued + 1) / Math.max(1, effectiveLimit());
+        return Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, (long) Math.ceil(ms / 1000)));
+    }
+}
@@ -0,0 +1,229 @@
+package tech.kirouski.parser.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tech.kirouski.parser.config.BatchProperties;
+import tech.kirouski.parser.dto.BatchFetchResponse;
+import tech.kirouski.parser.dto.FetchHtmlRequest;
+import tech.kirouski.parser.dto.UrlFetchResult;
+import tech.kirouski.parser.exception.HtmlFetchException;
+import tech.kirouski.parser.exception.InvalidUrlException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Параллельная загрузка списка URL с ограничением параллелизма и общим дедлайном
+ */
+@Service
+public class BatchFetchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchFetchService.class);
+
+    private final HtmlCacheService htmlCacheService;
+    private final UrlValidator urlValidator;
+    private final PayloadService payloadService;
+    private final BatchProperties properties;
+    private final PolitenessService politenessService;
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "batch-fetch-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public BatchFetchService(HtmlCacheService htmlCacheService,
+                             UrlValidator urlValidator,
+                             PayloadService payloadService,
+                             BatchProperties properties,
+                             PolitenessService politenessService) {
+        this.htmlCacheService = htmlCacheService;
+        this.urlValidator = urlValidator;
+        this.payloadService = payloadService;
+        this.properties = properties;
+        this.politenessService = politenessService;
+    }
+
+    /**
+     * Загружает все URL запроса. Ошибка одного URL не прерывает обработку остальных,
+     * URL, не успевшие загрузиться до дедлайна, помечаются как TIMEOUT.
+     */
+    public BatchFetchResponse fetchAll(FetchHtmlRequest request) {
+        return fetchAll(request, result -> { });
+    }
+
+    /**
+     * Загружает все URL запроса, сообщая listener о каждом URL сразу после его обработки.
+     * Прерывание вызывающего потока отменяет еще не завершенные загрузки.
+     */
+    public BatchFetchResponse fetchAll(FetchHtmlRequest request, Consumer<UrlFetchResult> listener) {
+        List<String> urls = request.getUrls();
+        AtomicReferenceArray<UrlFetchResult> results = new AtomicReferenceArray<>(urls.size());
+        execute(request, (result, index) -> {
+            results.set(index, result);
+            listener.accept(result);
+        });
+
+        List<UrlFetchResult> response = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            UrlFetchResult result = results.get(i);
+            response.add(result != null ? result : UrlFetchResult.timeout(urls.get(i)));
+        }
+        return new BatchFetchResponse(response);
+    }
+
+    /**
+     * Потоковая загрузка: результаты не накапливаются, каждый передается listener сразу после обработки URL,
+     * а после дедлайна listener получает TIMEOUT для необработанных URL.
+     * Исключение, выброшенное listener (например, клиент отключился), отменяет оставшуюся работу.
+     */
+    public void stream(FetchHtmlRequest request, Consumer<UrlFetchResult> listener) {
+        List<String> urls = request.getUrls();
+        // Каждый URL передается listener ровно один раз: результатом загрузки или TIMEOUT
+        AtomicIntegerArray processed = new AtomicIntegerArray(urls.size());
+        boolean completed = execute(request, (result, index) -> {
+            if (processed.compareAndSet(index, 0, 1)) {
+                listener.accept(result);
+            }
+        });
+
+        if (completed) {
+            for (int i = 0; i < urls.size(); i++) {
+                if (processed.compareAndSet(i, 0, 1)) {
+                    listener.accept(UrlFetchResult.timeout(urls.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Раздает URL запроса обработчикам и ждет их завершения до дедлайна. Listener вызывается по очереди
+     * и только до возврата из метода: результаты обработчиков, завершившихся позже, отбрасываются.
+     * Возвращает false, если обработка была прервана (отмена или ошибка listener).
+     */
+    private boolean execute(FetchHtmlRequest request, ObjIntConsumer<UrlFetchResult> listener) {
+        List<String> urls = request.getUrls();
+        int parallelism = resolveParallelism(request.getParallelism(), urls.size());
+        long deadlineMs = resolveDeadline(request.getDeadlineMs());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        logger.info("Пакетная загрузка: {} URL, параллельно: {}, дедлайн: {} мс", urls.size(), parallelism, deadlineMs);
+
+        // URL выдаются по кругу по хостам с учетом ограничений на загрузку с одного хоста.
+        // Ограничения действуют только на загрузку с сайта, страницы из кэша выдаются сразу.
+        HostScheduler scheduler = new HostScheduler(urls, politenessService,
+                index -> htmlCacheService.isCached(urls.get(index), request));
+        // Результаты передаются под блокировкой: listener может писать в общий поток ответа
+        Object delivery = new Object();
+        AtomicBoolean closed = new AtomicBoolean();
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> workers = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(completion.submit(() -> {
+                int index;
+                while (!Thread.currentThread().isInterrupted() && (index = scheduler.next()) >= 0) {
+                    UrlFetchResult result;
+                    try {
+                        result = fetchOne(urls.get(index), request);
+                    } finally {
+                        scheduler.release(index);
+                    }
+                    synchronized (delivery) {
+                        if (closed.get()) {
+                            break;
+                        }
+                        listener.accept(result, index);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        try {
+            for (int i = 0; i < workers.size(); i++) {
+                Future<Void> finished = completion.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (finished == null) {
+                    logger.warn("Дедлайн пакетной загрузки истек, необработанные URL помечены как TIMEOUT");
+                    return true;
+                }
+                finished.get();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Пакетная загрузка отменена");
+            return false;
+        } catch (ExecutionException e) {
+            logger.warn("Пакетная загрузка прервана: {}", e.getCause().getMessage());
+            return false;
+        } finally {
+            // Результаты, полученные после этого момента, не передаются listener
+            synchronized (delivery) {
+                closed.set(true);
+            }
+            // Больше не выдаем URL в работу и прерываем те, что еще выполняются
+            scheduler.close();
+            workers.forEach(worker -> worker.cancel(true));
+        }
+    }
+
+    /**
+     * Загружает один URL, превращая ошибки в результат со статусом FAILED
+     */
+    public UrlFetchResult fetchOne(String url, FetchHtmlRequest options) {
+        long start = System.currentTimeMillis();
+        UrlFetchResult result;
+        try {
+            urlValidator.validate(url);
+            FetchedPage page = htmlCacheService.fetchHtml(url.trim(), options);
+            PageOutput output = payloadService.shape(page.getHtml(), url, options.getOutput());
+            result = UrlFetchResult.success(url, output.getHtml(), page.getSource());
+            result.setText(output.getText());
+            result.setContacts(output.getContacts());
+            result.setSize(output.getSize());
+            result.setNetwork(page.getNetworkStats());
+        } catch (InvalidUrlException e) {
+            result = UrlFetchResult.failed(url, "Невалидный URL: " + e.getMessage());
+        } catch (HtmlFetchException e) {
+            result = UrlFetchResult.failed(url, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Ошибка при загрузке URL в пакете: {}", url, e);
+            result = UrlFetchResult.failed(url, "Внутренняя ошибка сервера: " + e.getMessage());
+        }
+        result.setDurationMs(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private int resolveParallelism(Integer requested, int urlCount) {
+        int parallelism = requested != null && requested > 0 ? requested : properties.getDefaultParallelism();
+        return Math.max(1, Math.min(Math.min(parallelism, properties.getMaxParallelism()), urlCount));
+    }
+
+    private long resolveDeadline(Long requested) {
+        long deadlineMs = requested != null && requested > 0 ? requested : properties.getDefaultDeadlineMs();
+        return Math.min(deadlineMs, properties.getMaxDeadlineMs());
+    }
+}
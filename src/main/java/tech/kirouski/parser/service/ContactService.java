@@ -0,0 +1,44 @@
+package tech.kirouski.parser.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tech.kirouski.parser.dto.ContactExtraction;
+import tech.kirouski.parser.dto.ContactInfo;
+import tech.kirouski.parser.dto.ExtractContactsResponse;
+import tech.kirouski.parser.dto.FetchHtmlRequest;
+import tech.kirouski.parser.dto.PageSource;
+import tech.kirouski.parser.exception.HtmlFetchException;
+
+/**
+ * Извлечение контактной информации со страницы: в браузере скриптом внутри страницы
+ * или на сервере из загруженного HTML
+ */
+@Service
+public class ContactService {
+
+    private final HtmlParserService htmlParserService;
+    private final HtmlCacheService htmlCacheService;
+
+    @Autowired
+    public ContactService(HtmlParserService htmlParserService, HtmlCacheService htmlCacheService) {
+        this.htmlParserService = htmlParserService;
+        this.htmlCacheService = htmlCacheService;
+    }
+
+    public ExtractContactsResponse extract(String url, FetchHtmlRequest request) throws HtmlFetchException {
+        boolean includeHtml = Boolean.TRUE.equals(request.getIncludeHtml());
+        ContactExtraction extraction = request.getExtraction() != null ? request.getExtraction() : ContactExtraction.BROWSER;
+
+        if (extraction == ContactExtraction.BROWSER) {
+            ContactInfo contactInfo = htmlParserService.extractContactsInBrowser(url, request, includeHtml);
+            return new ExtractContactsResponse(url, contactInfo, PageSource.BROWSER);
+        }
+
+        FetchedPage page = htmlCacheService.fetchHtml(url, request);
+        ContactInfo contactInfo = htmlParserService.extractContactInfo(page.getHtml(), url);
+        if (!includeHtml) {
+            contactInfo.setFullHtml(null);
+        }
+        return new ExtractContactsResponse(url, contactInfo, page.getSource());
+    }
+}
@@ -0,0 +1,215 @@
+package tech.kirouski.parser.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tech.kirouski.parser.config.JobProperties;
+import tech.kirouski.parser.dto.BatchFetchResponse;
+import tech.kirouski.parser.dto.FetchHtmlRequest;
+import tech.kirouski.parser.dto.FetchJobResponse;
+import tech.kirouski.parser.dto.JobStatus;
+import tech.kirouski.parser.dto.UrlFetchResult;
+import tech.kirouski.parser.exception.ServiceOverloadedException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Асинхронные задачи загрузки: задача ставится в ограниченную очередь,
+ * результат забирается опросом по идентификатору задачи. Завершенные задачи хранятся не дольше TTL
+ * и не больше max-retained-jobs: при превышении удаляются завершившиеся раньше всех.
+ */
+@Service
+public class FetchJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FetchJobService.class);
+
+    private final BatchFetchService batchFetchService;
+    private final JobProperties properties;
+
+    private final Map<String, FetchJob> jobs = new ConcurrentHashMap<>();
+    /**
+     * Завершенные и отмененные задачи в порядке завершения (под блокировкой самой очереди)
+     */
+    private final Deque<FetchJob> finished = new ArrayDeque<>();
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "fetch-job-cleaner");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public FetchJobService(BatchFetchService batchFetchService, JobProperties properties) {
+        this.batchFetchService = batchFetchService;
+        this.properties = properties;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        int workers = Math.max(1, properties.getWorkers());
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                r -> {
+                    Thread thread = new Thread(r, "fetch-job-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        long cleanupPeriodMs = Math.max(1000, Math.min(properties.getTtlMs(), 60000));
+        cleaner.scheduleWithFixedDelay(this::evictExpired, cleanupPeriodMs, cleanupPeriodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ставит задачу в очередь и сразу возвращает ее состояние
+     */
+    public FetchJobResponse submit(FetchHtmlRequest request) throws ServiceOverloadedException {
+        FetchJob job = new FetchJob(UUID.randomUUID().toString(), request);
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ServiceOverloadedException("Очередь задач заполнена, попробуйте позже");
+        }
+        logger.info("Задача {} поставлена в очередь: {} URL", job.id, request.getUrls().size());
+        return job.toResponse();
+    }
+
+    /**
+     * Возвращает состояние задачи или null, если задача не найдена или уже удалена
+     */
+    public FetchJobResponse get(String jobId) {
+        FetchJob job = jobs.get(jobId);
+        return job != null ? job.toResponse() : null;
+    }
+
+    /**
+     * Отменяет задачу: ожидающая задача не будет запущена, выполняющаяся будет прервана
+     */
+    public FetchJobResponse cancel(String jobId) {
+        FetchJob job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        synchronized (job) {
+            if (job.status == JobStatus.QUEUED || job.status == JobStatus.RUNNING) {
+                job.status = JobStatus.CANCELLED;
+                job.finishedAt = System.currentTimeMillis();
+                logger.info("Задача {} отменена", job.id);
+                retain(job);
+            }
+        }
+        if (job.future != null) {
+            job.future.cancel(true);
+        }
+        // Освобождаем место в очереди, занятое отмененной задачей
+        executor.purge();
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void run(FetchJob job) {
+        synchronized (job) {
+            if (job.status != JobStatus.QUEUED) {
+                return;
+            }
+            job.status = JobStatus.RUNNING;
+        }
+
+        BatchFetchResponse response = batchFetchService.fetchAll(job.request, job::addResult);
+
+        synchronized (job) {
+            if (job.status == JobStatus.RUNNING) {
+                // Итоговый список в порядке запроса, включая URL, не успевшие загрузиться до дедлайна
+                job.results = new ArrayList<>(response.getResults());
+                job.status = JobStatus.COMPLETED;
+                job.finishedAt = System.currentTimeMillis();
+                retain(job);
+            }
+        }
+        logger.info("Задача {} завершена: успешно {}, с ошибками {}", job.id, response.getSucceeded(), response.getFailed());
+    }
+
+    /**
+     * Запоминает завершенную задачу и удаляет самые старые завершенные задачи сверх max-retained-jobs
+     */
+    private void retain(FetchJob job) {
+        synchronized (finished) {
+            finished.add(job);
+            int evicted = 0;
+            while (finished.size() > Math.max(0, properties.getMaxRetainedJobs())) {
+                FetchJob oldest = finished.poll();
+                jobs.remove(oldest.id, oldest);
+                evicted++;
+            }
+            if (evicted > 0) {
+                logger.debug("Удалено завершенных задач сверх лимита хранения: {}", evicted);
+            }
+        }
+    }
+
+    /**
+     * Удаляет задачи, результат которых хранится дольше TTL
+     */
+    private void evictExpired() {
+        long expiredBefore = System.currentTimeMillis() - properties.getTtlMs();
+        synchronized (finished) {
+            while (!finished.isEmpty() && finished.peek().finishedAt < expiredBefore) {
+                FetchJob expired = finished.poll();
+                jobs.remove(expired.id, expired);
+            }
+        }
+    }
+
+    private static class FetchJob {
+        private final String id;
+        private final FetchHtmlRequest request;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile Long finishedAt;
+        private volatile Future<?> future;
+        private List<UrlFetchResult> results = new ArrayList<>();
+
+        private FetchJob(String id, FetchHtmlRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        private synchronized void addResult(UrlFetchResult result) {
+            if (status == JobStatus.RUNNING) {
+                results.add(result);
+            }
+        }
+
+        private synchronized FetchJobResponse toResponse() {
+            FetchJobResponse response = new FetchJobResponse();
+            response.setJobId(id);
+            response.setStatus(status);
+            response.setTotal(request.getUrls().size());
+            response.setCompleted(results.size());
+            response.setCreatedAt(createdAt);
+            response.setFinishedAt(finishedAt);
+            response.setResults(new ArrayList<>(results));
+            return response;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package tech.kirouski.parser.service;
+
+import tech.kirouski.parser.dto.NetworkStats;
+import tech.kirouski.parser.dto.PageSource;
+
+/**
+ * HTML страницы вместе с информацией о том, как он был получен
+ */
+public class FetchedPage {
+    private final String html;
+    private final PageSource source;
+    private final NetworkStats networkStats;
+
+    public FetchedPage(String html, PageSource source) {
+        this(html, source, null);
+    }
+
+    public FetchedPage(String html, PageSource source, NetworkStats networkStats) {
+        this.html = html;
+        this.source = source;
+        this.networkStats = networkStats;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public PageSource getSource() {
+        return source;
+    }
+
+    /**
+     * Сетевая статистика, есть только у страниц, загруженных в браузере
+     */
+    public NetworkStats getNetworkStats() {
+        return networkStats;
+    }
+}
@@ -0,0 +1,145 @@
+package tech.kirouski.parser.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Очередь URL одного пакета, сгруппированная по хостам. Хосты обходятся по кругу, чтобы браузеры были заняты
+ * загрузками с разных хостов; хост, для которого {@link PolitenessService} не разрешает начать загрузку,
+ * пропускается до его освобождения или истечения минимального интервала. URL, страница которого уже есть в кэше,
+ * выдается без ожидания хоста: загрузки с сайта не будет.
+ */
+class HostScheduler {
+
+    /**
+     * URL без определимого хоста выдаются без ограничений: они завершатся ошибкой проверки
+     */
+    private static final String NO_HOST = "";
+
+    private final PolitenessService politeness;
+    private final IntPredicate cached;
+    private final List<String> hostOfIndex;
+    /**
+     * Для каких выданных URL занято место хоста, которое нужно освободить в {@link #release(int)}
+     */
+    private final boolean[] acquired;
+    private final List<String> order = new ArrayList<>();
+    private final Map<String, Deque<Integer>> pending = new LinkedHashMap<>();
+    private int cursor;
+    private boolean closed;
+
+    /**
+     * @param cached есть ли в кэше страница URL с указанным индексом
+     */
+    HostScheduler(List<String> urls, PolitenessService politeness, IntPredicate cached) {
+        this.politeness = politeness;
+        this.cached = cached;
+        this.hostOfIndex = new ArrayList<>(urls.size());
+        this.acquired = new boolean[urls.size()];
+        for (int i = 0; i < urls.size(); i++) {
+            String url = urls.get(i);
+            String host = url != null ? UrlNormalizer.host(url) : null;
+            host = host != null && politeness.isEnabled() ? host : NO_HOST;
+            hostOfIndex.add(host);
+            Deque<Integer> indexes = pending.computeIfAbsent(host, h -> {
+                order.add(h);
+                return new ArrayDeque<>();
+            });
+            // URL из кэша выдаются первыми, чтобы не ждать за загрузками с того же хоста
+            if (!host.equals(NO_HOST) && cached.test(i)) {
+                indexes.addFirst(i);
+            } else {
+                indexes.add(i);
+            }
+        }
+        pending.forEach((host, indexes) -> {
+            if (!host.equals(NO_HOST)) {
+                politeness.addQueued(host, indexes.size());
+            }
+        });
+    }
+
+    /**
+     * Выдает индекс следующего URL, ожидая, пока его хост разрешит загрузку. Возвращает -1, если URL не осталось
+     * или ожидание прервано. После загрузки URL нужно вызвать {@link #release(int)}.
+     */
+    int next() {
+        while (true) {
+            long wait = Long.MAX_VALUE;
+            // Освобождение хоста между проверкой и ожиданием не должно теряться
+            long seen = politeness.releaseCount();
+            synchronized (this) {
+                if (closed || order.isEmpty()) {
+                    return -1;
+                }
+                for (int i = 0; i < order.size(); i++) {
+                    int position = (cursor + i) % order.size();
+                    String host = order.get(position);
+                    if (host.equals(NO_HOST) || cached.test(pending.get(host).peek())) {
+                        return take(position, host, false);
+                    }
+                    long hostWait = politeness.tryAcquire(host);
+                    if (hostWait == 0) {
+                        return take(position, host, true);
+                    }
+                    wait = Math.min(wait, hostWait);
+                }
+            }
+            try {
+                politeness.awaitRelease(seen, wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Завершает загрузку URL, выданного {@link #next()}
+     */
+    void release(int index) {
+        if (acquired[index]) {
+            politeness.release(hostOfIndex.get(index));
+        }
+    }
+
+    /**
+     * Больше не выдает URL и убирает оставшиеся из очереди хостов
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.forEach((host, indexes) -> {
+            if (!host.equals(NO_HOST) && !indexes.isEmpty()) {
+                politeness.addQueued(host, -indexes.size());
+            }
+        });
+        pending.clear();
+        order.clear();
+    }
+
+    private int take(int position, String host, boolean acquire) {
+        Deque<Integer> indexes = pending.get(host);
+        int index = indexes.poll();
+        acquired[index] = acquire;
+        if (!host.equals(NO_HOST)) {
+            politeness.addQueued(host, -1);
+        }
+        if (indexes.isEmpty()) {
+            pending.remove(host);
+            order.remove(position);
+            cursor = order.isEmpty() ? 0 : position % order.size();
+        } else {
+            // Следующий URL выдается со следующего хоста
+            cursor = (position + 1) % order.size();
+        }
+        return index;
+    }
+}
@@ -0,0 +1,167 @@
+package tech.kirouski.parser.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tech.kirouski.parser.browser.ResourceBlocker;
+import tech.kirouski.parser.config.CacheProperties;
+import tech.kirouski.parser.dto.CacheOptions;
+import tech.kirouski.parser.dto.CacheStatsResponse;
+import tech.kirouski.parser.dto.FetchHtmlRequest;
+import tech.kirouski.parser.dto.FetchMode;
+import tech.kirouski.parser.dto.PageSource;
+import tech.kirouski.parser.exception.HtmlFetchException;
+
+import java.time.Duration;
+
+/**
+ * Кэш отрендеренного HTML перед загрузкой страницы в браузере.
+ * Ключ — нормализованный URL, вытеснение по W-TinyLFU с ограничением по количеству и объему страниц.
+ * Вместе со страницей хранится, как она была получена: страница подходит запросу, только если запрос
+ * получил бы ее тем же способом (см. {@link #isSuitable}).
+ */
+@Service
+public class HtmlCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HtmlCacheService.class);
+
+    private final TieredFetchService tieredFetchService;
+    private final ResourceBlocker resourceBlocker;
+    private final CacheProperties properties;
+    private final Cache<String, CachedHtml> cache;
+    /**
+     * Попадания и промахи учитываются вручную: запись, которая нашлась, но устарела или не подходит запросу, — промах
+     */
+    private final StatsCounter statsCounter = new ConcurrentStatsCounter();
+
+    @Autowired
+    public HtmlCacheService(TieredFetchService tieredFetchService, ResourceBlocker resourceBlocker, CacheProperties properties) {
+        this.tieredFetchService = tieredFetchService;
+        this.resourceBlocker = resourceBlocker;
+        this.properties = properties;
+
+        // Caffeine не позволяет задать оба ограничения сразу, поэтому вес страницы не меньше
+        // maxBytes / maxEntries: так объем ограничивает и количество записей
+        long minWeight = Math.max(1, properties.getMaxBytes() / Math.max(1, properties.getMaxEntries()));
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxBytes())
+                .weigher((String url, CachedHtml page) -> (int) Math.min(Integer.MAX_VALUE, Math.max(minWeight, page.sizeBytes())))
+                .expireAfterWrite(Duration.ofMillis(properties.getTtlMs()))
+                .recordStats(() -> statsCounter)
+                .build();
+    }
+
+    /**
+     * Возвращает HTML из кэша, если он есть и достаточно свежий, иначе загружает страницу и кэширует ее
+     */
+    public FetchedPage fetchHtml(String url, FetchHtmlRequest request) throws HtmlFetchException {
+        if (!properties.isEnabled()) {
+            return tieredFetchService.fetch(url, request);
+        }
+
+        CacheOptions options = request != null ? request.getCache() : null;
+        String key = UrlNormalizer.normalize(url);
+        if (options == null || !options.isBypass()) {
+            // asMap().get учитывает обращение в политике вытеснения, но не в статистике
+            CachedHtml cached = cache.asMap().get(key);
+            if (cached != null && isFresh(cached, options) && isSuitable(cached, request)) {
+                statsCounter.recordHits(1);
+                logger.info("HTML для {} взят из кэша", url);
+                return new FetchedPage(cached.html(), PageSource.CACHE);
+            }
+            statsCounter.recordMisses(1);
+        }
+
+        FetchedPage page = tieredFetchService.fetch(url, request);
+        cache.put(key, toCached(page, request));
+        return page;
+    }
+
+    /**
+     * Есть ли в кэше свежая страница URL, подходящая запросу: такая страница будет выдана без загрузки с сайта.
+     * Статистику кэша проверка не меняет.
+     */
+    public boolean isCached(String url, FetchHtmlRequest request) {
+        CacheOptions options = request != null ? request.getCache() : null;
+        if (!properties.isEnabled() || url == null || (options != null && options.isBypass())) {
+            return false;
+        }
+        CachedHtml cached = cache.policy().getIfPresentQuietly(UrlNormalizer.normalize(url));
+        return cached != null && isFresh(cached, options) && isSuitable(cached, request);
+    }
+
+    public CacheStatsResponse getStats() {
+        CacheStats stats = cache.stats();
+        CacheStatsResponse response = new CacheStatsResponse();
+        response.setHits(stats.hitCount());
+        response.setMisses(stats.missCount());
+        response.setEvictions(stats.evictionCount());
+        response.setHitRate(stats.hitRate());
+        response.setEntries(cache.estimatedSize());
+        response.setBytes(cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        return response;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private boolean isFresh(CachedHtml cached, CacheOptions options) {
+        if (options == null || options.getMaxAgeMs() == null) {
+            return true;
+        }
+        return System.currentTimeMillis() - cached.storedAt() <= options.getMaxAgeMs();
+    }
+
+    /**
+     * Страница, загруженная в браузере, подходит запросу с тем же профилем блокировки.
+     * Страница, полученная по HTTP, не подходит запросу в режиме BROWSER, а в режиме AUTO — только если
+     * порог запроса не ниже порога, с которым страница прошла эвристики.
+     */
+    private boolean isSuitable(CachedHtml cached, FetchHtmlRequest request) {
+        FetchMode mode = tieredFetchService.resolveMode(request);
+        if (mode == FetchMode.HTTP) {
+            return true;
+        }
+        if (cached.source() == PageSource.BROWSER) {
+            return cached.blockingProfile().equals(blockingProfile(request));
+        }
+        return mode == FetchMode.AUTO && cached.renderThreshold() != null
+                && tieredFetchService.resolveRenderThreshold(request) >= cached.renderThreshold();
+    }
+
+    private CachedHtml toCached(FetchedPage page, FetchHtmlRequest request) {
+        long storedAt = System.currentTimeMillis();
+        if (page.getSource() == PageSource.BROWSER) {
+            return new CachedHtml(page.getHtml(), storedAt, PageSource.BROWSER, blockingProfile(request), null);
+        }
+        // В режиме HTTP эвристики не проверялись, такая страница подходит только запросам в режиме HTTP
+        Double renderThreshold = tieredFetchService.resolveMode(request) == FetchMode.AUTO
+                ? tieredFetchService.resolveRenderThreshold(request)
+                : null;
+        return new CachedHtml(page.getHtml(), storedAt, PageSource.HTTP, null, renderThreshold);
+    }
+
+    private String blockingProfile(FetchHtmlRequest request) {
+        return resourceBlocker.profileName(request != null ? request.getBlockingProfile() : null);
+    }
+
+    /**
+     * @param blockingProfile профиль блокировки, с которым страница загружена в браузере
+     * @param renderThreshold порог, с которым страница, полученная по HTTP, прошла эвристики (null — не проверялась)
+     */
+    private record CachedHtml(String html, long storedAt, PageSource source, String blockingProfile, Double renderThreshold) {
+        long sizeBytes() {
+            // Строки Java хранят до двух байт на символ
+            return 2L * html.length();
+        }
+    }
+}
@@ -1,155 +1,278 @@
 package tech.kirouski.parser.service;
 
-import com.codeborne.selenide.Configuration;
-import com.codeborne.selenide.Selenide;
-import com.codeborne.selenide.WebDriverRunner;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
-import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.ExpectedCondition;
-import org.openqa.selenium.support.ui.WebDriverWait;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import tech.kirouski.parser.browser.BrowserPool;
+import tech.kirouski.parser.browser.BrowserTab;
+import tech.kirouski.parser.browser.PageReadinessWaiter;
+import tech.kirouski.parser.browser.ResourceBlocker;
+import tech.kirouski.parser.browser.SessionStore;
+import tech.kirouski.parser.config.ExtractProperties;
 import tech.kirouski.parser.dto.ContactInfo;
+import tech.kirouski.parser.dto.FetchHtmlRequest;
+import tech.kirouski.parser.dto.NetworkStats;
+import tech.kirouski.parser.dto.PageSource;
 import tech.kirouski.parser.exception.HtmlFetchException;
+import tech.kirouski.parser.extract.BrowserContactExtractor;
+import tech.kirouski.parser.extract.ContactExtractor;
+import tech.kirouski.parser.extract.StreamingContactExtractor;
+import tech.kirouski.parser.metrics.ParserMetrics;
 
-import java.time.Duration;
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.StringReader;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class HtmlParserService {
 
     private static final Logger logger = LoggerFactory.getLogger(HtmlParserService.class);
 
+    /**
+     * Минимальный размер HTML полностью загруженной страницы
+     */
+    public static final int MIN_HTML_LENGTH = 500;
+
+    private final BrowserPool browserPool;
+    private final SessionStore sessionStore;
+    private final ResourceBlocker resourceBlocker;
+    private final PageReadinessWaiter readinessWaiter;
+    private final WaitBudgetService waitBudgetService;
+    private final ContactExtractor contactExtractor;
+    private final BrowserContactExtractor browserContactExtractor;
+    private final StreamingContactExtractor streamingContactExtractor;
+    private final ExtractProperties extractProperties;
+    private final ParserMetrics metrics;
+    private final AdmissionService admissionService;
+    private final ExecutorService renderExecutor;
+    private final SingleFlight<String, FetchedPage> renders;
+
+    @Autowired
+    public HtmlParserService(BrowserPool browserPool,
+                             SessionStore sessionStore,
+                             ResourceBlocker resourceBlocker,
+                             PageReadinessWaiter readinessWaiter,
+                             WaitBudgetService waitBudgetService,
+                             ContactExtractor contactExtractor,
+                             BrowserContactExtractor browserContactExtractor,
+                             StreamingContactExtractor streamingContactExtractor,
+                             ExtractProperties extractProperties,
+                             ParserMetrics metrics,
+                             AdmissionService admissionService) {
+        this.browserPool = browserPool;
+        this.sessionStore = sessionStore;
+        this.resourceBlocker = resourceBlocker;
+        this.readinessWaiter = readinessWaiter;
+        this.waitBudgetService = waitBudgetService;
+        this.contactExtractor = contactExtractor;
+        this.browserContactExtractor = browserContactExtractor;
+        this.streamingContactExtractor = streamingContactExtractor;
+        this.extractProperties = extractProperties;
+        this.metrics = metrics;
+        this.admissionService = admissionService;
+        // Загрузка в потоке выполняется или ждет допуска, поэтому потоков не больше, чем загрузок,
+        // которые допуск пропускает и держит в очереди; лишние загрузки получают отказ сразу
+        this.renderExecutor = new ThreadPoolExecutor(0, admissionService.getCapacity(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+                    Thread thread = new Thread(r, "page-render");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.renders = new SingleFlight<>(renderExecutor, metrics::recordCoalesced);
+    }
+
     public String fetchHtml(String url) throws HtmlFetchException {
-        // Настройка Selenide для работы без видимого браузера
-        Configuration.headless = true;
-        Configuration.browser = "chrome";
-        Configuration.timeout = 10000;
-        Configuration.browserSize = "1920x1080";
-        
-        // Настройка ChromeOptions для работы в Docker/Railway
-        ChromeOptions chromeOptions = new ChromeOptions();
-        // Обязательные опции для работы в Docker
-        chromeOptions.addArguments("--no-sandbox");
-        chromeOptions.addArguments("--disable-dev-shm-usage");
-        chromeOptions.addArguments("--disable-gpu");
-        chromeOptions.addArguments("--disable-software-rasterizer");
-        chromeOptions.addArguments("--disable-extensions");
-        chromeOptions.addArguments("--remote-allow-origins=*");
-        chromeOptions.addArguments("--window-size=1920,1080");
-        chromeOptions.addArguments("--disable-setuid-sandbox");
-        chromeOptions.addArguments("--disable-web-security");
-        chromeOptions.addArguments("--allow-running-insecure-content");
-        
-        // Устанавливаем User-Agent реального браузера чтобы избежать блокировки
-        chromeOptions.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-        
-        // Отключаем автоматизационные флаги, которые могут выдать бота
-        chromeOptions.setExperimentalOption("excludeSwitches", new String[]{"enable-automation"});
-        chromeOptions.setExperimentalOption("useAutomationExtension", false);
-        
-        // Добавляем предпочтения для имитации реального браузера
-        chromeOptions.addArguments("--lang=en-US,en");
-        chromeOptions.addArguments("--accept-lang=en-US,en");
-        
-        // Дополнительные предпочтения для обхода защиты
-        Map<String, Object> prefs = new HashMap<>();
-        prefs.put("profile.default_content_setting_values.notifications", 2);
-        prefs.put("profile.managed_default_content_settings.images", 1);
-        chromeOptions.setExperimentalOption("prefs", prefs);
-        
-        // Устанавливаем дополнительные заголовки через preferences
-        chromeOptions.setExperimentalOption("excludeSwitches", new String[]{"enable-automation", "enable-logging"});
-        chromeOptions.setExperimentalOption("useAutomationExtension", false);
-        
-        // Устанавливаем путь к Chrome если указан в переменной окружения
-        String chromeBin = System.getenv("CHROME_BIN");
-        if (chromeBin != null && !chromeBin.isEmpty()) {
-            chromeOptions.setBinary(chromeBin);
-            System.setProperty("webdriver.chrome.binary", chromeBin);
+        return fetchPage(url, null).getHtml();
+    }
+
+    /**
+     * Загружает страницу в браузере с учетом параметров запроса и возвращает HTML вместе с сетевой статистикой
+     */
+    public FetchedPage fetchPage(String url, FetchHtmlRequest options) throws HtmlFetchException {
+        // Одновременные загрузки одной страницы с одним профилем блокировки выполняются в браузере один раз
+        String key = UrlNormalizer.normalize(url) + " " + resourceBlocker.profileName(options != null ? options.getBlockingProfile() : null);
+        // Присоединившийся запрос ждет допуска чужой загрузки не дольше своего времени ожидания в очереди
+        long queueTimeoutMs = admissionService.queueTimeoutMs(options != null ? options.getQueueTimeoutMs() : null);
+        try {
+            return renders.execute(key, queueTimeoutMs, admitted -> renderPage(url, options, admitted));
+        } catch (TimeoutException e) {
+            throw admissionService.queueTimeout(queueTimeoutMs);
+        } catch (RejectedExecutionException e) {
+            if (renderExecutor.isShutdown()) {
+                throw new HtmlFetchException("Сервис останавливается, загрузка не выполнена");
+            }
+            throw admissionService.queueFull();
+        }
+    }
+
+    private FetchedPage renderPage(String url, FetchHtmlRequest options, Runnable admitted) throws HtmlFetchException {
+        return loadPage(url, options, admitted, (browser, baseUrl, blockingProfile) -> {
+            // Получаем HTML контент страницы (с контактами и адресами внутри)
+            long pageSourceStart = System.nanoTime();
+            String html = browser.getPageSource();
+            metrics.recordPhase(ParserMetrics.Phase.PAGE_SOURCE, pageSourceStart);
+            metrics.recordPageSize(html.length());
+            NetworkStats networkStats = resourceBlocker.collectStats(browser, blockingProfile);
+            logger.info("HTML успешно получен, размер: {} символов, запросов: {}, заблокировано: {}, передано: {} байт",
+                    html.length(), networkStats.getRequests(), networkStats.getBlockedRequests(), networkStats.getTransferredBytes());
+            
+            checkPage(is403Error(html), html.length(), baseUrl);
+            return new FetchedPage(html, PageSource.BROWSER, networkStats);
+        });
+    }
+
+    /**
+     * Загружает страницу в браузере и извлекает контакты скриптом внутри страницы, без передачи HTML из браузера.
+     * Исходный код страницы запрашивается, только если includeHtml = true.
+     */
+    public ContactInfo extractContactsInBrowser(String url, FetchHtmlRequest options, boolean includeHtml) throws HtmlFetchException {
+        return loadPage(url, options, () -> { }, (browser, baseUrl, blockingProfile) -> {
+            long extractionStart = System.nanoTime();
+            BrowserContactExtractor.Result result = browserContactExtractor.extract(browser);
+            metrics.recordPhase(ParserMetrics.Phase.EXTRACTION, extractionStart);
+            metrics.recordPageSize(result.htmlLength());
+            checkPage(result.forbidden(), result.htmlLength(), baseUrl);
+            ContactInfo contactInfo = result.contactInfo();
+            if (includeHtml) {
+                contactInfo.setFullHtml(browser.getPageSource());
+            }
+            return contactInfo;
+        });
+    }
+
+    /**
+     * Проверяет, что страница загрузилась и доступ к ней не запрещен
+     */
+    private void checkPage(boolean forbidden, long htmlLength, String baseUrl) throws HtmlFetchException {
+        // Проверяем на наличие ошибки 403
+        if (forbidden) {
+            // Сессия, с которой сайт отвечает 403, больше не используется
+            if (baseUrl != null) {
+                sessionStore.invalidate(baseUrl);
+            }
+            metrics.recordOutcome(ParserMetrics.Outcome.FORBIDDEN);
+            throw new HtmlFetchException("Доступ к ресурсу запрещен (403 Forbidden)");
         }
         
-        // Устанавливаем ChromeOptions через Configuration
-        Configuration.browserCapabilities = chromeOptions;
+        // Проверяем размер HTML (должен быть не менее 500 символов)
+        if (htmlLength < MIN_HTML_LENGTH) {
+            metrics.recordOutcome(ParserMetrics.Outcome.SHORT_HTML);
+            throw new HtmlFetchException("Размер полученного HTML меньше 500 символов. Возможно, страница не загрузилась полностью или доступ к ресурсу ограничен");
+        }
+    }
+
+    /**
+     * Открывает страницу в браузере из пула, дожидается ее готовности и выполняет action над загруженной страницей.
+     * Загрузка начинается после допуска: при перегрузке запрос ждет в очереди или сразу получает отказ.
+     * После допуска вызывается admitted.
+     */
+    private <T> T loadPage(String url, FetchHtmlRequest options, Runnable admitted, PageAction<T> action) throws HtmlFetchException {
+        long admittedAt = admissionService.acquire(options != null ? options.getQueueTimeoutMs() : null);
+        try {
+            admitted.run();
+            return openPage(url, options, action);
+        } finally {
+            admissionService.release(admittedAt);
+        }
+    }
+
+    private <T> T openPage(String url, FetchHtmlRequest options, PageAction<T> action) throws HtmlFetchException {
+        // Берем уже запущенный браузер из пула: каждый запрос работает со своим экземпляром драйвера
+        // или со своим изолированным контекстом в общем браузере
+        long borrowStart = System.nanoTime();
+        BrowserTab browser;
+        try {
+            browser = browserPool.borrow();
+        } catch (HtmlFetchException e) {
+            metrics.recordOutcome(ParserMetrics.Outcome.BROWSER_UNAVAILABLE);
+            throw e;
+        }
+        metrics.recordPhase(ParserMetrics.Phase.BROWSER_BORROW, borrowStart);
         
         try {
-            logger.info("Открываем URL: {}", url);
+            logger.info("Открываем URL: {} ({})", url, browser.getName());
             
             // Получаем базовый домен для предварительной загрузки кук
             String baseUrl = extractBaseUrl(url);
             
-            // Сначала открываем главную страницу для получения кук и установки сессии
-            if (baseUrl != null && !baseUrl.equals(url)) {
+            // Блокируем загрузку ресурсов, не нужных для разбора страницы
+            String blockingProfile = resourceBlocker.apply(browser, options != null ? options.getBlockingProfile() : null,
+                    url, baseUrl);
+            
+            // Счетчик активных fetch/XHR для определения готовности страницы
+            readinessWaiter.install(browser);
+            
+            // Бюджеты ожидания подбираются по статистике загрузки страниц этого хоста
+            String host = UrlNormalizer.host(url);
+            
+            // Если сессия сайта уже сохранена, переносим ее в браузер без открытия главной страницы,
+            // иначе сначала открываем главную страницу для получения кук и установки сессии
+            boolean warmUpNeeded = baseUrl != null && !baseUrl.equals(url);
+            if (warmUpNeeded && sessionStore.restore(browser, baseUrl)) {
+                logger.info("Используем сохраненную сессию для {}", baseUrl);
+            } else if (warmUpNeeded) {
                 logger.info("Предварительно открываем главную страницу: {}", baseUrl);
+                long warmUpStart = System.nanoTime();
                 try {
-                    Selenide.open(baseUrl);
-                    // Умное ожидание готовности страницы (макс 3 сек вместо фиксированных 2 сек)
-                    waitForPageLoad(3000);
+                    browser.open(baseUrl);
+                    // Ждем, пока главная страница успокоится, — к этому моменту куки уже установлены
+                    PageReadinessWaiter.Readiness warmUp = readinessWaiter.awaitSettled(browser,
+                            waitBudgetService.budget(host, WaitPhase.WARM_UP), PageReadinessWaiter.DEFAULT_QUIET_MS);
+                    waitBudgetService.record(host, WaitPhase.WARM_UP, warmUp.elapsedMs(), warmUp.settled());
                     // Удаляем все признаки автоматизации после открытия первой страницы
-                    removeAutomationFlags();
-                    // Минимальная задержка для применения скриптов (0.3 сек вместо 1 сек)
-                    waitForScriptsExecution(300);
+                    removeAutomationFlags(browser);
+                    sessionStore.capture(browser, baseUrl);
                 } catch (Exception e) {
                     logger.warn("Не удалось открыть главную страницу, продолжаем", e);
                 }
+                metrics.recordPhase(ParserMetrics.Phase.WARM_UP, warmUpStart);
             }
             
             // Открываем целевую страницу
-            Selenide.open(url);
-            
-            // Умное ожидание готовности страницы (макс 5 сек вместо фиксированных 3 сек)
-            waitForPageLoad(5000);
+            long navigateStart = System.nanoTime();
+            browser.open(url);
+            metrics.recordPhase(ParserMetrics.Phase.NAVIGATE, navigateStart);
             
             // Удаляем все признаки автоматизации после открытия целевой страницы
-            removeAutomationFlags();
+            removeAutomationFlags(browser);
             
-            // Имитируем поведение пользователя - прокрутка страницы
+            // Имитируем поведение пользователя - прокрутка страницы (запускает ленивую загрузку контента)
+            long scrollStart = System.nanoTime();
             try {
-                var driver = WebDriverRunner.getWebDriver();
-                if (driver instanceof JavascriptExecutor) {
-                    ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, 100);");
-                    // Минимальная задержка для анимации прокрутки (0.2 сек вместо 0.5 сек)
-                    waitForScrollAnimation(200);
-                    ((JavascriptExecutor) driver).executeScript("window.scrollTo(0, 0);");
-                }
+                browser.executeScript("window.scrollTo(0, 100); window.scrollTo(0, 0);");
             } catch (Exception e) {
                 logger.warn("Не удалось выполнить прокрутку", e);
             }
+            metrics.recordPhase(ParserMetrics.Phase.SCROLL, scrollStart);
             
-            // Умное ожидание завершения динамической загрузки контента (макс 2 сек вместо фиксированных 2 сек)
-            waitForDynamicContent(2000);
+            // Ждем, пока страница загрузится, сетевые запросы завершатся и DOM перестанет меняться
+            long settleStart = System.nanoTime();
+            PageReadinessWaiter.Readiness settle = readinessWaiter.awaitSettled(browser,
+                    waitBudgetService.budget(host, WaitPhase.PAGE_SETTLE), PageReadinessWaiter.DEFAULT_QUIET_MS);
+            waitBudgetService.record(host, WaitPhase.PAGE_SETTLE, settle.elapsedMs(), settle.settled());
+            metrics.recordPhase(ParserMetrics.Phase.PAGE_SETTLE, settleStart);
             
             // Дополнительное ожидание для загрузки контактов и адресов (если они загружаются динамически)
-            waitForContactInfo(1500);
-            
-            // Получаем HTML контент страницы (с контактами и адресами внутри)
-            String html = WebDriverRunner.getWebDriver().getPageSource();
-            logger.info("HTML успешно получен, размер: {} символов", html.length());
+            long contactWaitStart = System.nanoTime();
+            PageReadinessWaiter.Readiness contacts = readinessWaiter.awaitContacts(browser,
+                    waitBudgetService.budget(host, WaitPhase.CONTACT_INFO));
+            waitBudgetService.record(host, WaitPhase.CONTACT_INFO, contacts.elapsedMs(), contacts.settled());
+            metrics.recordPhase(ParserMetrics.Phase.CONTACT_INFO, contactWaitStart);
             
-            // Проверяем на наличие ошибки 403
-            if (is403Error(html)) {
-                throw new HtmlFetchException("Доступ к ресурсу запрещен (403 Forbidden)");
-            }
-            
-            // Проверяем размер HTML (должен быть не менее 500 символов)
-            if (html == null || html.length() < 500) {
-                throw new HtmlFetchException("Размер полученного HTML меньше 500 символов. Возможно, страница не загрузилась полностью или доступ к ресурсу ограничен");
-            }
-            
-            return html;
+            T result = action.apply(browser, baseUrl, blockingProfile);
+            metrics.recordOutcome(ParserMetrics.Outcome.SUCCESS);
+            return result;
         } catch (HtmlFetchException e) {
-            logger.error("Ошибка при получении HTML с URL: {} - {}", url, e.getMessage());
+            logger.error("Ошибка при загрузке страницы: {} - {}", url, e.getMessage());
             throw e;
         } catch (Exception e) {
-            logger.error("Ошибка при получении HTML с URL: {}", url, e);
+            logger.error("Ошибка при загрузке страницы: {}", url, e);
             // Проверяем, не связана ли ошибка с невалидным URL
             String errorMessage = e.getMessage();
             if (errorMessage != null && (errorMessage.contains("Invalid URL") || 
@@ -158,16 +281,14 @@ public class HtmlParserService {
                                          errorMessage.contains("unknown protocol") ||
                                          errorMessage.contains("net::ERR_INVALID_URL") ||
                                          errorMessage.contains("ERR_NAME_NOT_RESOLVED"))) {
+                metrics.recordOutcome(ParserMetrics.Outcome.INVALID_URL);
                 throw new HtmlFetchException("Невалидный URL или невозможно подключиться к ресурсу: " + url);
             }
+            metrics.recordOutcome(ParserMetrics.Outcome.ERROR);
             throw new HtmlFetchException("Не удалось получить HTML с URL: " + url + ". " + e.getMessage());
         } finally {
-            // Закрываем браузер после получения контента
-            try {
-                Selenide.closeWebDriver();
-            } catch (Exception e) {
-                logger.warn("Ошибка при закрытии браузера", e);
-            }
+            // Возвращаем браузер в пул вместо закрытия
+            browserPool.release(browser);
         }
     }
     
@@ -194,461 +315,127 @@ public class HtmlParserService {
     /**
      * Удаляет признаки автоматизации через JavaScript
      */
-    private void removeAutomationFlags() {
+    private void removeAutomationFlags(BrowserTab browser) {
         try {
-            var driver = WebDriverRunner.getWebDriver();
-            if (driver instanceof JavascriptExecutor) {
-                // Удаляем все возможные признаки автоматизации
-                String script = """
-                    // Устанавливаем реалистичные plugins
-                    Object.defineProperty(navigator, 'plugins', {
-                        get: () => {
-                            return [
-                                {name: 'Chrome PDF Plugin', filename: 'internal-pdf-viewer'},
-                                {name: 'Chrome PDF Viewer', filename: 'mhjfbmdgcfjbbpaeojofohoefgiehjai'},
-                                {name: 'Native Client', filename: 'internal-nacl-plugin'}
-                            ];
-                        }
-                    });
-                    
-                    // Устанавливаем languages
-                    Object.defineProperty(navigator, 'languages', {get: () => ['en-US', 'en']});
-                    
-                    // Добавляем chrome объект
-                    window.chrome = {
-                        runtime: {},
-                        loadTimes: function() {},
-                        csi: function() {},
-                        app: {}
-                    };
-                    
-                    // Устанавливаем permissions
-                    const originalQuery = window.navigator.permissions.query;
-                    window.navigator.permissions.query = (parameters) => (
-                        parameters.name === 'notifications' ?
-                            Promise.resolve({ state: Notification.permission }) :
-                            originalQuery(parameters)
-                    );
-                    
-                    // Удаляем признаки автоматизации из document
-                    Object.defineProperty(document, '$cdc_asdjflasutopfhvcZLmcfl_', {get: () => undefined});
-                    Object.defineProperty(document, '$chrome_asyncScriptInfo', {get: () => undefined});
-                    
-                    // Устанавливаем реалистичные screen свойства
-                    Object.defineProperty(navigator, 'hardwareConcurrency', {get: () => 8});
-                    Object.defineProperty(navigator, 'deviceMemory', {get: () => 8});
-                    
-                    // Удаляем признаки headless
-                    Object.defineProperty(navigator, 'maxTouchPoints', {get: () => 0});
-                    """;
-                ((JavascriptExecutor) driver).executeScript(script);
-            }
+            // Удаляем все возможные признаки автоматизации
+            String script = """
+                // Устанавливаем реалистичные plugins
+                Object.defineProperty(navigator, 'plugins', {
+                    get: () => {
+                        return [
+                            {name: 'Chrome PDF Plugin', filename: 'internal-pdf-viewer'},
+                            {name: 'Chrome PDF Viewer', filename: 'mhjfbmdgcfjbbpaeojofohoefgiehjai'},
+                            {name: 'Native Client', filename: 'internal-nacl-plugin'}
+                        ];
+                    }
+                });
+                
+                // Устанавливаем languages
+                Object.defineProperty(navigator, 'languages', {get: () => ['en-US', 'en']});
+                
+                // Добавляем chrome объект
+                window.chrome = {
+                    runtime: {},
+                    loadTimes: function() {},
+                    csi: function() {},
+                    app: {}
+                };
+                
+                // Устанавливаем permissions
+                const originalQuery = window.navigator.permissions.query;
+                window.navigator.permissions.query = (parameters) => (
+                    parameters.name === 'notifications' ?
+                        Promise.resolve({ state: Notification.permission }) :
+                        originalQuery(parameters)
+                );
+                
+                // Удаляем признаки автоматизации из document
+                Object.defineProperty(document, '$cdc_asdjflasutopfhvcZLmcfl_', {get: () => undefined});
+                Object.defineProperty(document, '$chrome_asyncScriptInfo', {get: () => undefined});
+                
+                // Устанавливаем реалистичные screen свойства
+                Object.defineProperty(navigator, 'hardwareConcurrency', {get: () => 8});
+                Object.defineProperty(navigator, 'deviceMemory', {get: () => 8});
+                
+                // Удаляем признаки headless
+                Object.defineProperty(navigator, 'maxTouchPoints', {get: () => 0});
+                """;
+            browser.executeScript(script);
         } catch (Exception e) {
             logger.warn("Не удалось удалить признаки автоматизации", e);
         }
     }
     
     /**
-     * Извлекает контактную информацию из HTML
+     * Извлекает контактную информацию из HTML. Очень большие страницы разбираются потоково, без построения DOM.
      */
     public ContactInfo extractContactInfo(String html, String url) {
-        ContactInfo contactInfo = new ContactInfo();
-        contactInfo.setFullHtml(html);
-        
+        long start = System.nanoTime();
         try {
-            Document doc = Jsoup.parse(html);
-            
-            // Извлекаем телефоны
-            contactInfo.setPhones(extractPhones(html, doc));
-            
-            // Извлекаем email
-            contactInfo.setEmails(extractEmails(html, doc));
-            
-            // Извлекаем адреса
-            contactInfo.setAddresses(extractAddresses(doc));
-            
-            // Извлекаем время работы
-            contactInfo.setWorkingHours(extractWorkingHours(doc));
-            
-            logger.info("Извлечена контактная информация: телефоны={}, emails={}, адреса={}, время работы={}",
-                    contactInfo.getPhones().size(),
-                    contactInfo.getEmails().size(),
-                    contactInfo.getAddresses().size(),
-                    contactInfo.getWorkingHours() != null ? "найдено" : "не найдено");
-            
+            if (html.length() <= extractProperties.getStreamingThresholdChars()) {
+                return contactExtractor.extract(html);
+            }
+            ContactInfo contactInfo = streamingContactExtractor.extract(new StringReader(html), (type, value) -> { });
+            contactInfo.setFullHtml(html);
+            return contactInfo;
         } catch (Exception e) {
-            logger.error("Ошибка при извлечении контактной информации", e);
+            logger.error("Ошибка при потоковом извлечении контактной информации для {}", url, e);
+            ContactInfo contactInfo = new ContactInfo();
+            contactInfo.setFullHtml(html);
+            return contactInfo;
+        } finally {
+            metrics.recordPhase(ParserMetrics.Phase.EXTRACTION, start);
         }
-        
-        return contactInfo;
     }
     
-    /**
-     * Извлекает телефоны из HTML
-     */
-    private List<String> extractPhones(String html, Document doc) {
-        Set<String> phones = new LinkedHashSet<>();
-        
-        // Регулярное выражение для телефонов (разные форматы)
-        Pattern phonePattern = Pattern.compile(
-            "(?:\\+?375|8)?\\s?[-()]?\\s?(?:29|25|33|44|17)\\s?[-()]?\\s?\\d{3}[-()]?\\s?\\d{2}[-()]?\\s?\\d{2}" + // Беларусь
-            "|(?:\\+?7|8)?\\s?[-()]?\\s?(?:\\d{3})\\s?[-()]?\\s?\\d{3}[-()]?\\s?\\d{2}[-()]?\\s?\\d{2}" + // Россия
-            "|(?:\\+?\\d{1,3})?[-.\\s]?\\(?\\d{3}\\)?[-.\\s]?\\d{3}[-.\\s]?\\d{4}" + // Международный формат
-            "|\\d{3}[-.\\s]?\\d{3}[-.\\s]?\\d{4}" // Простой формат
-        );
-        
-        // Поиск в тексте страницы
-        Matcher matcher = phonePattern.matcher(html);
-        while (matcher.find()) {
-            String phone = matcher.group().trim();
-            if (phone.length() >= 7) { // Минимальная длина телефона
-                phones.add(normalizePhone(phone));
-            }
-        }
-        
-        // Поиск в атрибутах href tel:
-        Elements telLinks = doc.select("a[href^=tel:]");
-        for (Element link : telLinks) {
-            String tel = link.attr("href").replace("tel:", "").trim();
-            if (!tel.isEmpty()) {
-                phones.add(normalizePhone(tel));
-            }
-        }
-        
-        // Поиск в тексте элементов с классами, содержащими "phone", "tel", "contact"
-        Elements phoneElements = doc.select("*[class*='phone'], *[class*='tel'], *[class*='contact'], *[id*='phone'], *[id*='tel']");
-        for (Element element : phoneElements) {
-            String text = element.text();
-            Matcher textMatcher = phonePattern.matcher(text);
-            while (textMatcher.find()) {
-                phones.add(normalizePhone(textMatcher.group().trim()));
-            }
-        }
-        
-        return new ArrayList<>(phones);
-    }
     
-    /**
-     * Нормализует номер телефона
-     */
-    private String normalizePhone(String phone) {
-        return phone.replaceAll("[^\\d+]", "").replaceAll("^8", "+375");
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
     }
-    
-    /**
-     * Извлекает email из HTML
-     */
-    private List<String> extractEmails(String html, Document doc) {
-        Set<String> emails = new LinkedHashSet<>();
-        
-        // Регулярное выражение для email
-        Pattern emailPattern = Pattern.compile(
-            "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}",
-            Pattern.CASE_INSENSITIVE
-        );
-        
-        // Поиск в тексте страницы
-        Matcher matcher = emailPattern.matcher(html);
-        while (matcher.find()) {
-            String email = matcher.group().toLowerCase();
-            if (!email.contains("@example") && !email.contains("@test")) {
-                emails.add(email);
-            }
-        }
-        
-        // Поиск в атрибутах href mailto:
-        Elements mailLinks = doc.select("a[href^=mailto:]");
-        for (Element link : mailLinks) {
-            String email = link.attr("href").replace("mailto:", "").split("[?]")[0].trim().toLowerCase();
-            if (!email.isEmpty()) {
-                emails.add(email);
-            }
-        }
-        
-        // Поиск в элементах с классами, содержащими "email", "mail", "contact"
-        Elements emailElements = doc.select("*[class*='email'], *[class*='mail'], *[id*='email'], *[id*='mail']");
-        for (Element element : emailElements) {
-            String text = element.text();
-            Matcher textMatcher = emailPattern.matcher(text);
-            while (textMatcher.find()) {
-                emails.add(textMatcher.group().toLowerCase());
-            }
-        }
-        
-        return new ArrayList<>(emails);
-    }
-    
+
     /**
-     * Извлекает адреса из HTML
+     * Проверяет, является ли HTML ответом с ошибкой 403. Поиск без учета регистра выполняется
+     * по исходной строке, без копии документа в нижнем регистре.
      */
-    private List<String> extractAddresses(Document doc) {
-        Set<String> addresses = new LinkedHashSet<>();
-        
-        // Поиск в структурированных данных (schema.org)
-        Elements addressElements = doc.select("*[itemtype*='PostalAddress'], *[itemprop='address'], address");
-        for (Element element : addressElements) {
-            String address = element.text().trim();
-            if (address.length() > 10) {
-                addresses.add(address);
-            }
-        }
-        
-        // Поиск в элементах с классами, содержащими "address", "адрес", "location"
-        Elements addressClassElements = doc.select(
-            "*[class*='address'], *[class*='адрес'], *[class*='location'], " +
-            "*[id*='address'], *[id*='адрес'], *[id*='location']"
-        );
-        for (Element element : addressClassElements) {
-            String address = element.text().trim();
-            if (address.length() > 10 && !address.contains("@")) { // Исключаем email
-                addresses.add(address);
-            }
-        }
-        
-        // Поиск в footer и contact sections
-        Elements footerElements = doc.select("footer, .footer, .contacts, .contact-info, .address-block");
-        for (Element element : footerElements) {
-            String text = element.text();
-            // Ищем паттерны адресов (улица, дом, город)
-            if (text.matches(".*(улица|ул\\.|street|st\\.|проспект|пр\\.|avenue|av\\.).*")) {
-                String[] lines = text.split("\n");
-                for (String line : lines) {
-                    line = line.trim();
-                    if (line.length() > 15 && line.matches(".*\\d+.*")) { // Содержит цифры
-                        addresses.add(line);
-                    }
-                }
-            }
-        }
-        
-        return new ArrayList<>(addresses);
+    public boolean is403Error(String html) {
+        return isForbiddenPage(html);
     }
-    
-    /**
-     * Извлекает время работы из HTML
-     */
-    private String extractWorkingHours(Document doc) {
-        // Поиск в структурированных данных (schema.org)
-        Elements openingHoursElements = doc.select("*[itemprop='openingHours'], *[itemprop='openingHoursSpecification']");
-        if (!openingHoursElements.isEmpty()) {
-            return openingHoursElements.first().text().trim();
-        }
-        
-        // Поиск в элементах с классами, содержащими "hours", "time", "расписание", "work"
-        Elements hoursElements = doc.select(
-            "*[class*='hours'], *[class*='time'], *[class*='расписание'], *[class*='work'], " +
-            "*[id*='hours'], *[id*='time'], *[id*='расписание']"
-        );
-        for (Element element : hoursElements) {
-            String text = element.text().trim();
-            if (text.toLowerCase().contains("пн") || text.toLowerCase().contains("mon") ||
-                text.toLowerCase().contains("вт") || text.toLowerCase().contains("tue") ||
-                text.matches(".*\\d{1,2}:\\d{2}.*")) {
-                return text;
-            }
-        }
-        
-        // Поиск в тексте, содержащем паттерны времени работы
-        String bodyText = doc.body().text();
-        Pattern hoursPattern = Pattern.compile(
-            "(?:пн|пон|mon|monday)[\\s:-]*\\d{1,2}:\\d{2}[\\s-]*\\d{1,2}:\\d{2}.*",
-            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE
-        );
-        Matcher matcher = hoursPattern.matcher(bodyText);
-        if (matcher.find()) {
-            String match = matcher.group();
-            // Берем первые 200 символов
-            return match.length() > 200 ? match.substring(0, 200) + "..." : match;
+
+    static boolean isForbiddenPage(String html) {
+        if (html == null || html.isEmpty()) {
+            return false;
         }
         
-        return null;
+        // Проверяем наличие признаков ошибки 403
+        return html.contains("403") && 
+               (containsIgnoreCase(html, "forbidden") || 
+                containsIgnoreCase(html, "доступ запрещен") || 
+                containsIgnoreCase(html, "access denied") ||
+                containsIgnoreCase(html, "доступ запрещён"));
     }
-    
+
     /**
-     * Умное ожидание готовности страницы (DOM готов + все запросы завершены)
+     * Содержит ли text подстроку needle (в нижнем регистре) без учета регистра
      */
-    private void waitForPageLoad(long maxWaitMs) {
-        try {
-            WebDriver driver = WebDriverRunner.getWebDriver();
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofMillis(maxWaitMs));
-            
-            // Ждем готовности DOM
-            wait.until((ExpectedCondition<Boolean>) d -> {
-                if (!(d instanceof JavascriptExecutor)) {
-                    return true;
-                }
-                JavascriptExecutor js = (JavascriptExecutor) d;
-                String readyState = (String) js.executeScript("return document.readyState");
-                return "complete".equals(readyState);
-            });
-            
-            // Ждем завершения всех AJAX запросов (если jQuery используется)
-            try {
-                wait.until((ExpectedCondition<Boolean>) d -> {
-                    if (!(d instanceof JavascriptExecutor)) {
-                        return true;
-                    }
-                    JavascriptExecutor js = (JavascriptExecutor) d;
-                    try {
-                        Long ajaxComplete = (Long) js.executeScript(
-                            "return (typeof jQuery !== 'undefined' && jQuery.active === 0) || " +
-                            "typeof jQuery === 'undefined'"
-                        );
-                        return ajaxComplete != null && ajaxComplete == 1;
-                    } catch (Exception e) {
-                        return true; // Если jQuery не используется, считаем что готово
-                    }
-                });
-            } catch (Exception e) {
-                // jQuery может отсутствовать, это нормально
-                logger.debug("jQuery не найден, пропускаем проверку AJAX");
+    static boolean containsIgnoreCase(String text, String needle) {
+        char first = needle.charAt(0);
+        char firstUpper = Character.toUpperCase(first);
+        int last = text.length() - needle.length();
+        for (int i = 0; i <= last; i++) {
+            char c = text.charAt(i);
+            if ((c == first || c == firstUpper) && text.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
             }
-            
-            logger.debug("Страница загружена (макс. ожидание: {} мс)", maxWaitMs);
-        } catch (Exception e) {
-            logger.warn("Таймаут ожидания загрузки страницы, продолжаем", e);
         }
+        return false;
     }
-    
-    /**
-     * Ожидание выполнения JavaScript скриптов
-     */
-    private void waitForScriptsExecution(long maxWaitMs) {
-        try {
-            Thread.sleep(Math.min(maxWaitMs, 500)); // Максимум 500мс
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
-    
-    /**
-     * Ожидание завершения анимации прокрутки
-     */
-    private void waitForScrollAnimation(long maxWaitMs) {
-        try {
-            Thread.sleep(Math.min(maxWaitMs, 300)); // Максимум 300мс
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
-    
-    /**
-     * Умное ожидание загрузки динамического контента
-     */
-    private void waitForDynamicContent(long maxWaitMs) {
-        try {
-            WebDriver driver = WebDriverRunner.getWebDriver();
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofMillis(maxWaitMs));
-            
-            // Ждем стабилизации количества элементов на странице
-            final int[] previousElementCount = {0};
-            wait.until((ExpectedCondition<Boolean>) d -> {
-                if (!(d instanceof JavascriptExecutor)) {
-                    return true;
-                }
-                JavascriptExecutor js = (JavascriptExecutor) d;
-                try {
-                    Long currentCount = (Long) js.executeScript(
-                        "return document.getElementsByTagName('*').length"
-                    );
-                    
-                    if (currentCount == null) {
-                        return true;
-                    }
-                    
-                    // Если количество элементов стабильно 2 проверки подряд - считаем загруженным
-                    if (currentCount == previousElementCount[0]) {
-                        return true;
-                    }
-                    
-                    previousElementCount[0] = currentCount.intValue();
-                    Thread.sleep(100); // Небольшая пауза перед следующей проверкой
-                    return false;
-                } catch (Exception e) {
-                    return true; // При ошибке считаем готовым
-                }
-            });
-            
-            logger.debug("Динамический контент загружен");
-        } catch (Exception e) {
-            logger.debug("Таймаут ожидания динамического контента, продолжаем", e);
-        }
-    }
-    
-    /**
-     * Ожидание загрузки контактной информации на странице
-     */
-    private void waitForContactInfo(long maxWaitMs) {
-        try {
-            WebDriver driver = WebDriverRunner.getWebDriver();
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofMillis(maxWaitMs));
-            
-            // Ждем появления контактной информации (телефоны, адреса, email)
-            wait.until((ExpectedCondition<Boolean>) d -> {
-                if (!(d instanceof JavascriptExecutor)) {
-                    return true;
-                }
-                JavascriptExecutor js = (JavascriptExecutor) d;
-                try {
-                    // Проверяем наличие элементов с контактной информацией
-                    Long contactElements = (Long) js.executeScript(
-                        "return document.querySelectorAll(" +
-                        "'[class*=\"phone\"], [class*=\"tel\"], [class*=\"contact\"], " +
-                        "[class*=\"address\"], [class*=\"адрес\"], [class*=\"location\"], " +
-                        "[href^=\"tel:\"], [href^=\"mailto:\"], " +
-                        "[itemprop=\"telephone\"], [itemprop=\"address\"], [itemprop=\"email\"]" +
-                        ").length"
-                    );
-                    
-                    // Если есть хотя бы один элемент с контактами - считаем готово
-                    if (contactElements != null && contactElements > 0) {
-                        return true;
-                    }
-                    
-                    // Также проверяем наличие текста, похожего на телефон или адрес
-                    String pageText = (String) js.executeScript("return document.body.innerText || ''");
-                    if (pageText != null) {
-                        // Проверяем наличие паттернов телефонов (беларусь, россия, международные)
-                        boolean hasPhone = pageText.matches(".*(\\+?375|\\+?7|8)?\\s?[-()]?\\s?\\d{2,3}\\s?[-()]?\\s?\\d{3}[-()]?\\s?\\d{2}[-()]?\\s?\\d{2}.*") ||
-                                         pageText.matches(".*\\d{3}[-.\\s]?\\d{3}[-.\\s]?\\d{4}.*");
-                        
-                        // Проверяем наличие адресов (улица, дом, город)
-                        boolean hasAddress = pageText.toLowerCase().matches(".*(улица|ул\\.|street|st\\.|проспект|пр\\.|avenue|av\\.|адрес|address).*");
-                        
-                        // Проверяем наличие email
-                        boolean hasEmail = pageText.matches(".*[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}.*");
-                        
-                        if (hasPhone || hasAddress || hasEmail) {
-                            return true;
-                        }
-                    }
-                    
-                    return false;
-                } catch (Exception e) {
-                    return true; // При ошибке считаем готовым
-                }
-            });
-            
-            logger.debug("Контактная информация обнаружена на странице");
-        } catch (Exception e) {
-            logger.debug("Таймаут ожидания контактной информации, продолжаем (возможно, контакты не найдены на странице)", e);
-        }
-    }
-    
+
     /**
-     * Проверяет, является ли HTML ответом с ошибкой 403
+     * Действие над страницей, загруженной в браузере
      */
-    private boolean is403Error(String html) {
-        if (html == null || html.isEmpty()) {
-            return false;
-        }
-        
-        String lowerHtml = html.toLowerCase();
-        // Проверяем наличие признаков ошибки 403
-        return lowerHtml.contains("403") && 
-               (lowerHtml.contains("forbidden") || 
-                lowerHtml.contains("доступ запрещен") || 
-                lowerHtml.contains("access denied") ||
-                lowerHtml.contains("доступ запрещён"));
+    @FunctionalInterface
+    private interface PageAction<T> {
+        T apply(BrowserTab browser, String baseUrl, String blockingProfile) throws HtmlFetchException;
     }
 }
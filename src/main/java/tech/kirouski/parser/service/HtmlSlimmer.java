@@ -0,0 +1,104 @@
+package tech.kirouski.parser.service;
+
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Уменьшает HTML для ответа: удаляет скрипты, стили, SVG, комментарии и встроенные data: URI
+ * и схлопывает пробелы в тексте (кроме pre и textarea). Разметка и видимый текст сохраняются.
+ */
+public final class HtmlSlimmer {
+
+    private static final Set<String> REMOVED_TAGS = Set.of("script", "style", "svg", "noscript", "template");
+
+    private static final Set<String> PRESERVE_WHITESPACE_TAGS = Set.of("pre", "textarea");
+
+    private HtmlSlimmer() {
+    }
+
+    /**
+     * Уменьшает документ за один обход и возвращает его HTML без форматирования
+     */
+    public static String slim(Document doc) {
+        doc.filter(new NodeFilter() {
+            @Override
+            public FilterResult head(Node node, int depth) {
+                if (node instanceof Comment) {
+                    return FilterResult.REMOVE;
+                }
+                if (node instanceof Element element) {
+                    if (REMOVED_TAGS.contains(element.normalName())) {
+                        return FilterResult.REMOVE;
+                    }
+                    removeDataUris(element);
+                    return FilterResult.CONTINUE;
+                }
+                if (node instanceof TextNode text && !preservesWhitespace(text)) {
+                    text.text(collapseWhitespace(text.getWholeText()));
+                }
+                return FilterResult.CONTINUE;
+            }
+        });
+        doc.outputSettings().prettyPrint(false);
+        return doc.outerHtml();
+    }
+
+    private static void removeDataUris(Element element) {
+        if (element.attributesSize() == 0) {
+            return;
+        }
+        List<String> removed = null;
+        for (Attribute attribute : element.attributes()) {
+            String value = attribute.getValue().trim();
+            boolean dataUri = value.regionMatches(true, 0, "data:", 0, 5)
+                    || ((attribute.getKey().equals("style") || attribute.getKey().equals("srcset"))
+                        && value.toLowerCase(Locale.ROOT).contains("data:"));
+            if (dataUri) {
+                if (removed == null) {
+                    removed = new ArrayList<>();
+                }
+                removed.add(attribute.getKey());
+            }
+        }
+        if (removed != null) {
+            removed.forEach(element::removeAttr);
+        }
+    }
+
+    private static boolean preservesWhitespace(Node node) {
+        for (Node parent = node.parent(); parent != null; parent = parent.parent()) {
+            if (parent instanceof Element element && PRESERVE_WHITESPACE_TAGS.contains(element.normalName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String collapseWhitespace(String text) {
+        StringBuilder collapsed = new StringBuilder(text.length());
+        boolean lastWhite = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f') {
+                if (!lastWhite) {
+                    collapsed.append(' ');
+                }
+                lastWhite = true;
+            } else {
+                collapsed.append(c);
+                lastWhite = false;
+            }
+        }
+        return collapsed.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package tech.kirouski.parser.service;
+
+import tech.kirouski.parser.dto.ContactInfo;
+import tech.kirouski.parser.dto.PayloadSize;
+
+/**
+ * Поля ответа по загруженной странице после применения параметров вывода
+ */
+public class PageOutput {
+    private final String html;
+    private final String text;
+    private final ContactInfo contacts;
+    private final PayloadSize size;
+
+    public PageOutput(String html, String text, ContactInfo contacts, PayloadSize size) {
+        this.html = html;
+        this.text = text;
+        this.contacts = contacts;
+        this.size = size;
+    }
+
+    public String getHtml() {
+        return html;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public ContactInfo getContacts() {
+        return contacts;
+    }
+
+    public PayloadSize getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,131 @@
+package tech.kirouski.parser.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tech.kirouski.parser.dto.ContactInfo;
+import tech.kirouski.parser.dto.OutputField;
+import tech.kirouski.parser.dto.OutputOptions;
+import tech.kirouski.parser.dto.PayloadSize;
+
+import java.util.List;
+
+/**
+ * Формирует ответ по загруженной странице согласно параметрам вывода запроса:
+ * выбор полей (HTML, текст, контакты), уменьшение HTML и ограничение размера
+ */
+@Service
+public class PayloadService {
+
+    private static final List<OutputField> DEFAULT_FIELDS = List.of(OutputField.HTML);
+
+    private final HtmlParserService htmlParserService;
+
+    @Autowired
+    public PayloadService(HtmlParserService htmlParserService) {
+        this.htmlParserService = htmlParserService;
+    }
+
+    public PageOutput shape(String html, String url, OutputOptions options) {
+        long originalBytes = utf8Length(html);
+        if (options == null) {
+            return new PageOutput(html, null, null, new PayloadSize(originalBytes, originalBytes, false));
+        }
+
+        List<OutputField> fields = options.getFields() != null && !options.getFields().isEmpty()
+                ? options.getFields() : DEFAULT_FIELDS;
+        boolean withHtml = fields.contains(OutputField.HTML);
+        boolean withText = fields.contains(OutputField.TEXT);
+
+        // Контакты извлекаются из исходного HTML, до удаления скриптов и обрезки
+        ContactInfo contacts = null;
+        if (fields.contains(OutputField.CONTACTS)) {
+            contacts = htmlParserService.extractContactInfo(html, url);
+            contacts.setFullHtml(null);
+        }
+
+        String outputHtml = null;
+        String text = null;
+        if ((withHtml && options.isSlim()) || withText) {
+            Document doc = Jsoup.parse(html);
+            if (withText) {
+                text = doc.body().text();
+            }
+            if (withHtml) {
+                outputHtml = options.isSlim() ? HtmlSlimmer.slim(doc) : html;
+            }
+        } else if (withHtml) {
+            outputHtml = html;
+        }
+
+        boolean truncated = false;
+        Integer maxBytes = options.getMaxBytes();
+        if (maxBytes != null && maxBytes >= 0) {
+            String cappedHtml = truncateUtf8(outputHtml, maxBytes);
+            String cappedText = truncateUtf8(text, maxBytes);
+            truncated = cappedHtml != outputHtml || cappedText != text;
+            outputHtml = cappedHtml;
+            text = cappedText;
+        }
+
+        long returnedBytes = utf8Length(outputHtml) + utf8Length(text);
+        return new PageOutput(outputHtml, text, contacts, new PayloadSize(originalBytes, returnedBytes, truncated));
+    }
+
+    /**
+     * Длина строки в UTF-8 без кодирования
+     */
+    static long utf8Length(CharSequence s) {
+        if (s == null) {
+            return 0;
+        }
+        long bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Обрезает строку так, чтобы она занимала в UTF-8 не больше maxBytes, не разрывая суррогатные пары.
+     * Возвращает ту же строку, если обрезать не нужно.
+     */
+    static String truncateUtf8(String s, int maxBytes) {
+        if (s == null || s.length() <= maxBytes / 3) {
+            return s;
+        }
+        long bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            int width;
+            if (c < 0x80) {
+                width = 1;
+            } else if (c < 0x800) {
+                width = 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                width = 4;
+            } else {
+                width = 3;
+            }
+            if (bytes + width > maxBytes) {
+                return s.substring(0, i);
+            }
+            bytes += width;
+            if (width == 4) {
+                i++;
+            }
+        }
+        return s;
+    }
+}
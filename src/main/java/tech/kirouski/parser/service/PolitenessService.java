@@ -0,0 +1,173 @@
+package tech.kirouski.parser.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tech.kirouski.parser.config.PolitenessProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Общее для всех пакетов состояние хостов: сколько загрузок с хоста выполняется, когда можно начать следующую
+ * и сколько URL хоста ждут в очередях пакетов. Порядок загрузок внутри пакета выбирает {@link HostScheduler}.
+ */
+@Service
+public class PolitenessService {
+
+    private final PolitenessProperties properties;
+    private final MultiGauge queuedGauge;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, HostState> hosts = new HashMap<>();
+    private long releases;
+
+    @Autowired
+    public PolitenessService(PolitenessProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.queuedGauge = MultiGauge.builder("parser.politeness.queued")
+                .description("URL пакетов, ожидающие загрузки, по хостам")
+                .register(registry);
+        Gauge.builder("parser.politeness.hosts", this, PolitenessService::getQueuedHostCount)
+                .description("Хосты, URL которых ожидают загрузки")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Пытается начать загрузку с хоста. Возвращает 0, если загрузку можно начинать (она учтена и после нее нужно
+     * вызвать {@link #release(String)}), иначе — сколько наносекунд стоит подождать до следующей попытки
+     * (Long.MAX_VALUE — до завершения одной из загрузок с хоста).
+     */
+    long tryAcquire(String host) {
+        lock.lock();
+        try {
+            HostState state = hosts.computeIfAbsent(host, h -> new HostState());
+            if (state.active >= maxConcurrent(host)) {
+                return Long.MAX_VALUE;
+            }
+            long now = System.nanoTime();
+            long wait = state.nextStart - now;
+            if (state.started && wait > 0) {
+                return wait;
+            }
+            state.active++;
+            state.started = true;
+            state.nextStart = now + TimeUnit.MILLISECONDS.toNanos(minDelayMs(host));
+            return 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(String host) {
+        lock.lock();
+        try {
+            HostState state = hosts.get(host);
+            if (state != null) {
+                state.active--;
+            }
+            releases++;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Номер последнего освобождения хоста, для {@link #awaitRelease(long, long)}
+     */
+    long releaseCount() {
+        lock.lock();
+        try {
+            return releases;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ждет освобождения какого-либо хоста после releaseCount seen, но не дольше nanos
+     */
+    void awaitRelease(long seen, long nanos) throws InterruptedException {
+        lock.lock();
+        try {
+            while (releases == seen && nanos > 0) {
+                nanos = changed.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Учитывает изменение количества URL хоста в очередях пакетов
+     */
+    void addQueued(String host, int delta) {
+        lock.lock();
+        try {
+            hosts.computeIfAbsent(host, h -> new HostState()).queued += delta;
+            refreshMetrics();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueuedHostCount() {
+        lock.lock();
+        try {
+            return (int) hosts.values().stream().filter(state -> state.queued > 0).count();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int maxConcurrent(String host) {
+        PolitenessProperties.HostLimits limits = properties.getHosts().get(host);
+        int max = limits != null && limits.getMaxConcurrent() != null ? limits.getMaxConcurrent() : properties.getMaxConcurrentPerHost();
+        return Math.max(1, max);
+    }
+
+    private long minDelayMs(String host) {
+        PolitenessProperties.HostLimits limits = properties.getHosts().get(host);
+        return Math.max(0, limits != null && limits.getMinDelayMs() != null ? limits.getMinDelayMs() : properties.getMinDelayMs());
+    }
+
+    /**
+     * Публикует глубину очереди хостов, URL которых ждут загрузки, и забывает хосты, с которыми больше нет работы
+     */
+    private void refreshMetrics() {
+        long now = System.nanoTime();
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (Iterator<Map.Entry<String, HostState>> it = hosts.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, HostState> entry = it.next();
+            HostState state = entry.getValue();
+            if (state.queued > 0) {
+                rows.add(MultiGauge.Row.of(Tags.of("host", entry.getKey()), state.queued));
+            } else if (state.active == 0 && now - state.nextStart >= 0) {
+                it.remove();
+            }
+        }
+        queuedGauge.register(rows, true);
+    }
+
+    private static class HostState {
+        int active;
+        int queued;
+        boolean started;
+        long nextStart;
+    }
+}
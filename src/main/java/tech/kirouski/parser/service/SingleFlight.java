@@ -0,0 +1,149 @@
+package tech.kirouski.parser.service;
+
+import tech.kirouski.parser.exception.HtmlFetchException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Объединение одновременных одинаковых задач: пока задача с ключом выполняется, следующие вызовы с тем же ключом
+ * не запускают ее повторно, а ждут и получают тот же результат или ту же ошибку.
+ * Задача выполняется в отдельном потоке и отменяется, только когда от нее отказались все ожидающие вызовы.
+ * Каждый вызов ждет начала работы задачи (например, допуска к загрузке) не дольше своего таймаута.
+ */
+final class SingleFlight<K, V> {
+
+    @FunctionalInterface
+    interface Task<V> {
+        /**
+         * @param started вызывается, когда задача дождалась допуска и начала работу
+         */
+        V call(Runnable started) throws HtmlFetchException;
+    }
+
+    private final ConcurrentMap<K, Flight> flights = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final Runnable onCoalesced;
+
+    /**
+     * @param onCoalesced вызывается каждый раз, когда вызов присоединяется к уже выполняемой задаче
+     */
+    SingleFlight(Executor executor, Runnable onCoalesced) {
+        this.executor = executor;
+        this.onCoalesced = onCoalesced;
+    }
+
+    /**
+     * Выполняет задачу или присоединяется к уже выполняемой с тем же ключом.
+     *
+     * @param startTimeoutMs сколько ждать начала работы задачи; начавшаяся задача ожидается до завершения
+     * @throws TimeoutException задача не начала работу за startTimeoutMs
+     * @throws RejectedExecutionException executor не принял задачу
+     */
+    V execute(K key, long startTimeoutMs, Task<V> task) throws HtmlFetchException, TimeoutException {
+        AtomicReference<Flight> created = new AtomicReference<>();
+        Flight flight = flights.compute(key, (k, existing) -> {
+            if (existing != null && existing.attach()) {
+                return existing;
+            }
+            Flight started = new Flight(k, task);
+            started.attach();
+            created.set(started);
+            return started;
+        });
+
+        if (flight == created.get()) {
+            try {
+                executor.execute(flight.future);
+            } catch (RejectedExecutionException e) {
+                flight.future.cancel(false);
+                throw e;
+            }
+        } else {
+            onCoalesced.run();
+        }
+        return flight.await(startTimeoutMs);
+    }
+
+    /**
+     * Количество выполняемых задач
+     */
+    int size() {
+        return flights.size();
+    }
+
+    private final class Flight {
+        private final FutureTask<V> future;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private int waiters;
+        private boolean abandoned;
+
+        Flight(K key, Task<V> task) {
+            this.future = new FutureTask<>(() -> task.call(started::countDown)) {
+                @Override
+                protected void done() {
+                    started.countDown();
+                    flights.remove(key, Flight.this);
+                }
+            };
+        }
+
+        /**
+         * Добавляет ожидающий вызов, если задача еще не отменена
+         */
+        synchronized boolean attach() {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        /**
+         * Убирает ожидающий вызов; задача, которую больше никто не ждет, отменяется
+         */
+        synchronized void detach() {
+            if (--waiters == 0 && !future.isDone()) {
+                abandoned = true;
+                future.cancel(true);
+            }
+        }
+
+        V await(long startTimeoutMs) throws HtmlFetchException, TimeoutException {
+            try {
+                if (!started.await(startTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    detach();
+                    throw new TimeoutException("Задача не начала работу за " + startTimeoutMs + " мс");
+                }
+                return future.get();
+            } catch (InterruptedException e) {
+                detach();
+                Thread.currentThread().interrupt();
+                throw new HtmlFetchException("Ожидание загрузки страницы прервано");
+            } catch (CancellationException e) {
+                throw new HtmlFetchException("Загрузка страницы отменена");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof HtmlFetchException fetchException) {
+                    throw fetchException;
+                }
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new HtmlFetchException("Не удалось загрузить страницу: " + cause.getMessage());
+            }
+        }
+    }
+}
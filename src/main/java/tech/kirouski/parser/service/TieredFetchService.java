@@ -0,0 +1,112 @@
+package tech.kirouski.parser.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tech.kirouski.parser.config.TieredFetchProperties;
+import tech.kirouski.parser.dto.FetchHtmlRequest;
+import tech.kirouski.parser.dto.FetchMode;
+import tech.kirouski.parser.dto.PageSource;
+import tech.kirouski.parser.exception.HtmlFetchException;
+import tech.kirouski.parser.heuristic.RenderHeuristic;
+import tech.kirouski.parser.http.HttpPage;
+import tech.kirouski.parser.http.HttpPageFetcher;
+
+import java.util.List;
+
+/**
+ * Многоуровневая загрузка: сначала быстрый HTTP-запрос, а браузер — только если эвристики
+ * считают, что без выполнения JavaScript страница неполная
+ */
+@Service
+public class TieredFetchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredFetchService.class);
+
+    private final HttpPageFetcher httpPageFetcher;
+    private final HtmlParserService htmlParserService;
+    private final List<RenderHeuristic> heuristics;
+    private final TieredFetchProperties properties;
+
+    @Autowired
+    public TieredFetchService(HttpPageFetcher httpPageFetcher,
+                              HtmlParserService htmlParserService,
+                              List<RenderHeuristic> heuristics,
+                              TieredFetchProperties properties) {
+        this.httpPageFetcher = httpPageFetcher;
+        this.htmlParserService = htmlParserService;
+        this.heuristics = heuristics;
+        this.properties = properties;
+    }
+
+    public FetchedPage fetch(String url, FetchHtmlRequest options) throws HtmlFetchException {
+        FetchMode mode = resolveMode(options);
+        if (mode == FetchMode.BROWSER) {
+            return fetchInBrowser(url, options);
+        }
+
+        HttpPage page;
+        try {
+            page = httpPageFetcher.fetch(url);
+        } catch (HtmlFetchException e) {
+            if (mode == FetchMode.HTTP) {
+                throw e;
+            }
+            logger.info("HTTP-загрузка {} не удалась ({}), переходим в браузер", url, e.getMessage());
+            return fetchInBrowser(url, options);
+        }
+
+        if (mode == FetchMode.HTTP) {
+            validate(page);
+            return new FetchedPage(page.getHtml(), PageSource.HTTP);
+        }
+
+        double threshold = resolveRenderThreshold(options);
+        for (RenderHeuristic heuristic : heuristics) {
+            double score = heuristic.score(page);
+            if (score >= threshold) {
+                logger.info("Страница {} требует браузера: {} (оценка {} при пороге {})", url, heuristic.name(), score, threshold);
+                return fetchInBrowser(url, options);
+            }
+        }
+
+        logger.info("HTML для {} получен по HTTP без браузера, размер: {} символов", url, page.getHtml().length());
+        return new FetchedPage(page.getHtml(), PageSource.HTTP);
+    }
+
+    /**
+     * Режим загрузки запроса (режим по умолчанию, если он не указан)
+     */
+    FetchMode resolveMode(FetchHtmlRequest options) {
+        return options != null && options.getMode() != null ? options.getMode() : properties.getDefaultMode();
+    }
+
+    /**
+     * Порог эвристик, начиная с которого страница загружается в браузере
+     */
+    double resolveRenderThreshold(FetchHtmlRequest options) {
+        return options != null && options.getRenderThreshold() != null
+                ? options.getRenderThreshold()
+                : properties.getRenderThreshold();
+    }
+
+    private FetchedPage fetchInBrowser(String url, FetchHtmlRequest options) throws HtmlFetchException {
+        return htmlParserService.fetchPage(url, options);
+    }
+
+    /**
+     * Те же проверки результата, что и при загрузке в браузере
+     */
+    private void validate(HttpPage page) throws HtmlFetchException {
+        if (page.getStatusCode() == 403 || htmlParserService.is403Error(page.getHtml())) {
+            throw new HtmlFetchException("Доступ к ресурсу запрещен (403 Forbidden)");
+        }
+        if (page.getStatusCode() >= 400) {
+            throw new HtmlFetchException("Сервер вернул ошибку HTTP " + page.getStatusCode());
+        }
+        if (page.getHtml().length() < HtmlParserService.MIN_HTML_LENGTH) {
+            throw new HtmlFetchException("Размер полученного HTML меньше 500 символов. Возможно, страница не загрузилась полностью или доступ к ресурсу ограничен");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package tech.kirouski.parser.service;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Приводит URL к каноническому виду, чтобы разные записи одного адреса давали один ключ
+ */
+public final class UrlNormalizer {
+
+    private UrlNormalizer() {
+    }
+
+    /**
+     * Нормализует URL: схема и хост в нижнем регистре, без порта по умолчанию,
+     * без фрагмента, с пустым путем "/" и отсортированными параметрами запроса
+     */
+    public static String normalize(String url) {
+        if (url == null) {
+            return null;
+        }
+        String trimmed = url.trim();
+        try {
+            URI uri = URI.create(trimmed);
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return trimmed;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            String host = uri.getHost().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                    || ("http".equals(scheme) && port == 80)
+                    || ("https".equals(scheme) && port == 443);
+
+            StringBuilder normalized = new StringBuilder(trimmed.length());
+            normalized.append(scheme).append("://").append(host);
+            if (!defaultPort) {
+                normalized.append(':').append(port);
+            }
+            String path = uri.getRawPath();
+            normalized.append(path == null || path.isEmpty() ? "/" : path);
+
+            String query = uri.getRawQuery();
+            if (query != null && !query.isEmpty()) {
+                String[] params = query.split("&");
+                Arrays.sort(params);
+                normalized.append('?').append(String.join("&", params));
+            }
+            return normalized.toString();
+        } catch (IllegalArgumentException e) {
+            return trimmed;
+        }
+    }
+
+    /**
+     * Возвращает хост URL в нижнем регистре или null, если его не удалось определить
+     */
+    public static String host(String url) {
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host != null ? host.toLowerCase(Locale.ROOT) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package tech.kirouski.parser.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tech.kirouski.parser.exception.InvalidUrlException;
+import tech.kirouski.parser.metrics.ParserMetrics;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * Проверка URL перед загрузкой страницы
+ */
+@Component
+public class UrlValidator {
+
+    private final ParserMetrics metrics;
+
+    @Autowired
+    public UrlValidator(ParserMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Валидирует URL
+     */
+    public void validate(String url) throws InvalidUrlException {
+        try {
+            check(url);
+        } catch (InvalidUrlException e) {
+            metrics.recordOutcome(ParserMetrics.Outcome.INVALID_URL);
+            throw e;
+        }
+    }
+
+    private void check(String url) throws InvalidUrlException {
+        if (url == null || url.trim().isEmpty()) {
+            throw new InvalidUrlException("URL не может быть пустым");
+        }
+        
+        String trimmedUrl = url.trim();
+        
+        // Проверяем, что URL содержит протокол и двоеточие
+        if (!trimmedUrl.contains("://")) {
+            throw new InvalidUrlException("URL должен содержать протокол (http:// или https://)");
+        }
+        
+        // Проверяем, что после протокола есть что-то еще
+        String[] parts = trimmedUrl.split("://", 2);
+        if (parts.length != 2 || parts[1] == null || parts[1].trim().isEmpty()) {
+            throw new InvalidUrlException("URL должен содержать хост после протокола");
+        }
+        
+        try {
+            URL urlObj = new URL(trimmedUrl);
+            // Проверяем протокол
+            String protocol = urlObj.getProtocol();
+            if (!protocol.equals("http") && !protocol.equals("https")) {
+                throw new InvalidUrlException("URL должен использовать протокол http или https");
+            }
+            // Проверяем наличие хоста
+            if (urlObj.getHost() == null || urlObj.getHost().isEmpty()) {
+                throw new InvalidUrlException("URL должен содержать валидный хост");
+            }
+        } catch (MalformedURLException e) {
+            throw new InvalidUrlException("Невалидный формат URL: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package tech.kirouski.parser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import tech.kirouski.parser.config.WaitBudgetProperties;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Адаптивные бюджеты ожидания: для каждого хоста и фазы ожидания хранится гистограмма
+ * фактического времени, бюджет — 95-й перцентиль плюс запас в пределах настроенных границ.
+ * Статистика периодически сохраняется в файл и загружается при старте.
+ */
+@Service
+public class WaitBudgetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitBudgetService.class);
+
+    /**
+     * Верхние границы корзин гистограммы, мс. Последняя корзина хранит ожидания, закончившиеся по таймауту.
+     */
+    private static final long[] BUCKETS_MS = {
+            100, 200, 300, 400, 500, 750, 1000, 1250, 1500, 2000, 2500, 3000,
+            4000, 5000, 6000, 7000, 8000, 10000, 12000, 15000, 20000, 30000
+    };
+
+    /**
+     * При таком количестве наблюдений счетчики делятся пополам, чтобы свежие замеры весили больше старых
+     */
+    private static final long DECAY_THRESHOLD = 200;
+
+    private static final double PERCENTILE = 0.95;
+
+    /**
+     * Ожидание, закончившееся по таймауту не раньше этой доли максимума, считается ожиданием с максимальным бюджетом
+     */
+    private static final double AT_MAX_RATIO = 0.95;
+
+    private final WaitBudgetProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, HostTimings> hosts;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final ScheduledExecutorService persister = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "wait-budget-persister");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public WaitBudgetService(WaitBudgetProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.hosts = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxHosts())
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        load();
+        if (statsFile() != null) {
+            long period = Math.max(1000, properties.getPersistIntervalMs());
+            persister.scheduleWithFixedDelay(this::persist, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Бюджет фазы ожидания для хоста, мс. Пока наблюдений мало, используется значение по умолчанию.
+     */
+    public long budget(String host, WaitPhase phase) {
+        WaitBudgetProperties.PhaseLimits limits = limits(phase);
+        if (!properties.isEnabled() || host == null) {
+            return limits.getDefaultMs();
+        }
+        HostTimings timings = hosts.getIfPresent(host);
+        if (timings == null) {
+            return limits.getDefaultMs();
+        }
+        return timings.histogram(phase).budget(limits, properties.getMinSamples(), properties.getMarginMs());
+    }
+
+    /**
+     * Учитывает фактическое время ожидания. completed = false — ожидание закончилось по таймауту.
+     */
+    public void record(String host, WaitPhase phase, long elapsedMs, boolean completed) {
+        if (!properties.isEnabled() || host == null) {
+            return;
+        }
+        hosts.get(host, h -> new HostTimings()).histogram(phase).add(elapsedMs, completed);
+        dirty.set(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persister.shutdownNow();
+        persist();
+    }
+
+    private WaitBudgetProperties.PhaseLimits limits(WaitPhase phase) {
+        return switch (phase) {
+            case WARM_UP -> properties.getWarmUp();
+            case PAGE_SETTLE -> properties.getPageSettle();
+            case CONTACT_INFO -> properties.getContactInfo();
+        };
+    }
+
+    private Path statsFile() {
+        String file = properties.getStatsFile();
+        return properties.isEnabled() && file != null && !file.isBlank() ? Path.of(file) : null;
+    }
+
+    private void load() {
+        Path file = statsFile();
+        if (file == null || !Files.exists(file)) {
+            return;
+        }
+        try {
+            Snapshot snapshot = objectMapper.readValue(file.toFile(), Snapshot.class);
+            if (!Arrays.equals(snapshot.bucketsMs(), BUCKETS_MS)) {
+                logger.warn("Статистика ожиданий в {} записана с другими корзинами, не используется", file);
+                return;
+            }
+            snapshot.hosts().forEach((host, phases) -> {
+                HostTimings timings = new HostTimings();
+                phases.forEach((phase, counts) -> timings.histogram(phase).restore(counts));
+                hosts.put(host, timings);
+            });
+            logger.info("Загружена статистика ожиданий для {} хостов", snapshot.hosts().size());
+        } catch (Exception e) {
+            logger.warn("Не удалось загрузить статистику ожиданий из {}", file, e);
+        }
+    }
+
+    private synchronized void persist() {
+        Path file = statsFile();
+        if (file == null || !dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            Map<String, Map<WaitPhase, long[]>> snapshot = new HashMap<>();
+            hosts.asMap().forEach((host, timings) -> snapshot.put(host, timings.snapshot()));
+
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // Пишем во временный файл и заменяем им старый, чтобы при падении не остался обрезанный файл
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), new Snapshot(BUCKETS_MS, snapshot));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            dirty.set(true);
+            logger.warn("Не удалось сохранить статистику ожиданий в {}", file, e);
+        }
+    }
+
+    private record Snapshot(long[] bucketsMs, Map<String, Map<WaitPhase, long[]>> hosts) {
+    }
+
+    private static class HostTimings {
+        private final Map<WaitPhase, Histogram> phases = new EnumMap<>(WaitPhase.class);
+
+        private synchronized Histogram histogram(WaitPhase phase) {
+            return phases.computeIfAbsent(phase, p -> new Histogram());
+        }
+
+        private synchronized Map<WaitPhase, long[]> snapshot() {
+            Map<WaitPhase, long[]> snapshot = new EnumMap<>(WaitPhase.class);
+            phases.forEach((phase, histogram) -> snapshot.put(phase, histogram.snapshot()));
+            return snapshot;
+        }
+    }
+
+    /**
+     * Гистограмма времени ожидания одной фазы хоста. Ожидание по таймауту показывает только, что условию не хватило
+     * действовавшего тогда бюджета, поэтому отдельно хранится самый долгий таймаут и было ли после него
+     * успешное ожидание. Эти поля в файл не сохраняются: после перезапуска бюджет снова подбирается от значения по умолчанию.
+     */
+    static class Histogram {
+        private final long[] counts = new long[BUCKETS_MS.length + 1];
+        private long total;
+        private long longestTimeoutMs;
+        private boolean completedSinceLongestTimeout;
+
+        synchronized void add(long elapsedMs, boolean completed) {
+            int bucket = BUCKETS_MS.length;
+            if (!completed && elapsedMs >= longestTimeoutMs) {
+                longestTimeoutMs = elapsedMs;
+                completedSinceLongestTimeout = false;
+            }
+            if (completed) {
+                completedSinceLongestTimeout = true;
+                bucket = BUCKETS_MS.length - 1;
+                for (int i = 0; i < BUCKETS_MS.length; i++) {
+                    if (elapsedMs <= BUCKETS_MS[i]) {
+                        bucket = i;
+                        break;
+                    }
+                }
+            }
+            counts[bucket]++;
+            total++;
+            if (total >= DECAY_THRESHOLD) {
+                total = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] /= 2;
+                    total += counts[i];
+                }
+            }
+        }
+
+        synchronized long budget(WaitBudgetProperties.PhaseLimits limits, int minSamples, long marginMs) {
+            if (total < Math.max(1, minSamples)) {
+                return limits.getDefaultMs();
+            }
+            long timeouts = counts[BUCKETS_MS.length];
+            if (timeouts * 2 >= total) {
+                // Условие не дожидается и с максимальным бюджетом (бесконечная анимация, нет контактов) —
+                // увеличение бюджета ничего не даст, оставляем значение по умолчанию
+                if (longestTimeoutMs >= limits.getMaxMs() * AT_MAX_RATIO && !completedSinceLongestTimeout) {
+                    return limits.getDefaultMs();
+                }
+                // Иначе бюджета не хватает: увеличиваем его на корзину выше самого долгого таймаута
+                return clamp(nextBucket(Math.max(longestTimeoutMs, limits.getDefaultMs())), limits);
+            }
+
+            long rank = (long) Math.ceil(total * PERCENTILE);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS_MS.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return clamp(BUCKETS_MS[i] + marginMs, limits);
+                }
+            }
+            // 95-й перцентиль приходится на таймауты: хосту не хватает времени, даем максимум
+            return limits.getMaxMs();
+        }
+
+        private static long nextBucket(long ms) {
+            for (long bucket : BUCKETS_MS) {
+                if (bucket > ms) {
+                    return bucket;
+                }
+            }
+            return BUCKETS_MS[BUCKETS_MS.length - 1];
+        }
+
+        private long clamp(long value, WaitBudgetProperties.PhaseLimits limits) {
+            return Math.max(limits.getMinMs(), Math.min(value, limits.getMaxMs()));
+        }
+
+        private synchronized void restore(long[] saved) {
+            if (saved == null || saved.length != counts.length) {
+                return;
+            }
+            total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = Math.max(0, saved[i]);
+                total += counts[i];
+            }
+        }
+
+        private synchronized long[] snapshot() {
+            return counts.clone();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package tech.kirouski.parser.service;
+
+/**
+ * Фазы ожидания при загрузке страницы в браузере
+ */
+public enum WaitPhase {
+    /**
+     * Готовность главной страницы при предварительном открытии
+     */
+    WARM_UP,
+    /**
+     * Готовность целевой страницы: загрузка, сетевые запросы, стабильный DOM
+     */
+    PAGE_SETTLE,
+    /**
+     * Появление контактной информации на странице
+     */
+    CONTACT_INFO
+}
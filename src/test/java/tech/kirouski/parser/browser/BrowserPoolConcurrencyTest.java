@@ -0,0 +1,180 @@
+package tech.kirouski.parser.browser;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tech.kirouski.parser.exception.HtmlFetchException;
+import tech.kirouski.parser.service.HtmlParserService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Параллельные загрузки в настоящем Chrome на локальных тестовых страницах: каждый запрос получает свою страницу,
+ * браузеры пула работают одновременно, но их не больше max-size, браузеры возвращаются в пул и после ошибок. Без установленного Chrome тест пропускается.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "parser.browser-pool.min-size=0",
+        "parser.browser-pool.max-size=" + BrowserPoolConcurrencyTest.MAX_SIZE,
+        "parser.browser-pool.borrow-timeout-ms=60000",
+        "parser.browser-pool.contexts-per-browser=1",
+        "parser.browser-lifecycle.enabled=false",
+        "parser.admission.max-queue=32",
+        "parser.admission.queue-timeout-ms=60000",
+        "parser.wait-budget.enabled=false",
+        "parser.session.enabled=false"
+})
+class BrowserPoolConcurrencyTest {
+
+    static final int MAX_SIZE = 2;
+    private static final int FETCHES = 12;
+    /**
+     * Задержка ответа страницы, мс: загрузки в разных браузерах должны успеть пересечься по времени
+     */
+    private static final long PAGE_DELAY_MS = 500;
+
+    private static final Pattern MARKER = Pattern.compile("fixture-page-(\\d+)");
+
+    private static HttpServer server;
+
+    @Autowired
+    private HtmlParserService htmlParserService;
+
+    @Autowired
+    private BrowserPool browserPool;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        assumeTrue(ChromeAvailability.isInstalled(), "Chrome не найден, тест пропущен");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", BrowserPoolConcurrencyTest::handle);
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void parallelFetchesGetTheirOwnPagesAndReturnBrowsers() throws Exception {
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        AtomicInteger maxSize = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                maxSize.accumulateAndGet(browserPool.getSize(), Math::max);
+                maxActive.accumulateAndGet(browserPool.getActiveCount(), Math::max);
+                Thread.onSpinWait();
+            }
+        });
+        sampler.start();
+
+        ExecutorService clients = Executors.newFixedThreadPool(FETCHES);
+        List<Future<String>> pages = new ArrayList<>();
+        try {
+            for (int i = 0; i < FETCHES; i++) {
+                // Каждая четвертая страница отвечает 403: загрузка завершается исключением
+                String url = baseUrl() + (i % 4 == 3 ? "/forbidden/" : "/page/") + i;
+                pages.add(clients.submit(() -> htmlParserService.fetchHtml(url)));
+            }
+
+            for (int i = 0; i < FETCHES; i++) {
+                Future<String> page = pages.get(i);
+                if (i % 4 == 3) {
+                    ExecutionException e = assertThrows(ExecutionException.class, () -> page.get(120, TimeUnit.SECONDS));
+                    assertInstanceOf(HtmlFetchException.class, e.getCause());
+                } else {
+                    assertEquals(List.of(i), markers(page.get(120, TimeUnit.SECONDS)), "Страница запроса " + i);
+                }
+            }
+        } finally {
+            clients.shutdownNow();
+            sampling.set(false);
+            sampler.join();
+        }
+
+        assertTrue(maxSize.get() <= MAX_SIZE, "В пуле было " + maxSize.get() + " браузеров");
+        assertTrue(maxActive.get() <= MAX_SIZE, "Выдано запросам " + maxActive.get() + " браузеров");
+        // Пул, выполняющий все загрузки по очереди в одном браузере, не должен проходить тест
+        assertTrue(maxActive.get() > 1, "Загрузки не выполнялись параллельно: одновременно выдан "
+                + maxActive.get() + " браузер");
+        assertEquals(0, browserPool.getActiveCount());
+        assertEquals(browserPool.getSize(), browserPool.getIdleCount());
+
+        // Браузеры, вернувшиеся после ошибок, продолжают обслуживать запросы
+        assertEquals(List.of(100), markers(htmlParserService.fetchHtml(baseUrl() + "/page/100")));
+    }
+
+    private static List<Integer> markers(String html) {
+        List<Integer> markers = new ArrayList<>();
+        Matcher matcher = MARKER.matcher(html);
+        while (matcher.find()) {
+            markers.add(Integer.parseInt(matcher.group(1)));
+        }
+        return markers;
+    }
+
+    private static String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        int status = 200;
+        String body;
+        if (path.startsWith("/page/")) {
+            try {
+                Thread.sleep(PAGE_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            body = page("Страница " + path.substring("/page/".length()),
+                    "<p id=\"marker\">fixture-page-" + path.substring("/page/".length()) + "</p>");
+        } else if (path.startsWith("/forbidden/")) {
+            status = 403;
+            body = page("403 Forbidden", "<h1>403 Forbidden</h1><p>Access denied.</p>");
+        } else {
+            body = page("Главная страница", "");
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String page(String title, String content) {
+        String filler = "<p>Тестовая страница для проверки параллельной загрузки в пуле браузеров.</p>".repeat(20);
+        return "<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>" + title + "</title></head><body>"
+                + content + filler + "</body></html>";
+    }
+}
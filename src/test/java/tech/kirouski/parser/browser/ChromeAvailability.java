@@ -0,0 +1,35 @@
+package tech.kirouski.parser.browser;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Проверка, установлен ли Chrome: тесты с настоящим браузером без него пропускаются
+ */
+public final class ChromeAvailability {
+
+    private ChromeAvailability() {
+    }
+
+    /**
+     * Chrome из CHROME_BIN или один из известных исполняемых файлов в PATH
+     */
+    public static boolean isInstalled() {
+        String chromeBin = System.getenv("CHROME_BIN");
+        if (chromeBin != null && !chromeBin.isEmpty()) {
+            return new File(chromeBin).canExecute();
+        }
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return false;
+        }
+        for (String dir : path.split(File.pathSeparator)) {
+            for (String name : List.of("google-chrome", "google-chrome-stable", "chromium", "chromium-browser", "chrome")) {
+                if (new File(dir, name).canExecute()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,185 @@
+package tech.kirouski.parser.extract;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import tech.kirouski.parser.dto.ContactInfo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Исходное извлечение контактов из HtmlParserService (селекторы jsoup и регулярные выражения) —
+ * эталон, с которым сравниваются ContactExtractor и StreamingContactExtractor
+ */
+final class BaselineContactExtractor {
+
+    private BaselineContactExtractor() {
+    }
+
+    static ContactInfo extractContactInfo(String html) {
+        ContactInfo contactInfo = new ContactInfo();
+        contactInfo.setFullHtml(html);
+        Document doc = Jsoup.parse(html);
+        contactInfo.setPhones(extractPhones(html, doc));
+        contactInfo.setEmails(extractEmails(html, doc));
+        contactInfo.setAddresses(extractAddresses(doc));
+        contactInfo.setWorkingHours(extractWorkingHours(doc));
+        return contactInfo;
+    }
+
+    private static List<String> extractPhones(String html, Document doc) {
+        Set<String> phones = new LinkedHashSet<>();
+
+        Pattern phonePattern = Pattern.compile(
+            "(?:\\+?375|8)?\\s?[-()]?\\s?(?:29|25|33|44|17)\\s?[-()]?\\s?\\d{3}[-()]?\\s?\\d{2}[-()]?\\s?\\d{2}" + // Беларусь
+            "|(?:\\+?7|8)?\\s?[-()]?\\s?(?:\\d{3})\\s?[-()]?\\s?\\d{3}[-()]?\\s?\\d{2}[-()]?\\s?\\d{2}" + // Россия
+            "|(?:\\+?\\d{1,3})?[-.\\s]?\\(?\\d{3}\\)?[-.\\s]?\\d{3}[-.\\s]?\\d{4}" + // Международный формат
+            "|\\d{3}[-.\\s]?\\d{3}[-.\\s]?\\d{4}" // Простой формат
+        );
+
+        Matcher matcher = phonePattern.matcher(html);
+        while (matcher.find()) {
+            String phone = matcher.group().trim();
+            if (phone.length() >= 7) {
+                phones.add(normalizePhone(phone));
+            }
+        }
+
+        Elements telLinks = doc.select("a[href^=tel:]");
+        for (Element link : telLinks) {
+            String tel = link.attr("href").replace("tel:", "").trim();
+            if (!tel.isEmpty()) {
+                phones.add(normalizePhone(tel));
+            }
+        }
+
+        Elements phoneElements = doc.select("*[class*='phone'], *[class*='tel'], *[class*='contact'], *[id*='phone'], *[id*='tel']");
+        for (Element element : phoneElements) {
+            String text = element.text();
+            Matcher textMatcher = phonePattern.matcher(text);
+            while (textMatcher.find()) {
+                phones.add(normalizePhone(textMatcher.group().trim()));
+            }
+        }
+
+        return new ArrayList<>(phones);
+    }
+
+    private static String normalizePhone(String phone) {
+        return phone.replaceAll("[^\\d+]", "").replaceAll("^8", "+375");
+    }
+
+    private static List<String> extractEmails(String html, Document doc) {
+        Set<String> emails = new LinkedHashSet<>();
+
+        Pattern emailPattern = Pattern.compile(
+            "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}",
+            Pattern.CASE_INSENSITIVE
+        );
+
+        Matcher matcher = emailPattern.matcher(html);
+        while (matcher.find()) {
+            String email = matcher.group().toLowerCase();
+            if (!email.contains("@example") && !email.contains("@test")) {
+                emails.add(email);
+            }
+        }
+
+        Elements mailLinks = doc.select("a[href^=mailto:]");
+        for (Element link : mailLinks) {
+            String email = link.attr("href").replace("mailto:", "").split("[?]")[0].trim().toLowerCase();
+            if (!email.isEmpty()) {
+                emails.add(email);
+            }
+        }
+
+        Elements emailElements = doc.select("*[class*='email'], *[class*='mail'], *[id*='email'], *[id*='mail']");
+        for (Element element : emailElements) {
+            String text = element.text();
+            Matcher textMatcher = emailPattern.matcher(text);
+            while (textMatcher.find()) {
+                emails.add(textMatcher.group().toLowerCase());
+            }
+        }
+
+        return new ArrayList<>(emails);
+    }
+
+    private static List<String> extractAddresses(Document doc) {
+        Set<String> addresses = new LinkedHashSet<>();
+
+        Elements addressElements = doc.select("*[itemtype*='PostalAddress'], *[itemprop='address'], address");
+        for (Element element : addressElements) {
+            String address = element.text().trim();
+            if (address.length() > 10) {
+                addresses.add(address);
+            }
+        }
+
+        Elements addressClassElements = doc.select(
+            "*[class*='address'], *[class*='адрес'], *[class*='location'], " +
+            "*[id*='address'], *[id*='адрес'], *[id*='location']"
+        );
+        for (Element element : addressClassElements) {
+            String address = element.text().trim();
+            if (address.length() > 10 && !address.contains("@")) {
+                addresses.add(address);
+            }
+        }
+
+        Elements footerElements = doc.select("footer, .footer, .contacts, .contact-info, .address-block");
+        for (Element element : footerElements) {
+            String text = element.text();
+            if (text.matches(".*(улица|ул\\.|street|st\\.|проспект|пр\\.|avenue|av\\.).*")) {
+                String[] lines = text.split("\n");
+                for (String line : lines) {
+                    line = line.trim();
+                    if (line.length() > 15 && line.matches(".*\\d+.*")) {
+                        addresses.add(line);
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(addresses);
+    }
+
+    private static String extractWorkingHours(Document doc) {
+        Elements openingHoursElements = doc.select("*[itemprop='openingHours'], *[itemprop='openingHoursSpecification']");
+        if (!openingHoursElements.isEmpty()) {
+            return openingHoursElements.first().text().trim();
+        }
+
+        Elements hoursElements = doc.select(
+            "*[class*='hours'], *[class*='time'], *[class*='расписание'], *[class*='work'], " +
+            "*[id*='hours'], *[id*='time'], *[id*='расписание']"
+        );
+        for (Element element : hoursElements) {
+            String text = element.text().trim();
+            if (text.toLowerCase().contains("пн") || text.toLowerCase().contains("mon") ||
+                text.toLowerCase().contains("вт") || text.toLowerCase().contains("tue") ||
+                text.matches(".*\\d{1,2}:\\d{2}.*")) {
+                return text;
+            }
+        }
+
+        String bodyText = doc.body().text();
+        Pattern hoursPattern = Pattern.compile(
+            "(?:пн|пон|mon|monday)[\\s:-]*\\d{1,2}:\\d{2}[\\s-]*\\d{1,2}:\\d{2}.*",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE
+        );
+        Matcher matcher = hoursPattern.matcher(bodyText);
+        if (matcher.find()) {
+            String match = matcher.group();
+            return match.length() > 200 ? match.substring(0, 200) + "..." : match;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+package tech.kirouski.parser.extract;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tech.kirouski.parser.browser.BrowserPool;
+import tech.kirouski.parser.browser.BrowserTab;
+import tech.kirouski.parser.browser.ChromeAvailability;
+import tech.kirouski.parser.service.HtmlParserService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Скрипт извлечения в браузере находит то же, что ContactExtractor в исходном коде той же страницы,
+ * и так же распознает ответ 403. Без установленного Chrome тест пропускается.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "parser.browser-pool.min-size=0",
+        "parser.browser-pool.max-size=1",
+        "parser.browser-pool.contexts-per-browser=1",
+        "parser.browser-lifecycle.enabled=false",
+        "parser.wait-budget.enabled=false",
+        "parser.session.enabled=false"
+})
+class BrowserContactExtractorTest {
+
+    private static HttpServer server;
+
+    @Autowired
+    private BrowserPool browserPool;
+
+    @Autowired
+    private BrowserContactExtractor browserContactExtractor;
+
+    @Autowired
+    private HtmlParserService htmlParserService;
+
+    private final ContactExtractor contactExtractor = new ContactExtractor();
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        assumeTrue(ChromeAvailability.isInstalled(), "Chrome не найден, тест пропущен");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/fixtures/", BrowserContactExtractorTest::handle);
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void extractsTheSameContactsAsContactExtractor() throws Exception {
+        BrowserTab tab = browserPool.borrow();
+        try {
+            for (String fixture : ContactExtractorTest.FIXTURES) {
+                tab.open("http://localhost:" + server.getAddress().getPort() + "/fixtures/" + fixture);
+                BrowserContactExtractor.Result result = browserContactExtractor.extract(tab);
+                String html = tab.getPageSource();
+
+                ContactExtractorTest.assertSameContacts(contactExtractor.extract(html), result.contactInfo(), fixture);
+                assertEquals(htmlParserService.is403Error(html), result.forbidden(), fixture + ": признак 403");
+            }
+        } finally {
+            browserPool.release(tab);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String name = exchange.getRequestURI().getPath().substring("/fixtures/".length());
+        byte[] bytes = ContactExtractorTest.fixture(name).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package tech.kirouski.parser.extract;
+
+import org.junit.jupiter.api.Test;
+import tech.kirouski.parser.dto.ContactInfo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ContactExtractor находит то же, что исходное извлечение контактов, и в том же порядке
+ */
+class ContactExtractorTest {
+
+    static final List<String> FIXTURES = List.of("edge-cases", "hours-in-text", "contacts", "landing", "forbidden");
+
+    private final ContactExtractor extractor = new ContactExtractor();
+
+    @Test
+    void extractsTheSameContactsAsTheBaseline() {
+        for (String fixture : FIXTURES) {
+            String html = fixture(fixture);
+            assertSameContacts(BaselineContactExtractor.extractContactInfo(html), extractor.extract(html), fixture);
+        }
+    }
+
+    @Test
+    void coversTheRulesOfTheEdgeCasesFixture() {
+        ContactInfo contacts = extractor.extract(fixture("edge-cases"));
+
+        // Объединение селекторов по классам и id — в порядке документа, без повторов.
+        // Ведущая 8 по-прежнему заменяется на +375 целиком, вместе с кодом 029 получается +3750...
+        assertEquals(List.of("+375291112233", "+3750292223344", "+74951234567", "+375337654321", "+375172000000", "+375291234567"),
+                contacts.getPhones());
+        // Заглушки отбрасываются при поиске по всему HTML, но не в элементах с классом или id "mail"
+        assertTrue(contacts.getEmails().contains("test@example.com"));
+        assertTrue(contacts.getEmails().contains("help@testing.by"));
+        assertFalse(contacts.getEmails().contains("noreply@test.org"));
+        assertFalse(contacts.getEmails().contains("info@example.org"));
+        // itemtype PostalAddress, itemprop="address" с пробелами, тег address, классы и футер
+        assertTrue(contacts.getAddresses().contains("пр. Независимости, 95, Минск"));
+        assertTrue(contacts.getAddresses().contains("ул. Немига, 5, Минск, Беларусь"));
+        assertTrue(contacts.getAddresses().contains("Street address: 12 Baker st. London NW1 6XE"));
+        assertFalse(contacts.getAddresses().contains("Короткий"));
+        assertEquals("Mo-Fr 09:00-18:00", contacts.getWorkingHours());
+
+        ContactInfo textHours = extractor.extract(fixture("hours-in-text"));
+        assertTrue(textHours.getWorkingHours().startsWith("пн 9:00-18:00"));
+        assertTrue(textHours.getAddresses().contains("Контакты: пр. Победителей, 7А, Минск"));
+    }
+
+    /**
+     * Атрибуты приводятся к нижнему регистру с Locale.ENGLISH, как в селекторах jsoup:
+     * при турецкой локали "EMAIL".toLowerCase() дает "emaıl", и класс не совпал бы с "mail"
+     */
+    @Test
+    void matchesAttributesIndependentlyOfTheDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            String html = fixture("edge-cases");
+            ContactInfo contacts = extractor.extract(html);
+            assertSameContacts(BaselineContactExtractor.extractContactInfo(html), contacts, "edge-cases (tr-TR)");
+            assertTrue(contacts.getEmails().contains("sales@shop.by"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    static void assertSameContacts(ContactInfo expected, ContactInfo actual, String fixture) {
+        assertEquals(expected.getPhones(), actual.getPhones(), fixture + ": телефоны");
+        assertEquals(expected.getEmails(), actual.getEmails(), fixture + ": email");
+        assertEquals(expected.getAddresses(), actual.getAddresses(), fixture + ": адреса");
+        assertEquals(expected.getWorkingHours(), actual.getWorkingHours(), fixture + ": время работы");
+    }
+
+    static String fixture(String name) {
+        try (InputStream in = ContactExtractorTest.class.getResourceAsStream("/fixtures/" + name + ".html")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Нет тестовой страницы " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package tech.kirouski.parser.extract;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Сравнение EmailScanner с регулярным выражением, которым email искались до него
+ */
+class EmailScannerTest {
+
+    /**
+     * Регулярное выражение из HtmlParserService до перехода на EmailScanner
+     */
+    private static final Pattern ORIGINAL = Pattern.compile(
+            "[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private static final List<String> SAMPLES = List.of(
+            "",
+            "Пишите на info@example.by или Sales.Team+web@Shop-Online.COM.",
+            "mailto:support@company.ru?subject=Вопрос, копия: a.b-c_d%e@mail.co.uk",
+            "user@localhost user@host.c user@host.c0m user@host.com1 user@-host..com",
+            "a@b.cc@d.ee first@one.org,second@two.net;third@three.info",
+            "@@@ x@ @y.zz x@@y.zz .@..aa -@-.bb",
+            "photo@2x.png icon@3x.webp logo@2x.svg",
+            "Почта: иван@почта.рф, ivan@pochta.рф, ivan@pochta.by",
+            "very.long.local.part.with.dots@sub.domain.example.travel!",
+            "name@domain.c-o.uk name@domain.co.u-k name@domain..com"
+    );
+
+    @Test
+    void findsTheSameEmailsAsTheOriginalPattern() {
+        for (String sample : SAMPLES) {
+            assertSameAsOriginal(sample);
+        }
+    }
+
+    @Test
+    void findsTheSameEmailsOnRandomText() {
+        Random random = new Random(42);
+        String alphabet = "abcXY019@@..-_%+ ,;:<>\"'ы";
+        for (int i = 0; i < 50_000; i++) {
+            assertSameAsOriginal(randomText(random, alphabet, random.nextInt(40)));
+        }
+    }
+
+    @Test
+    void chunkedScanFindsTheSameEmailsAsWholeText() {
+        Random random = new Random(7);
+        String alphabet = "abcXY019@@..-_%+ ,;:<>\"'ы";
+        List<String> texts = new ArrayList<>(SAMPLES);
+        texts.add(String.join(" ", SAMPLES));
+        for (int i = 0; i < 2_000; i++) {
+            texts.add(randomText(random, alphabet, random.nextInt(200)));
+        }
+        for (String text : texts) {
+            List<String> whole = new ArrayList<>();
+            EmailScanner.findAll(text, whole::add);
+            for (int chunkSize : new int[]{1, 2, 3, 5, 8, 13, 64}) {
+                assertEquals(whole, scanInChunks(text, chunkSize), "Фрагменты по " + chunkSize + " символов: " + text);
+            }
+        }
+    }
+
+    @Test
+    void scansAdversarialInputInLinearTime() {
+        int size = 1 << 18;
+        List<String> inputs = List.of(
+                // Длинная серия символов локальной части без '@': регулярное выражение перебирает ее с каждой позиции
+                "a".repeat(size),
+                "a.".repeat(size / 2),
+                "a@".repeat(size / 2),
+                "a@b".repeat(size / 3),
+                "x@" + "a.".repeat(size / 2),
+                "@a.".repeat(size / 3) + "com"
+        );
+        for (String input : inputs) {
+            // Совпадение с регулярным выражением проверяется на начале строки, время — на всей
+            assertSameAsOriginal(input.substring(0, 2_000));
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                EmailScanner.findAll(input, email -> { });
+                scanInChunks(input, 4096);
+            });
+        }
+    }
+
+    private static void assertSameAsOriginal(String text) {
+        List<String> actual = new ArrayList<>();
+        EmailScanner.findAll(text, actual::add);
+        assertEquals(findWithOriginal(text), actual, "Текст: " + text);
+    }
+
+    private static List<String> findWithOriginal(String text) {
+        List<String> emails = new ArrayList<>();
+        Matcher matcher = ORIGINAL.matcher(text);
+        while (matcher.find()) {
+            emails.add(matcher.group().toLowerCase());
+        }
+        return emails;
+    }
+
+    /**
+     * Поиск по фрагментам потока: после каждого фрагмента отбрасывается текст до возвращенной позиции
+     */
+    private static List<String> scanInChunks(String text, int chunkSize) {
+        List<String> emails = new ArrayList<>();
+        StringBuilder window = new StringBuilder();
+        int from = 0;
+        for (int start = 0; start < text.length(); start += chunkSize) {
+            window.append(text, start, Math.min(text.length(), start + chunkSize));
+            from = EmailScanner.scan(window, from, false, emails::add);
+            window.delete(0, from);
+            from = 0;
+        }
+        EmailScanner.scan(window, from, true, emails::add);
+        return emails;
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
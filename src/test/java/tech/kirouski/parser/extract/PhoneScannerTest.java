@@ -0,0 +1,158 @@
+package tech.kirouski.parser.extract;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Сравнение PhoneScanner с регулярным выражением, которым телефоны искались до него
+ */
+class PhoneScannerTest {
+
+    /**
+     * Регулярное выражение из HtmlParserService до перехода на PhoneScanner
+     */
+    private static final Pattern ORIGINAL = Pattern.compile(
+            "(?:\\+?375|8)?\\s?[-()]?\\s?(?:29|25|33|44|17)\\s?[-()]?\\s?\\d{3}[-()]?\\s?\\d{2}[-()]?\\s?\\d{2}" +
+            "|(?:\\+?7|8)?\\s?[-()]?\\s?(?:\\d{3})\\s?[-()]?\\s?\\d{3}[-()]?\\s?\\d{2}[-()]?\\s?\\d{2}" +
+            "|(?:\\+?\\d{1,3})?[-.\\s]?\\(?\\d{3}\\)?[-.\\s]?\\d{3}[-.\\s]?\\d{4}" +
+            "|\\d{3}[-.\\s]?\\d{3}[-.\\s]?\\d{4}"
+    );
+
+    private static final List<String> SAMPLES = List.of(
+            "",
+            "Телефон: +375 (29) 123-45-67, факс 8 017 222-33-44",
+            "+375291234567 +375 29 123 45 67 375-29-123-45-67 80291234567",
+            "+7 (495) 123-45-67, 8 800 555 35 35, 7 912 345 67 89",
+            "+1 (555) 123-4567, +44 20 7946 0958, 555.123.4567, 555-123-4567",
+            "Звоните: (029) 123-45-67 или 8(029)1234567 с 9:00 до 18:00",
+            "ИНН 1234567890, ОКПО 12345678, счет 3012000012345678901",
+            "tel:+375-33-765-43-21 tel:+375 44 111 22 33\ntel:+375 (17) 2000000",
+            "+375 29 123-45-6 +375 29 123-45 12-34-56 +12 (345) 678-901",
+            "  8 029 123 45 67  \t+375\t29\t123\t45\t67\n",
+            "2024-01-15 12:30:45.123456789 000 000 0000 (123)456-7890",
+            "1234567890123456789012345678901234567890"
+    );
+
+    @Test
+    void findsTheSameNumbersAsTheOriginalPattern() {
+        for (String sample : SAMPLES) {
+            assertSameAsOriginal(sample);
+        }
+    }
+
+    @Test
+    void findsTheSameNumbersOnRandomText() {
+        Random random = new Random(42);
+        String alphabet = "0123456789012345678901234567890123456789 +-()./\n\tx";
+        for (int i = 0; i < 50_000; i++) {
+            assertSameAsOriginal(randomText(random, alphabet, random.nextInt(40)));
+        }
+    }
+
+    @Test
+    void chunkedScanFindsTheSameNumbersAsWholeText() {
+        Random random = new Random(7);
+        String alphabet = "0123456789012345678901234567890123456789 +-()./\n\tx";
+        List<String> texts = new ArrayList<>(SAMPLES);
+        texts.add(String.join(" ", SAMPLES));
+        for (int i = 0; i < 1_000; i++) {
+            texts.add(randomText(random, alphabet, random.nextInt(200)));
+        }
+        for (String text : texts) {
+            for (int minLength : new int[]{0, 7}) {
+                List<String> whole = new ArrayList<>();
+                PhoneScanner.DEFAULT.findAll(text, minLength, whole);
+                for (int chunkSize : new int[]{1, 2, 3, 5, 8, 13, 64}) {
+                    assertEquals(whole, scanInChunks(text, chunkSize, minLength),
+                            "Фрагменты по " + chunkSize + " символов: " + text);
+                }
+            }
+        }
+    }
+
+    @Test
+    void normalizesLikeTheOriginalReplaceAll() {
+        for (String phone : List.of("8 (029) 123-45-67", "+375 29 123 45 67", "+7 (495) 123-45-67", "(8)", "", "88")) {
+            assertEquals(phone.replaceAll("[^\\d+]", "").replaceAll("^8", "+375"), PhoneScanner.normalize(phone), phone);
+        }
+    }
+
+    @Test
+    void scansAdversarialInputInLinearTime() {
+        int size = 1 << 18;
+        List<String> inputs = List.of(
+                "1".repeat(size),
+                "1 ".repeat(size / 2),
+                "+375 (29) ".repeat(size / 10),
+                "(((((((((((((((((((((((((((((((((((((((((( 1".repeat(size / 44),
+                "12 34 56 ".repeat(size / 9),
+                "8-8-8-8-8-8-".repeat(size / 12)
+        );
+        for (String input : inputs) {
+            // Совпадение с регулярным выражением проверяется на начале строки, время — на всей
+            assertSameAsOriginal(input.substring(0, 2_000));
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                List<String> phones = new ArrayList<>();
+                PhoneScanner.DEFAULT.findAll(input, 7, phones);
+                scanInChunks(input, 4096, 7);
+            });
+        }
+    }
+
+    private static void assertSameAsOriginal(String text) {
+        for (int minLength : new int[]{0, 7}) {
+            List<String> actual = new ArrayList<>();
+            PhoneScanner.DEFAULT.findAll(text, minLength, actual);
+            assertEquals(findWithOriginal(text, minLength), actual, "Текст: " + text);
+        }
+    }
+
+    /**
+     * Поиск так же, как в исходном extractPhones
+     */
+    private static List<String> findWithOriginal(String text, int minLength) {
+        List<String> phones = new ArrayList<>();
+        Matcher matcher = ORIGINAL.matcher(text);
+        while (matcher.find()) {
+            String phone = matcher.group().trim();
+            if (phone.length() >= minLength) {
+                phones.add(phone.replaceAll("[^\\d+]", "").replaceAll("^8", "+375"));
+            }
+        }
+        return phones;
+    }
+
+    /**
+     * Поиск по фрагментам потока: после каждого фрагмента отбрасывается текст до возвращенной позиции
+     */
+    private static List<String> scanInChunks(String text, int chunkSize, int minLength) {
+        List<String> phones = new ArrayList<>();
+        StringBuilder window = new StringBuilder();
+        int from = 0;
+        for (int start = 0; start < text.length(); start += chunkSize) {
+            window.append(text, start, Math.min(text.length(), start + chunkSize));
+            from = PhoneScanner.DEFAULT.scan(window, from, false, minLength, phones);
+            window.delete(0, from);
+            from = 0;
+        }
+        PhoneScanner.DEFAULT.scan(window, from, true, minLength, phones);
+        return phones;
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package tech.kirouski.parser.extract;
+
+import org.junit.jupiter.api.Test;
+import tech.kirouski.parser.config.ExtractProperties;
+import tech.kirouski.parser.dto.ContactInfo;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static tech.kirouski.parser.extract.ContactExtractorTest.assertSameContacts;
+import static tech.kirouski.parser.extract.ContactExtractorTest.fixture;
+
+/**
+ * Потоковый разбор находит на корректной разметке то же, что разбор по DOM, независимо от того,
+ * где HTML разрезан на фрагменты: внутри тега, атрибута, телефона или email
+ */
+class StreamingContactExtractorTest {
+
+    private static final int[] CHUNK_SIZES = {1, 2, 3, 7, 64, 1000, 8192};
+
+    private final ContactExtractor domExtractor = new ContactExtractor();
+    private final StreamingContactExtractor streamingExtractor = new StreamingContactExtractor(new ExtractProperties());
+
+    @Test
+    void findsTheSameContactsAsTheDomExtractorAtEveryChunkSize() throws IOException {
+        for (String name : ContactExtractorTest.FIXTURES) {
+            String html = fixture(name);
+            ContactInfo expected = domExtractor.extract(html);
+            for (int chunkSize : CHUNK_SIZES) {
+                // Сдвиг первого фрагмента переносит все границы фрагментов в другие места документа
+                for (int offset : new int[]{0, 1, chunkSize / 2}) {
+                    if (offset >= chunkSize && chunkSize > 1) {
+                        continue;
+                    }
+                    String label = name + ", фрагменты по " + chunkSize + ", сдвиг " + offset;
+                    List<String> reported = new ArrayList<>();
+                    ContactInfo actual = streamingExtractor.extract(new ChunkedReader(html, chunkSize, offset),
+                            (type, value) -> reported.add(type + " " + value));
+                    assertSameContacts(expected, actual, label);
+                    assertEquals(reportedContacts(actual), Set.copyOf(reported), label + ": контакты, переданные listener");
+                    assertEquals(reported.size(), Set.copyOf(reported).size(), label + ": повторы в listener");
+                }
+            }
+        }
+    }
+
+    private static Set<String> reportedContacts(ContactInfo contacts) {
+        Set<String> values = new LinkedHashSet<>();
+        contacts.getPhones().forEach(phone -> values.add(ContactType.PHONE + " " + phone));
+        contacts.getEmails().forEach(email -> values.add(ContactType.EMAIL + " " + email));
+        contacts.getAddresses().forEach(address -> values.add(ContactType.ADDRESS + " " + address));
+        if (contacts.getWorkingHours() != null) {
+            values.add(ContactType.WORKING_HOURS + " " + contacts.getWorkingHours());
+        }
+        return values;
+    }
+
+    /**
+     * Отдает текст фрагментами не длиннее chunkSize, первый фрагмент — длиной chunkSize - offset
+     */
+    private static final class ChunkedReader extends Reader {
+        private final Reader text;
+        private final int chunkSize;
+        private int nextChunk;
+
+        private ChunkedReader(String text, int chunkSize, int offset) {
+            this.text = new StringReader(text);
+            this.chunkSize = chunkSize;
+            this.nextChunk = Math.max(1, chunkSize - offset);
+        }
+
+        @Override
+        public int read(char[] buffer, int off, int len) throws IOException {
+            int read = text.read(buffer, off, Math.min(len, nextChunk));
+            nextChunk = chunkSize;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            text.close();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package tech.kirouski.parser.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tech.kirouski.parser.config.AdmissionProperties;
+import tech.kirouski.parser.config.BrowserPoolProperties;
+import tech.kirouski.parser.exception.AdmissionRejectedException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Допуск к загрузке: отказы при заполненной очереди и по таймауту, очередность, AIMD и Retry-After
+ */
+class AdmissionServiceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdmissionProperties properties = new AdmissionProperties();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void rejectsAtOnceWhenTheQueueIsFull() throws Exception {
+        properties.setMaxConcurrent(1);
+        properties.setMaxQueue(1);
+        AdmissionService admission = admission(4);
+
+        admission.acquire(null);
+        Future<Long> queued = callers.submit(() -> admission.acquire(null));
+        awaitQueued(admission, 1);
+
+        long start = System.nanoTime();
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admission.acquire(null));
+        assertTrue(e.isQueueFull());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000, "Отказ должен быть сразу");
+        assertEquals(1, rejected("queue-full"));
+
+        admission.release(System.nanoTime());
+        queued.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void rejectsWhenTheQueueTimeoutExpires() throws Exception {
+        properties.setMaxConcurrent(1);
+        AdmissionService admission = admission(4);
+
+        admission.acquire(null);
+        long start = System.nanoTime();
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admission.acquire(100L));
+        assertFalse(e.isQueueFull());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        assertEquals(1, rejected("queue-timeout"));
+        assertEquals(0, admission.getQueued());
+        assertEquals(1, admission.getInFlight());
+    }
+
+    @Test
+    void limitsTheRequestedTimeoutByTheMaximum() {
+        properties.setQueueTimeoutMs(10_000);
+        properties.setMaxQueueTimeoutMs(60_000);
+        AdmissionService admission = admission(1);
+
+        assertEquals(10_000, admission.queueTimeoutMs(null));
+        assertEquals(10_000, admission.queueTimeoutMs(-1L));
+        assertEquals(5_000, admission.queueTimeoutMs(5_000L));
+        assertEquals(60_000, admission.queueTimeoutMs(600_000L));
+    }
+
+    @Test
+    void newCallerDoesNotSkipTheWaiters() throws Exception {
+        properties.setMaxConcurrent(1);
+        AdmissionService admission = admission(4);
+
+        long admittedAt = admission.acquire(null);
+        Future<Long> waiter = callers.submit(() -> admission.acquire(5_000L));
+        awaitQueued(admission, 1);
+
+        // Освободившееся место достается ожидающему, а не вызову, пришедшему после него
+        admission.release(admittedAt);
+        assertThrows(AdmissionRejectedException.class, () -> admission.acquire(0L));
+        waiter.get(5, TimeUnit.SECONDS);
+        assertEquals(1, admission.getInFlight());
+    }
+
+    @Test
+    void backsOffOnLatencyButNotBelowMinLimit() throws Exception {
+        properties.getAdaptive().setEnabled(true);
+        properties.getAdaptive().setMinLimit(2);
+        properties.getAdaptive().setLatencyTolerance(2.0);
+        properties.getAdaptive().setBackoffRatio(0.5);
+        properties.getAdaptive().setMinFreeMemoryMb(0);
+        AdmissionService admission = admission(8);
+        assertEquals(8, admission.getLimit());
+
+        // Обычная задержка загрузки — 1 мс
+        for (int i = 0; i < 20; i++) {
+            admission.acquire(null);
+            admission.release(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertEquals(8, admission.getLimit());
+
+        admission.acquire(null);
+        admission.release(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(4, admission.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            // Лимит уменьшается не чаще одного раза за время недавней загрузки
+            Thread.sleep(50);
+            admission.acquire(null);
+            admission.release(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20));
+            assertTrue(admission.getLimit() >= 2, "Лимит " + admission.getLimit() + " ниже min-limit");
+        }
+        assertEquals(2, admission.getLimit());
+    }
+
+    @Test
+    void keepsRetryAfterWithinBounds() throws Exception {
+        AdmissionService idle = admission(8);
+        assertEquals(1, idle.queueFull().getRetryAfterSeconds());
+
+        AdmissionService slow = admission(8);
+        slow.acquire(null);
+        slow.release(System.nanoTime() - TimeUnit.MINUTES.toNanos(10));
+        assertEquals(60, slow.queueFull().getRetryAfterSeconds());
+        assertEquals(60, slow.queueTimeout(1000).getRetryAfterSeconds());
+    }
+
+    private AdmissionService admission(int maxBrowsers) {
+        BrowserPoolProperties browserPool = new BrowserPoolProperties();
+        browserPool.setMaxSize(maxBrowsers);
+        browserPool.setContextsPerBrowser(1);
+        return new AdmissionService(properties, browserPool, registry);
+    }
+
+    private double rejected(String reason) {
+        return registry.get("parser.admission.rejected").tag("reason", reason).counter().count();
+    }
+
+    private static void awaitQueued(AdmissionService admission, int queued) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (admission.getQueued() < queued && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(queued, admission.getQueued());
+    }
+}
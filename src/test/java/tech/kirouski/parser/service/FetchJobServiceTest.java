@@ -0,0 +1,89 @@
+package tech.kirouski.parser.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tech.kirouski.parser.config.JobProperties;
+import tech.kirouski.parser.dto.BatchFetchResponse;
+import tech.kirouski.parser.dto.FetchHtmlRequest;
+import tech.kirouski.parser.dto.JobStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Хранение завершенных задач ограничено по количеству
+ */
+class FetchJobServiceTest {
+
+    private FetchJobService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void evictsTheOldestFinishedJobsOverTheLimit() throws Exception {
+        BatchFetchService batchFetchService = mock(BatchFetchService.class);
+        when(batchFetchService.fetchAll(any(), any())).thenReturn(new BatchFetchResponse(List.of()));
+        JobProperties properties = new JobProperties();
+        properties.setWorkers(1);
+        properties.setMaxRetainedJobs(2);
+        service = new FetchJobService(batchFetchService, properties);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String id = service.submit(request()).getJobId();
+            ids.add(id);
+            awaitFinished(id);
+        }
+
+        assertNull(service.get(ids.get(0)));
+        assertNull(service.get(ids.get(1)));
+        assertEquals(JobStatus.COMPLETED, service.get(ids.get(2)).getStatus());
+        assertEquals(JobStatus.COMPLETED, service.get(ids.get(3)).getStatus());
+    }
+
+    @Test
+    void countsCancelledJobsAsFinished() throws Exception {
+        BatchFetchService batchFetchService = mock(BatchFetchService.class);
+        when(batchFetchService.fetchAll(any(), any())).thenReturn(new BatchFetchResponse(List.of()));
+        JobProperties properties = new JobProperties();
+        properties.setMaxRetainedJobs(1);
+        service = new FetchJobService(batchFetchService, properties);
+
+        String first = service.submit(request()).getJobId();
+        awaitFinished(first);
+        // Задача, отмененная после завершения, не учитывается повторно
+        service.cancel(first);
+        assertNotNull(service.get(first));
+
+        String second = service.submit(request()).getJobId();
+        awaitFinished(second);
+        assertNull(service.get(first));
+        assertNotNull(service.get(second));
+    }
+
+    private void awaitFinished(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (service.get(id).getStatus() != JobStatus.COMPLETED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(JobStatus.COMPLETED, service.get(id).getStatus());
+    }
+
+    private static FetchHtmlRequest request() {
+        FetchHtmlRequest request = new FetchHtmlRequest();
+        request.setUrls(List.of("https://example.com/"));
+        return request;
+    }
+}
@@ -0,0 +1,225 @@
+package tech.kirouski.parser.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tech.kirouski.parser.exception.HtmlFetchException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Объединение одинаковых задач: общий результат и ошибка, таймаут начала работы, отмена и очистка
+ */
+class SingleFlightTest {
+
+    private static final long LONG_TIMEOUT_MS = 10_000;
+
+    /**
+     * Executor-заглушка: каждая задача в новом потоке, количество запущенных задач считается
+     */
+    private final AtomicInteger started = new AtomicInteger();
+    private final Executor executor = task -> {
+        started.incrementAndGet();
+        Thread thread = new Thread(task, "single-flight-test");
+        thread.setDaemon(true);
+        thread.start();
+    };
+    private final AtomicInteger coalesced = new AtomicInteger();
+    private final SingleFlight<String, String> flights = new SingleFlight<>(executor, coalesced::incrementAndGet);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void followersShareTheLeadersResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(callers.submit(() -> flights.execute("page", LONG_TIMEOUT_MS, admitted -> {
+                admitted.run();
+                await(release);
+                return new String("html");
+            })));
+        }
+        awaitCoalesced(3);
+        release.countDown();
+
+        String first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<String> result : results) {
+            assertSame(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, started.get());
+        awaitNoFlights();
+    }
+
+    @Test
+    void followersShareTheLeadersException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        HtmlFetchException failure = new HtmlFetchException("Доступ к ресурсу запрещен");
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(callers.submit(() -> flights.execute("page", LONG_TIMEOUT_MS, admitted -> {
+                admitted.run();
+                await(release);
+                throw failure;
+            })));
+        }
+        awaitCoalesced(2);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(1, started.get());
+        awaitNoFlights();
+    }
+
+    @Test
+    void startTimeoutDetachesOnlyTheCallerThatGaveUp() throws Exception {
+        CountDownLatch admit = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Future<String> leader = callers.submit(() -> flights.execute("page", LONG_TIMEOUT_MS, admitted -> {
+            try {
+                admit.await();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+                throw new HtmlFetchException("Прервано");
+            }
+            admitted.run();
+            return "html";
+        }));
+        awaitStarted();
+
+        // Задача еще не получила допуск: второй вызов ждет не дольше своего таймаута и уходит
+        assertThrows(TimeoutException.class, () -> flights.execute("page", 50, admitted -> "other"));
+        assertEquals(1, flights.size());
+
+        admit.countDown();
+        assertEquals("html", leader.get(5, TimeUnit.SECONDS));
+        assertFalse(interrupted.get());
+        assertEquals(1, started.get());
+    }
+
+    @Test
+    void admittedFlightIsAwaitedBeyondTheStartTimeout() throws Exception {
+        CountDownLatch admittedLatch = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = callers.submit(() -> flights.execute("page", LONG_TIMEOUT_MS, admitted -> {
+            admitted.run();
+            admittedLatch.countDown();
+            await(release);
+            return "html";
+        }));
+        assertTrue(admittedLatch.await(5, TimeUnit.SECONDS));
+
+        Future<String> follower = callers.submit(() -> flights.execute("page", 10, admitted -> "other"));
+        awaitCoalesced(1);
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("html", follower.get(5, TimeUnit.SECONDS));
+        assertEquals("html", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void lastDetachCancelsTheFlight() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        assertThrows(TimeoutException.class, () -> flights.execute("page", 50, admitted -> {
+            try {
+                Thread.sleep(LONG_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        }));
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS), "Задача, которую никто не ждет, не отменена");
+        assertEquals(0, flights.size());
+
+        // Следующий вызов с тем же ключом запускает задачу заново
+        assertEquals("again", flights.execute("page", LONG_TIMEOUT_MS, admitted -> {
+            admitted.run();
+            return "again";
+        }));
+        assertEquals(2, started.get());
+    }
+
+    @Test
+    void rejectedFlightIsNotKept() {
+        SingleFlight<String, String> rejecting = new SingleFlight<>(task -> {
+            throw new RejectedExecutionException("Очередь заполнена");
+        }, coalesced::incrementAndGet);
+
+        assertThrows(RejectedExecutionException.class, () -> rejecting.execute("page", LONG_TIMEOUT_MS, admitted -> "html"));
+        assertEquals(0, rejecting.size());
+    }
+
+    @Test
+    void runtimeExceptionsReachTheCaller() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Браузер закрыт");
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> flights.execute("page", LONG_TIMEOUT_MS, admitted -> {
+                    admitted.run();
+                    throw failure;
+                }));
+        assertSame(failure, thrown);
+        awaitNoFlights();
+    }
+
+    private void awaitCoalesced(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coalesced.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, coalesced.get());
+    }
+
+    /**
+     * FutureTask будит ожидающих до вызова done(), поэтому задача убирается из таблицы чуть позже результата
+     */
+    private void awaitNoFlights() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (flights.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, flights.size());
+    }
+
+    private void awaitStarted() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (started.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, started.get());
+    }
+
+    private static void await(CountDownLatch latch) throws HtmlFetchException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HtmlFetchException("Прервано");
+        }
+    }
+}
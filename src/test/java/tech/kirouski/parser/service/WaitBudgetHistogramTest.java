@@ -0,0 +1,102 @@
+package tech.kirouski.parser.service;
+
+import org.junit.jupiter.api.Test;
+import tech.kirouski.parser.config.WaitBudgetProperties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Бюджет ожидания по гистограмме одной фазы хоста
+ */
+class WaitBudgetHistogramTest {
+
+    private static final WaitBudgetProperties.PhaseLimits LIMITS = new WaitBudgetProperties.PhaseLimits(7000, 1000, 15000);
+    private static final int MIN_SAMPLES = 5;
+    private static final long MARGIN_MS = 250;
+
+    @Test
+    void usesDefaultUntilMinSamples() {
+        WaitBudgetService.Histogram histogram = new WaitBudgetService.Histogram();
+        assertEquals(7000, budget(histogram));
+        add(histogram, 4, 2000, true);
+        assertEquals(7000, budget(histogram));
+        add(histogram, 1, 2000, true);
+        assertEquals(2000 + MARGIN_MS, budget(histogram));
+    }
+
+    @Test
+    void usesPercentileWithMarginWithinLimits() {
+        WaitBudgetService.Histogram fast = new WaitBudgetService.Histogram();
+        add(fast, 20, 100, true);
+        assertEquals(1000, budget(fast));
+
+        WaitBudgetService.Histogram slow = new WaitBudgetService.Histogram();
+        add(slow, 19, 1000, true);
+        add(slow, 1, 14500, true);
+        // 95-й перцентиль из 20 наблюдений — 19-е
+        assertEquals(1000 + MARGIN_MS, budget(slow));
+        add(slow, 1, 14500, true);
+        assertEquals(15000, budget(slow));
+    }
+
+    @Test
+    void olderObservationsFade() {
+        WaitBudgetService.Histogram histogram = new WaitBudgetService.Histogram();
+        add(histogram, 199, 5000, true);
+        add(histogram, 300, 1500, true);
+        assertEquals(5000 + MARGIN_MS, budget(histogram));
+        // Без затухания 199 медленных ожиданий из 1199 держали бы перцентиль на 5000 мс
+        add(histogram, 700, 1500, true);
+        assertEquals(1500 + MARGIN_MS, budget(histogram));
+    }
+
+    @Test
+    void givesMaxWhenSomeWaitsTimeOut() {
+        WaitBudgetService.Histogram histogram = new WaitBudgetService.Histogram();
+        add(histogram, 8, 2000, true);
+        add(histogram, 2, 7000, false);
+        assertEquals(15000, budget(histogram));
+    }
+
+    @Test
+    void raisesBudgetWhileMostWaitsTimeOut() {
+        WaitBudgetService.Histogram histogram = new WaitBudgetService.Histogram();
+        add(histogram, MIN_SAMPLES, 7000, false);
+        assertEquals(8000, budget(histogram));
+        add(histogram, 1, 8000, false);
+        assertEquals(10000, budget(histogram));
+        // Страница успевает за 9,5 с: бюджет не уменьшается, пока таймауты преобладают
+        add(histogram, 1, 9500, true);
+        assertEquals(10000, budget(histogram));
+        add(histogram, 6, 9500, true);
+        assertEquals(15000, budget(histogram));
+    }
+
+    @Test
+    void fallsBackToDefaultWhenWaitsTimeOutAtMax() {
+        WaitBudgetService.Histogram histogram = new WaitBudgetService.Histogram();
+        add(histogram, MIN_SAMPLES, 7000, false);
+        add(histogram, 1, 8000, false);
+        add(histogram, 1, 10000, false);
+        add(histogram, 1, 12000, false);
+        assertEquals(15000, budget(histogram));
+        add(histogram, 1, 15000, false);
+        assertEquals(7000, budget(histogram));
+        // Таймауты с бюджетом по умолчанию не возвращают рост
+        add(histogram, 3, 7000, false);
+        assertEquals(7000, budget(histogram));
+        // Успешное ожидание снова разрешает увеличивать бюджет
+        add(histogram, 1, 6000, true);
+        assertEquals(15000, budget(histogram));
+    }
+
+    private static long budget(WaitBudgetService.Histogram histogram) {
+        return histogram.budget(LIMITS, MIN_SAMPLES, MARGIN_MS);
+    }
+
+    private static void add(WaitBudgetService.Histogram histogram, int times, long elapsedMs, boolean completed) {
+        for (int i = 0; i < times; i++) {
+            histogram.add(elapsedMs, completed);
+        }
+    }
+}